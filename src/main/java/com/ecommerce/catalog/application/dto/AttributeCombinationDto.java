@@ -1,23 +1,21 @@
 package com.ecommerce.catalog.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Entidad para las combinaciones de atributos en variaciones
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class AttributeCombinationDto {
 
     @JsonProperty("name")
-    private String name;
+    String name;
 
     @JsonProperty("value_name")
-    private String valueName;
+    String valueName;
 }
\ No newline at end of file
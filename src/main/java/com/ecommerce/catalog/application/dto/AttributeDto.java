@@ -1,26 +1,24 @@
 package com.ecommerce.catalog.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Entidad para los atributos del producto (marca, género, material, etc.)
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class AttributeDto {
 
     @JsonProperty("id")
-    private String id;
+    String id;
 
     @JsonProperty("name")
-    private String name;
+    String name;
 
     @JsonProperty("value_name")
-    private String valueName;
+    String valueName;
 }
\ No newline at end of file
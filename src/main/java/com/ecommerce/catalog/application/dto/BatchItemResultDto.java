@@ -0,0 +1,28 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un ítem dentro de una operación batch
+ * index es la posición del ítem en el request; id queda null si no se llegó a asignar.
+ * En la actualización por consulta no hay lista en el request: los ítems se identifican
+ * solo por id y index queda null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+
+    public static final String CREATED = "created";
+    public static final String DELETED = "deleted";
+    public static final String ERROR = "error";
+
+    private Integer index;
+    private String id;
+    private String status;
+    private String error;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +16,5 @@ public class BatchOperationResultDto {
     private int successful;
     private int failed;
     private String message;
+    private List<BatchItemResultDto> items;
 }
@@ -0,0 +1,43 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del flujo de cambios del catálogo
+ * Inmutable: la misma instancia se entrega a todos los suscriptores.
+ * La secuencia crece de a uno en el orden en que se publicaron las escrituras.
+ */
+@Value
+@Builder
+@Jacksonized
+public class ChangeEventDto {
+
+    @JsonProperty("sequence")
+    long sequence;
+
+    // created, price_changed, status_changed o updated
+    @JsonProperty("type")
+    String type;
+
+    @JsonProperty("product_id")
+    String productId;
+
+    @JsonProperty("version")
+    Long version;
+
+    // Secuencia de stock del producto: (product_id, version, stock_version) identifica cada cambio
+    @JsonProperty("stock_version")
+    Long stockVersion;
+
+    @JsonProperty("timestamp")
+    LocalDateTime timestamp;
+
+    // Versión completa después del cambio
+    @JsonProperty("product")
+    ProductDto product;
+}
@@ -1,26 +1,24 @@
 package com.ecommerce.catalog.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Entidad para las imágenes del producto
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class PictureDto {
 
     @JsonProperty("id")
-    private String id;
+    String id;
 
     @JsonProperty("url")
-    private String url;
+    String url;
 
     @JsonProperty("secure_url")
-    private String secureUrl;
+    String secureUrl;
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package com.ecommerce.catalog.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
@@ -12,52 +11,86 @@ import java.util.List;
 
 /**
  * Entidad de dominio para Producto
+ * Inmutable: los cambios se hacen con toBuilder() y producen una instancia nueva.
+ * Las sublistas se guardan como listas inmutables, así una copia que no las toca
+ * comparte las mismas instancias que la versión anterior.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class ProductDto {
 
     @JsonProperty("id")
-    private String id;
+    String id;
 
     @JsonProperty("title")
-    private String title;
+    String title;
 
     @JsonProperty("description")
-    private String description;
+    String description;
 
     @JsonProperty("price")
-    private BigDecimal price;
+    BigDecimal price;
 
     @JsonProperty("currency_id")
-    private String currencyId;
+    String currencyId;
 
     @JsonProperty("condition")
-    private String condition;
+    String condition;
 
     @JsonProperty("status")
-    private String status;
+    String status;
+
+    @JsonProperty("sold_quantity")
+    Integer soldQuantity;
 
     @JsonProperty("thumbnail")
-    private String thumbnail;
+    String thumbnail;
 
     @JsonProperty("permalink")
-    private String permalink;
+    String permalink;
 
     @JsonProperty("date_created")
-    private LocalDateTime dateCreated;
+    LocalDateTime dateCreated;
 
     @JsonProperty("last_updated")
-    private LocalDateTime lastUpdated;
+    LocalDateTime lastUpdated;
 
     @JsonProperty("pictures")
-    private List<PictureDto> pictures;
+    List<PictureDto> pictures;
 
     @JsonProperty("attributes")
-    private List<AttributeDto> attributes;
+    List<AttributeDto> attributes;
 
     @JsonProperty("variations")
-    private List<VariationDto> variations;
+    List<VariationDto> variations;
+
+    // Versión asignada por el repositorio en cada escritura; se expone como ETag
+    @JsonProperty("version")
+    Long version;
+
+    // Volcados de stock publicados; avanza sin tocar la versión y las escrituras del documento la conservan
+    @JsonProperty("stock_version")
+    Long stockVersion;
+
+    public static class ProductDtoBuilder {
+
+        @JsonProperty("pictures")
+        public ProductDtoBuilder pictures(List<PictureDto> pictures) {
+            this.pictures = pictures == null ? null : List.copyOf(pictures);
+            return this;
+        }
+
+        @JsonProperty("attributes")
+        public ProductDtoBuilder attributes(List<AttributeDto> attributes) {
+            this.attributes = attributes == null ? null : List.copyOf(attributes);
+            return this;
+        }
+
+        @JsonProperty("variations")
+        public ProductDtoBuilder variations(List<VariationDto> variations) {
+            this.variations = variations == null ? null : List.copyOf(variations);
+            return this;
+        }
+    }
 }
\ No newline at end of file
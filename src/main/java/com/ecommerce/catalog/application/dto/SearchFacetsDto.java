@@ -0,0 +1,24 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conteos por faceta (marca, condición, moneda y rangos de precio) de una búsqueda
+ * Los valores de cada faceta vienen ordenados; n límites de precio generan n + 1 rangos.
+ */
+@Value
+@Builder
+@Jacksonized
+public class SearchFacetsDto {
+    Map<String, Long> brands;
+    Map<String, Long> conditions;
+    Map<String, Long> currencies;
+    List<BigDecimal> priceBoundaries;
+    List<Long> priceBucketCounts;
+}
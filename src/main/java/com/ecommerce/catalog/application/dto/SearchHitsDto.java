@@ -0,0 +1,26 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una búsqueda rankeada: los mejores hits, el total de coincidencias
+ * y, si se pidieron, los conteos por faceta
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitsDto {
+    private List<ProductDto> products;
+    private long total;
+    private SearchFacetsDto facets;
+
+    public SearchHitsDto(List<ProductDto> products, long total) {
+        this(products, total, null);
+    }
+}
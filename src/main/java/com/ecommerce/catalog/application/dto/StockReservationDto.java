@@ -0,0 +1,29 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado de reservar o liberar stock de una variación
+ */
+@Value
+@Builder
+@Jacksonized
+public class StockReservationDto {
+
+    @JsonProperty("product_id")
+    String productId;
+
+    @JsonProperty("variation_id")
+    Long variationId;
+
+    // Unidades reservadas (positivo) o liberadas (negativo)
+    @JsonProperty("quantity")
+    int quantity;
+
+    // Stock de la variación después de la operación
+    @JsonProperty("available_quantity")
+    int availableQuantity;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.catalog.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Sugerencia de autocompletado (título o marca) con su puntaje de popularidad
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+
+    @JsonProperty("text")
+    private String text;
+
+    @JsonProperty("type")
+    private String type;
+
+    @JsonProperty("score")
+    private long score;
+}
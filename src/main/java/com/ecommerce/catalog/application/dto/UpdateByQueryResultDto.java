@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una actualización por consulta
+ * matched = updated + noops + failed; failures detalla los productos que no se pudieron cambiar
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateByQueryResultDto {
+
+    @JsonProperty("matched")
+    private int matched;
+
+    @JsonProperty("updated")
+    private int updated;
+
+    // Coincidían con el filtro pero ya tenían el valor pedido
+    @JsonProperty("noops")
+    private int noops;
+
+    @JsonProperty("failed")
+    private int failed;
+
+    @JsonProperty("failures")
+    private List<BatchItemResultDto> failures;
+}
@@ -1,9 +1,8 @@
 package com.ecommerce.catalog.application.dto;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.math.BigDecimal;
@@ -12,21 +11,29 @@ import java.util.List;
 /**
  * Entidad para las variaciones del producto (talle, color, etc.)
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
 public class VariationDto {
 
     @JsonProperty("id")
-    private Long id;
+    Long id;
 
     @JsonProperty("price")
-    private BigDecimal price;
+    BigDecimal price;
 
     @JsonProperty("available_quantity")
-    private Integer availableQuantity;
+    Integer availableQuantity;
 
     @JsonProperty("attribute_combinations")
-    private List<AttributeCombinationDto> attributeCombinations;
+    List<AttributeCombinationDto> attributeCombinations;
+
+    public static class VariationDtoBuilder {
+
+        @JsonProperty("attribute_combinations")
+        public VariationDtoBuilder attributeCombinations(List<AttributeCombinationDto> attributeCombinations) {
+            this.attributeCombinations = attributeCombinations == null ? null : List.copyOf(attributeCombinations);
+            return this;
+        }
+    }
 }
\ No newline at end of file
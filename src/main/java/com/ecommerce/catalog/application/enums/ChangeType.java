@@ -0,0 +1,19 @@
+package com.ecommerce.catalog.application.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ChangeType {
+    CREATED("created"),
+    // Cambió solo el precio (o su moneda)
+    PRICE_CHANGED("price_changed"),
+    // Cambió solo el estado; el soft delete llega como cambio a "closed"
+    STATUS_CHANGED("status_changed"),
+    // Volcado de reservas: cambió el stock de las variaciones y no la versión
+    STOCK_CHANGED("stock_changed"),
+    UPDATED("updated");
+
+    private final String value;
+}
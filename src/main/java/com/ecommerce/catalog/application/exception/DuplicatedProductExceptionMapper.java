@@ -1,6 +1,6 @@
 package com.ecommerce.catalog.application.exception;
 
-import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import com.ecommerce.catalog.domain.exception.DuplicateProductException;
 import com.ecommerce.catalog.infrastructure.web.dto.request.CauseResponseDto;
 import com.ecommerce.catalog.infrastructure.web.dto.request.ErrorResponseDto;
 import jakarta.ws.rs.core.Response;
@@ -10,9 +10,9 @@ import jakarta.ws.rs.ext.Provider;
 import java.util.List;
 
 @Provider
-public class DuplicatedProductExceptionMapper implements ExceptionMapper<InvalidProductDataException> {
+public class DuplicatedProductExceptionMapper implements ExceptionMapper<DuplicateProductException> {
     @Override
-    public Response toResponse(InvalidProductDataException e) {
+    public Response toResponse(DuplicateProductException e) {
         CauseResponseDto cause = CauseResponseDto.builder()
                 .department("items")
                 .causeId(409)
@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.application.exception;
+
+import com.ecommerce.catalog.domain.exception.InsufficientStockException;
+import com.ecommerce.catalog.infrastructure.web.dto.request.CauseResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.ErrorResponseDto;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.List;
+
+@Provider
+public class InsufficientStockExceptionMapper implements ExceptionMapper<InsufficientStockException> {
+    @Override
+    public Response toResponse(InsufficientStockException e) {
+        CauseResponseDto cause = CauseResponseDto.builder()
+                .department("items")
+                .causeId(409)
+                .type("error")
+                .code("item.stock.insufficient")
+                .references(List.of("quantity"))
+                .message(e.getMessage())
+                .build();
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .message("Insufficient stock")
+                .error("insufficient_stock")
+                .status(409)
+                .cause(List.of(cause))
+                .build();
+
+        return Response.status(Response.Status.CONFLICT)
+                .entity(errorResponse)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.catalog.application.exception;
+
+import com.ecommerce.catalog.domain.exception.ProductVersionConflictException;
+import com.ecommerce.catalog.infrastructure.web.dto.request.CauseResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.ErrorResponseDto;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.List;
+
+@Provider
+public class ProductVersionConflictExceptionMapper implements ExceptionMapper<ProductVersionConflictException> {
+    @Override
+    public Response toResponse(ProductVersionConflictException e) {
+        // Sin If-Match no hubo precondición: agotar los reintentos es un conflicto, no un 412
+        if (!e.isPrecondition()) {
+            return conflict(e);
+        }
+
+        CauseResponseDto cause = CauseResponseDto.builder()
+                .department("items")
+                .causeId(412)
+                .type("error")
+                .code("item.version.conflict")
+                .references(List.of("If-Match"))
+                .message(e.getMessage())
+                .build();
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .message("Product version conflict")
+                .error("precondition_failed")
+                .status(412)
+                .cause(List.of(cause))
+                .build();
+
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .entity(errorResponse)
+                .build();
+    }
+
+    private static Response conflict(ProductVersionConflictException e) {
+        CauseResponseDto cause = CauseResponseDto.builder()
+                .department("items")
+                .causeId(409)
+                .type("error")
+                .code("item.write.conflict")
+                .references(List.of())
+                .message(e.getMessage())
+                .build();
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .message("Concurrent product modification")
+                .error("conflict")
+                .status(409)
+                .cause(List.of(cause))
+                .build();
+
+        return Response.status(Response.Status.CONFLICT)
+                .entity(errorResponse)
+                .build();
+    }
+}
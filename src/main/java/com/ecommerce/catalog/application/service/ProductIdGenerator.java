@@ -0,0 +1,78 @@
+package com.ecommerce.catalog.application.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generador de ids estilo Snowflake: milisegundos desde EPOCH, id de nodo y secuencia por milisegundo
+ * El último "tick" emitido (milisegundo + secuencia) vive en un único AtomicLong que se avanza con
+ * compare-and-set, sin locks. Los ids son únicos y crecientes por nodo aunque el reloj retroceda,
+ * y un bloque que no entra en el milisegundo actual toma prestados los siguientes.
+ * A partir de 2022 todos los ids tienen 19 dígitos, así el orden como texto coincide con el numérico.
+ */
+class ProductIdGenerator {
+
+    static final long EPOCH = Instant.parse("2015-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    // (milisegundos desde EPOCH << SEQUENCE_BITS) | secuencia del último id emitido
+    private final AtomicLong lastTick = new AtomicLong();
+
+    ProductIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    ProductIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("El id de nodo debe estar entre 0 y " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    long nextId() {
+        return toId(reserve(1));
+    }
+
+    /**
+     * Reservar count ids consecutivos con un solo compare-and-set
+     */
+    long[] nextIds(int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        long first = reserve(count);
+        for (int i = 0; i < count; i++) {
+            ids[i] = toId(first + i);
+        }
+        return ids;
+    }
+
+    /**
+     * Avanzar el último tick en count posiciones y devolver el primero reservado
+     * Parte del milisegundo actual o, si el reloj quedó atrás, del tick siguiente al último emitido
+     */
+    private long reserve(int count) {
+        while (true) {
+            long last = lastTick.get();
+            long first = Math.max(last + 1, (clock.getAsLong() - EPOCH) << SEQUENCE_BITS);
+            if (lastTick.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    private long toId(long tick) {
+        return (tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | node << SEQUENCE_BITS
+                | tick & SEQUENCE_MASK;
+    }
+}
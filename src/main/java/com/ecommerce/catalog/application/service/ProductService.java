@@ -2,25 +2,52 @@ package com.ecommerce.catalog.application.service;
 
 import com.ecommerce.catalog.application.dto.*;
 import com.ecommerce.catalog.application.enums.ProductStatus;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductField;
+import com.ecommerce.catalog.domain.query.ProductQuery;
+import com.ecommerce.catalog.domain.query.ProductSort;
 import com.ecommerce.catalog.domain.repository.ProductRepository;
 import com.ecommerce.catalog.domain.exception.ProductNotFoundException;
 import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
-import com.ecommerce.catalog.domain.exception.DuplicateProductException;
+import com.ecommerce.catalog.domain.exception.ProductVersionConflictException;
 import com.ecommerce.catalog.infrastructure.web.dto.request.*;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
 import jakarta.validation.ConstraintViolation;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Servicio de aplicación para gestión de productos
@@ -30,14 +57,63 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    static final int PARALLEL_VALIDATION_THRESHOLD = 512;
+    static final int IMPORT_BATCH_SIZE = 2_048;
+    static final int MAX_UPDATE_ATTEMPTS = 16;
+    private static final String ID_PREFIX = "MLA";
+    private static final Pattern PRODUCT_ID = Pattern.compile("^MLA\\d+$");
+
+    // Ids únicos por construcción (instante, nodo y secuencia): las altas no consultan el repositorio
+    private final ProductIdGenerator idGenerator;
+
     private final ProductRepository productRepository;
 
     private final Validator validator;
 
-    @Inject
+    private final List<BigDecimal> defaultPriceBuckets;
+
+    // Pools propios de altas en lote: validar en paralelo y guardar en segundo plano (que espera el fsync
+    // del journal) no ocupa el common pool que comparten los hilos de request
+    private final ForkJoinPool validationPool;
+    private final ExecutorService importSaver;
+
     ProductService(ProductRepository productRepository, Validator validator) {
+        this(productRepository, validator, List.of(
+                new BigDecimal("10000"), new BigDecimal("50000"), new BigDecimal("100000"),
+                new BigDecimal("500000"), new BigDecimal("1000000")), 0, 0);
+    }
+
+    @Inject
+    ProductService(ProductRepository productRepository, Validator validator,
+                   @ConfigProperty(name = "catalog.search.facets.price-buckets",
+                           defaultValue = "10000,50000,100000,500000,1000000")
+                   List<BigDecimal> defaultPriceBuckets,
+                   @ConfigProperty(name = "catalog.ids.node-id", defaultValue = "0")
+                   int nodeId,
+                   @ConfigProperty(name = "catalog.import.parallelism", defaultValue = "0")
+                   int importParallelism) {
         this.productRepository = productRepository;
         this.validator = validator;
+        this.idGenerator = new ProductIdGenerator(nodeId);
+        this.defaultPriceBuckets = List.copyOf(defaultPriceBuckets);
+        int parallelism = importParallelism > 0 ? importParallelism : Runtime.getRuntime().availableProcessors();
+        this.validationPool = new ForkJoinPool(parallelism, owner -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            thread.setName("catalog-validate-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        AtomicInteger saverThreads = new AtomicInteger();
+        this.importSaver = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "catalog-import-save-" + saverThreads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        validationPool.shutdown();
+        importSaver.shutdown();
     }
 
     // ================================
@@ -56,36 +132,157 @@ public class ProductService {
         // Generar ID único tipo MercadoLibre
         String productId = generateProductId();
 
-        // Verificar que el ID no exista (aunque es muy improbable)
-        if (productRepository.findById(productId).isPresent()) {
-            throw new DuplicateProductException("El ID generado ya existe: " + productId);
-        }
-
         // Mapear request a DTO
         ProductDto product = mapCreateRequestToDto(request, productId);
 
         // Aplicar reglas de negocio
         applyBusinessRulesForCreation(product);
 
-        // Simular guardado (en implementación real se guardaría)
-        log.info("✅ Producto creado exitosamente: {} - {}", product.getId(), product.getTitle());
+        // Lo guardado trae la versión asignada, que el controller publica como ETag
+        ProductDto stored = productRepository.save(product);
+        log.info("✅ Producto creado exitosamente: {} - {}", stored.getId(), stored.getTitle());
 
-        return product;
+        return stored;
     }
 
     /**
      * Crear múltiples productos en batch
+     * Cada ítem se valida por separado (en paralelo en lotes grandes); los válidos reciben ids de un
+     * bloque reservado de una vez y se guardan en una sola escritura al repositorio.
+     * Un ítem inválido no impide crear el resto: el resultado informa el estado de cada uno.
      */
-    public List<ProductDto> createProducts(List<CreateProductRequestDto> requests) {
+    public BatchOperationResultDto createProducts(List<CreateProductRequestDto> requests) {
         log.info("🆕 Creando {} productos en batch", requests.size());
 
-        if (requests.size() > 100) {
-            throw new InvalidProductDataException("No se pueden crear más de 100 productos a la vez");
+        PreparedBatch batch = prepareBatch(requests.stream()
+                .<Supplier<CreateProductRequestDto>>map(request -> () -> request)
+                .toList(), 0);
+        if (!batch.created().isEmpty()) {
+            productRepository.saveAll(batch.created());
         }
 
-        return requests.stream()
-                .map(this::createProduct)
-                .toList();
+        int failed = requests.size() - batch.created().size();
+        log.info("✅ Batch completado: {} creados, {} con errores", batch.created().size(), failed);
+        return BatchOperationResultDto.builder()
+                .totalProcessed(requests.size())
+                .successful(batch.created().size())
+                .failed(failed)
+                .items(batch.items())
+                .build();
+    }
+
+    /**
+     * Importar un flujo de productos de largo arbitrario en micro-lotes
+     * Cada ítem llega como un Supplier que lo parsea (y lanza InvalidProductDataException si no es
+     * válido), así el parseo se hace junto con la validación. Mientras un lote se guarda en segundo
+     * plano se lee, parsea y valida el siguiente; en memoria hay como mucho dos lotes. Los resultados
+     * de cada lote se entregan a onBatch recién cuando quedó guardado, en el orden del flujo.
+     *
+     * @return totales de la importación; el detalle por ítem ya se entregó a onBatch
+     */
+    public BatchOperationResultDto importProducts(Stream<Supplier<CreateProductRequestDto>> items,
+                                                  Consumer<List<BatchItemResultDto>> onBatch) {
+        log.info("📥 Iniciando importación en lotes de {} productos", IMPORT_BATCH_SIZE);
+
+        Iterator<Supplier<CreateProductRequestDto>> pendingItems = items.iterator();
+        CompletableFuture<PreparedBatch> saving = CompletableFuture.completedFuture(null);
+        int processed = 0;
+        int successful = 0;
+        while (pendingItems.hasNext()) {
+            List<Supplier<CreateProductRequestDto>> chunk = new ArrayList<>(IMPORT_BATCH_SIZE);
+            while (chunk.size() < IMPORT_BATCH_SIZE && pendingItems.hasNext()) {
+                chunk.add(pendingItems.next());
+            }
+            PreparedBatch batch = prepareBatch(chunk, processed);
+            processed += chunk.size();
+            successful += batch.created().size();
+
+            // Se espera el lote anterior recién ahora: su guardado se solapó con la lectura de este
+            deliver(saving, onBatch);
+            saving = CompletableFuture.supplyAsync(() -> {
+                if (!batch.created().isEmpty()) {
+                    productRepository.saveAll(batch.created());
+                }
+                return batch;
+            }, importSaver);
+        }
+        deliver(saving, onBatch);
+
+        log.info("✅ Importación completada: {} procesados, {} creados, {} con errores",
+                processed, successful, processed - successful);
+        return BatchOperationResultDto.builder()
+                .totalProcessed(processed)
+                .successful(successful)
+                .failed(processed - successful)
+                .build();
+    }
+
+    private static void deliver(CompletableFuture<PreparedBatch> saving, Consumer<List<BatchItemResultDto>> onBatch) {
+        PreparedBatch saved;
+        try {
+            saved = saving.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (saved != null) {
+            onBatch.accept(saved.items());
+        }
+    }
+
+    /**
+     * Validar y mapear un lote de altas y asignar ids a los válidos con una sola reserva
+     * Cada posición escribe solo su propio resultado, así la validación de lotes grandes va en paralelo
+     * sobre el pool propio de validación: un stream paralelo lanzado desde una de sus tareas se reparte
+     * entre sus hilos y no en el common pool.
+     *
+     * @param firstIndex posición del primer ítem dentro del request completo
+     */
+    private PreparedBatch prepareBatch(List<Supplier<CreateProductRequestDto>> requests, int firstIndex) {
+        ProductDto[] mapped = new ProductDto[requests.size()];
+        String[] errors = new String[requests.size()];
+        IntConsumer prepare = i -> {
+            try {
+                mapped[i] = prepareForCreation(requests.get(i).get());
+            } catch (InvalidProductDataException e) {
+                errors[i] = e.getMessage();
+            }
+        };
+        if (requests.size() >= PARALLEL_VALIDATION_THRESHOLD) {
+            validationPool.submit(() -> IntStream.range(0, requests.size()).parallel().forEach(prepare)).join();
+        } else {
+            IntStream.range(0, requests.size()).forEach(prepare);
+        }
+
+        int valid = (int) Arrays.stream(mapped).filter(Objects::nonNull).count();
+        long[] ids = idGenerator.nextIds(valid);
+        int nextId = 0;
+
+        List<ProductDto> created = new ArrayList<>(valid);
+        List<BatchItemResultDto> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < mapped.length; i++) {
+            if (mapped[i] == null) {
+                items.add(BatchItemResultDto.builder()
+                        .index(firstIndex + i)
+                        .status(BatchItemResultDto.ERROR)
+                        .error(errors[i])
+                        .build());
+                continue;
+            }
+            mapped[i] = mapped[i].toBuilder().id(ID_PREFIX + ids[nextId++]).build();
+            created.add(mapped[i]);
+            items.add(BatchItemResultDto.builder()
+                    .index(firstIndex + i)
+                    .id(mapped[i].getId())
+                    .status(BatchItemResultDto.CREATED)
+                    .build());
+        }
+        return new PreparedBatch(created, items);
+    }
+
+    private record PreparedBatch(List<ProductDto> created, List<BatchItemResultDto> items) {
     }
 
     // ================================
@@ -112,17 +309,18 @@ public class ProductService {
 
         validatePaginationParams(offset, limit);
 
-        List<ProductDto> allProducts = productRepository.findAll();
-
-        // Aplicar ordenamiento
-        List<ProductDto> sortedProducts = applySorting(allProducts, sortBy);
+        // El repositorio ordena con un heap acotado a la página: no copia ni ordena todo el catálogo
+        SearchHitsDto hits = productRepository.search(ProductQuery.builder()
+                .sort(ProductSort.fromId(sortBy))
+                .limit(offset + limit)
+                .build());
 
         // Aplicar paginación
-        List<ProductSummaryResponseDto> paginatedResults = applyPagination(sortedProducts, offset, limit);
+        List<ProductSummaryResponseDto> paginatedResults = applyPagination(hits.getProducts(), offset, limit);
 
         // Crear respuesta con metadatos
         PagingResponseDto paging = PagingResponseDto.builder()
-                .total(allProducts.size())
+                .total((int) hits.getTotal())
                 .offset(offset)
                 .limit(limit)
                 .build();
@@ -164,21 +362,33 @@ public class ProductService {
     }
 
     /**
-     * Buscar productos por rango de precio
+     * Buscar productos por rango de precio publicados en una moneda (o en cualquiera)
      */
     public List<ProductDto> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String currency) {
-        log.debug("🔍 Buscando productos por precio: {} - {} {}", minPrice, maxPrice, currency);
+        return searchByPriceRange(minPrice, maxPrice, currency, null);
+    }
 
-        validatePriceRange(minPrice, maxPrice);
+    /**
+     * Buscar productos por rango de precio
+     * Sin priceCurrency el rango se compara contra el precio publicado, como siempre; con priceCurrency
+     * el rango se expresa en esa moneda y abarca productos de todas las monedas con el precio convertido.
+     * currency sigue restringiendo a los productos publicados en esa moneda.
+     */
+    public List<ProductDto> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String currency,
+                                               String priceCurrency) {
+        log.debug("🔍 Buscando productos por precio: {} - {} {} (rango en {})",
+                minPrice, maxPrice, currency, priceCurrency);
 
-        List<ProductDto> results = productRepository.findByPriceRange(minPrice, maxPrice);
+        validatePriceRange(minPrice, maxPrice);
 
-        // Filtrar por moneda si se especifica
+        List<Criterion> criteria = new ArrayList<>();
+        criteria.add(priceCurrency == null || priceCurrency.isBlank()
+                ? Criterion.price(minPrice, maxPrice)
+                : Criterion.priceIn(minPrice, maxPrice, priceCurrency.trim()));
         if (currency != null && !currency.isBlank()) {
-            results = results.stream()
-                    .filter(product -> currency.equalsIgnoreCase(product.getCurrencyId()))
-                    .toList();
+            criteria.add(Criterion.field(ProductField.CURRENCY, currency.trim()));
         }
+        List<ProductDto> results = productRepository.search(ProductQuery.of(Criterion.and(criteria))).getProducts();
 
         log.debug("✅ Encontrados {} productos en rango de precio", results.size());
         return results;
@@ -240,29 +450,96 @@ public class ProductService {
     public ProductListResponseDto advancedSearch(String query, String brand, BigDecimal minPrice,
                                               BigDecimal maxPrice, String condition,
                                               int offset, int limit, String sortBy) {
+        return advancedSearch(SearchRequestDto.builder()
+                .query(query)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .condition(condition)
+                .offset(offset)
+                .limit(limit)
+                .sortBy(sortBy)
+                .build());
+    }
+
+    /**
+     * Búsqueda avanzada con tolerancia a errores de tipeo, filtros por atributo y conteos por faceta
+     * Los filtros se combinan en una única consulta que el repositorio resuelve sobre sus índices;
+     * el repositorio ordena y devuelve solo lo necesario para llegar a offset + limit
+     */
+    public ProductListResponseDto advancedSearch(SearchRequestDto request) {
         log.info("🔍 Búsqueda avanzada - Query: '{}', Marca: '{}', Precio: {}-{}, Condición: '{}', Sort: '{}'",
-                query, brand, minPrice, maxPrice, condition, sortBy);
+                request.getQuery(), request.getBrand(), request.getMinPrice(), request.getMaxPrice(),
+                request.getCondition(), request.getSortBy());
 
-        validatePaginationParams(offset, limit);
-        if (minPrice != null && maxPrice != null) {
-            validatePriceRange(minPrice, maxPrice);
+        validatePaginationParams(request.getOffset(), request.getLimit());
+        if (request.getMinPrice() != null && request.getMaxPrice() != null) {
+            validatePriceRange(request.getMinPrice(), request.getMaxPrice());
         }
 
-        List<ProductDto> results = productRepository.searchAdvanced(query, brand, minPrice, maxPrice, condition);
-
-        // Aplicar ordenamiento
-        List<ProductDto> sortedResults = applySorting(results, sortBy);
+        ProductSort sort = sortOf(request);
+        ProductQuery query = ProductQuery.builder()
+                .criterion(toCriterion(request))
+                .sort(sort)
+                .limit(request.getOffset() + request.getLimit())
+                .facetPriceBoundaries(request.isIncludeFacets() ? parsePriceBuckets(request.getPriceBuckets()) : null)
+                .build();
+        SearchHitsDto hits = productRepository.search(query);
 
-        // Aplicar paginación
-        List<ProductSummaryResponseDto> paginatedResults = applyPagination(sortedResults, offset, limit);
+        List<ProductSummaryResponseDto> paginatedResults = applyPagination(
+                hits.getProducts(), request.getOffset(), request.getLimit());
+        int total = (int) hits.getTotal();
 
         // Crear respuesta completa
-        ProductListResponseDto response = createListResponse(paginatedResults, query, offset, limit, results.size(), sortBy);
+        ProductListResponseDto response = createListResponse(paginatedResults, request.getQuery(),
+                request.getOffset(), request.getLimit(), total, sort == null ? request.getSortBy() : sort.getId());
+        if (hits.getFacets() != null) {
+            response.setAvailableFilters(toAvailableFilters(hits.getFacets()));
+        }
 
-        log.info("✅ Búsqueda avanzada completada. {} resultados encontrados", results.size());
+        log.info("✅ Búsqueda avanzada completada. {} resultados encontrados", total);
         return response;
     }
 
+    /**
+     * Contar los productos que cumplen los filtros de búsqueda sin armar la lista de resultados
+     */
+    public long countProducts(SearchRequestDto request) {
+        log.debug("🔢 Contando productos - Query: '{}', Marca: '{}', Precio: {}-{}, Condición: '{}'",
+                request.getQuery(), request.getBrand(), request.getMinPrice(), request.getMaxPrice(),
+                request.getCondition());
+
+        if (request.getMinPrice() != null && request.getMaxPrice() != null) {
+            validatePriceRange(request.getMinPrice(), request.getMaxPrice());
+        }
+
+        return productRepository.count(toCriterion(request));
+    }
+
+    /**
+     * Productos a exportar: todos los que cumplen los filtros de búsqueda, sin paginar
+     * El repositorio resuelve la consulta sobre la copia publicada del catálogo, sin locks, y devuelve referencias a versiones
+     * inmutables: una foto consistente del catálogo que después se serializa sin bloquear escrituras.
+     */
+    public List<ProductDto> exportProducts(SearchRequestDto filter) {
+        log.info("📤 Exportación - Query: '{}', Marca: '{}', Precio: {}-{}, Condición: '{}', Sort: '{}'",
+                filter.getQuery(), filter.getBrand(), filter.getMinPrice(), filter.getMaxPrice(),
+                filter.getCondition(), filter.getSortBy());
+
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null) {
+            validatePriceRange(filter.getMinPrice(), filter.getMaxPrice());
+        }
+
+        ProductQuery query = ProductQuery.builder()
+                .criterion(toCriterion(filter))
+                .sort(sortOf(filter))
+                .build();
+        List<ProductDto> snapshot = productRepository.search(query).getProducts();
+
+        log.info("✅ Exportación de {} productos", snapshot.size());
+        return snapshot;
+    }
+
     // ================================
     // OPERACIONES UPDATE (U)
     // ================================
@@ -271,20 +548,22 @@ public class ProductService {
      * Actualizar producto completo
      */
     public ProductDto updateProduct(String id, @Valid UpdateProductRequestDto request) {
-        log.info("🔄 Actualizando producto: {}", id);
+        return updateProduct(id, request, null);
+    }
 
-        // Verificar que el producto existe
-        ProductDto existingProduct = getProductById(id);
+    /**
+     * Actualizar producto completo si sigue en una de las versiones esperadas (null = cualquier versión)
+     */
+    public ProductDto updateProduct(String id, @Valid UpdateProductRequestDto request, Set<Long> expectedVersions) {
+        log.info("🔄 Actualizando producto: {}", id);
 
         // Validar request
         validateUpdateRequest(request);
 
-        // Aplicar cambios
-        ProductDto updatedProduct = applyUpdates(existingProduct, request);
+        // Derivar la versión nueva y guardarla solo si nadie modificó el producto entretanto
+        ProductDto updatedProduct = updateWithVersion(id, expectedVersions, current -> applyUpdates(current, request));
 
-        // Simular guardado
         log.info("✅ Producto actualizado exitosamente: {}", id);
-
         return updatedProduct;
     }
 
@@ -292,20 +571,29 @@ public class ProductService {
      * Actualizar precio específico
      */
     public ProductDto updatePrice(String id, BigDecimal newPrice, String reason) {
-        log.info("💰 Actualizando precio del producto {} a {}", id, newPrice);
-
-        ProductDto product = getProductById(id);
+        return updatePrice(id, newPrice, reason, null);
+    }
 
-        if (newPrice == null || newPrice.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidProductDataException("El precio debe ser mayor a 0");
-        }
+    /**
+     * Actualizar precio específico si el producto sigue en una de las versiones esperadas (null = cualquier versión)
+     */
+    public ProductDto updatePrice(String id, BigDecimal newPrice, String reason, Set<Long> expectedVersions) {
+        log.info("💰 Actualizando precio del producto {} a {}", id, newPrice);
 
-        BigDecimal oldPrice = product.getPrice();
-        product.setPrice(newPrice);
-        product.setLastUpdated(LocalDateTime.now());
+        BigDecimal[] oldPrice = new BigDecimal[1];
+        ProductDto product = updateWithVersion(id, expectedVersions, current -> {
+            if (newPrice == null || newPrice.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new InvalidProductDataException("El precio debe ser mayor a 0");
+            }
+            oldPrice[0] = current.getPrice();
+            return current.toBuilder()
+                    .price(newPrice)
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+        });
 
         // Log del cambio de precio
-        log.info("💰 Precio actualizado: {} -> {} (Razón: {})", oldPrice, newPrice, reason);
+        log.info("💰 Precio actualizado: {} -> {} (Razón: {})", oldPrice[0], newPrice, reason);
 
         return product;
     }
@@ -314,20 +602,197 @@ public class ProductService {
      * Actualizar estado del producto
      */
     public ProductDto updateStatus(String id, String newStatus) {
+        return updateStatus(id, newStatus, null);
+    }
+
+    /**
+     * Actualizar estado del producto si sigue en una de las versiones esperadas (null = cualquier versión)
+     */
+    public ProductDto updateStatus(String id, String newStatus, Set<Long> expectedVersions) {
         log.info("📝 Actualizando estado del producto {} a {}", id, newStatus);
 
+        String[] oldStatus = new String[1];
+        ProductDto product = updateWithVersion(id, expectedVersions, current -> {
+            validateStatus(newStatus);
+            validateStatusTransition(current.getStatus(), newStatus);
+            oldStatus[0] = current.getStatus();
+            return current.toBuilder()
+                    .status(newStatus)
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+        });
+
+        log.info("📝 Estado actualizado: {} -> {}", oldStatus[0], newStatus);
+
+        return product;
+    }
+
+    /**
+     * Reservar unidades de una variación
+     * La reserva se decide con un CAS sobre el contador de la variación, sin lock del producto:
+     * compradores concurrentes nunca reservan más que el stock disponible.
+     * Solo se reserva sobre productos activos; liberar se admite en cualquier estado, para que una
+     * compra cancelada devuelva sus unidades aunque el producto se haya pausado o cerrado.
+     */
+    public StockReservationDto reserveStock(String id, Long variationId, int quantity) {
+        validateStockQuantity(quantity);
         ProductDto product = getProductById(id);
+        if (!ProductStatus.ACTIVE.getValue().equals(product.getStatus())) {
+            throw new InvalidProductDataException("No se puede reservar stock de un producto en estado "
+                    + product.getStatus() + ": " + id);
+        }
+        int available = productRepository.adjustStock(id, variationId, -quantity);
+
+        log.info("📦 Reservadas {} unidades de la variación {} del producto {} (quedan {})", quantity, variationId, id, available);
+        return StockReservationDto.builder()
+                .productId(id)
+                .variationId(variationId)
+                .quantity(quantity)
+                .availableQuantity(available)
+                .build();
+    }
 
-        validateStatus(newStatus);
-        validateStatusTransition(product.getStatus(), newStatus);
+    /**
+     * Liberar unidades reservadas de una variación (compra cancelada o reserva vencida)
+     */
+    public StockReservationDto releaseStock(String id, Long variationId, int quantity) {
+        validateStockQuantity(quantity);
+        int available = productRepository.adjustStock(id, variationId, quantity);
+
+        log.info("📦 Liberadas {} unidades de la variación {} del producto {} (quedan {})", quantity, variationId, id, available);
+        return StockReservationDto.builder()
+                .productId(id)
+                .variationId(variationId)
+                .quantity(-quantity)
+                .availableQuantity(available)
+                .build();
+    }
 
-        String oldStatus = product.getStatus();
-        product.setStatus(newStatus);
-        product.setLastUpdated(LocalDateTime.now());
+    /**
+     * Aplicar un cambio de estado y/o precio a todos los productos que cumplen los filtros
+     * Se resuelve en una sola escritura al repositorio: la selección sale de los índices y cada
+     * índice se actualiza una vez por lote. Un producto que no admite el cambio (por ejemplo,
+     * uno cerrado o un precio resultante no positivo) queda como estaba y se informa.
+     */
+    public UpdateByQueryResultDto updateByQuery(SearchRequestDto filter, UpdateByQueryRequestDto operation) {
+        validateUpdateByQuery(filter, operation);
+        log.info("🛠️ Actualización por consulta - Query: '{}', Marca: '{}', Condición: '{}', Operación: {}",
+                filter.getQuery(), filter.getBrand(), filter.getCondition(), operation);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchItemResultDto> failures = new ArrayList<>();
+        int[] matched = new int[1];
+        List<ProductDto> updated = productRepository.updateWhere(toCriterion(filter), current -> {
+            matched[0]++;
+            try {
+                return applyOperation(current, operation, now);
+            } catch (InvalidProductDataException e) {
+                // Sin posición en el request: el fallo se identifica por el id del producto
+                failures.add(BatchItemResultDto.builder()
+                        .id(current.getId())
+                        .status(BatchItemResultDto.ERROR)
+                        .error(e.getMessage())
+                        .build());
+                return current;
+            }
+        });
+
+        log.info("✅ Actualización por consulta completada: {} coincidencias, {} actualizados, {} con errores",
+                matched[0], updated.size(), failures.size());
+        return UpdateByQueryResultDto.builder()
+                .matched(matched[0])
+                .updated(updated.size())
+                .noops(matched[0] - updated.size() - failures.size())
+                .failed(failures.size())
+                .failures(failures)
+                .build();
+    }
 
-        log.info("📝 Estado actualizado: {} -> {}", oldStatus, newStatus);
+    private void validateUpdateByQuery(SearchRequestDto filter, UpdateByQueryRequestDto operation) {
+        if (operation == null) {
+            throw new InvalidProductDataException("Debe indicar la operación a aplicar");
+        }
+        long priceChanges = Stream.of(operation.getPrice(), operation.getPricePercent(), operation.getPriceAmount())
+                .filter(Objects::nonNull)
+                .count();
+        if (priceChanges > 1) {
+            throw new InvalidProductDataException("Indicar solo uno de price, price_percent o price_amount");
+        }
+        if (priceChanges == 0 && operation.getStatus() == null) {
+            throw new InvalidProductDataException("Debe indicar status, price, price_percent o price_amount");
+        }
+        if (operation.getStatus() != null) {
+            validateStatus(operation.getStatus());
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null) {
+            validatePriceRange(filter.getMinPrice(), filter.getMaxPrice());
+        }
+    }
 
-        return product;
+    /**
+     * Versión nueva con la operación aplicada, o el mismo producto si ya tenía los valores pedidos
+     */
+    private ProductDto applyOperation(ProductDto current, UpdateByQueryRequestDto operation, LocalDateTime now) {
+        ProductDto.ProductDtoBuilder updated = current.toBuilder();
+        boolean changed = false;
+
+        if (operation.getStatus() != null && !operation.getStatus().equals(current.getStatus())) {
+            validateStatusTransition(current.getStatus(), operation.getStatus());
+            updated.status(operation.getStatus());
+            changed = true;
+        }
+
+        BigDecimal newPrice = operation.getPrice();
+        if (operation.getPricePercent() != null || operation.getPriceAmount() != null) {
+            if (current.getPrice() == null) {
+                throw new InvalidProductDataException("El producto no tiene precio para ajustar");
+            }
+            newPrice = operation.getPricePercent() != null
+                    ? current.getPrice()
+                            .multiply(BigDecimal.ONE.add(operation.getPricePercent().movePointLeft(2)))
+                            .setScale(2, RoundingMode.HALF_UP)
+                    : current.getPrice().add(operation.getPriceAmount());
+        }
+        if (newPrice != null && (current.getPrice() == null || newPrice.compareTo(current.getPrice()) != 0)) {
+            if (newPrice.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new InvalidProductDataException("El precio resultante debe ser mayor a 0: " + newPrice);
+            }
+            updated.price(newPrice);
+            changed = true;
+        }
+
+        return changed ? updated.lastUpdated(now).build() : current;
+    }
+
+    /**
+     * Leer, derivar una versión nueva y guardarla con compare-and-swap sobre la versión
+     * Con versión esperada un conflicto se informa de inmediato (412); sin ella se reintenta
+     * contra la versión más reciente hasta MAX_UPDATE_ATTEMPTS veces y después se informa como 409.
+     */
+    private ProductDto updateWithVersion(String id, Set<Long> expectedVersions, UnaryOperator<ProductDto> change) {
+        for (int attempt = 1; ; attempt++) {
+            ProductDto current = getProductById(id);
+            long version = current.getVersion() == null ? 0L : current.getVersion();
+            if (expectedVersions != null && !expectedVersions.contains(version)) {
+                throw new ProductVersionConflictException(
+                        "El producto " + id + " está en la versión " + version + ", se esperaba " + expectedVersions);
+            }
+
+            Optional<ProductDto> stored = productRepository.saveIfVersion(change.apply(current), version);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+            if (expectedVersions != null) {
+                throw new ProductVersionConflictException(
+                        "El producto " + id + " fue modificado concurrentemente, reintentar con la versión actual");
+            }
+            if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                // Sin If-Match no hubo precondición que fallara: se informa como conflicto
+                throw new ProductVersionConflictException("El producto " + id + " fue modificado concurrentemente "
+                        + MAX_UPDATE_ATTEMPTS + " veces seguidas, reintentar", false);
+            }
+            log.debug("🔁 Conflicto de versión en {}, reintento {}", id, attempt);
+        }
     }
 
     // ================================
@@ -340,14 +805,16 @@ public class ProductService {
     public boolean deleteProduct(String id) {
         log.info("🗑️ Eliminando producto: {}", id);
 
-        ProductDto product = getProductById(id);
-
-        // Verificar que se puede eliminar
-        validateCanDelete(product);
+        updateWithVersion(id, null, current -> {
+            // Verificar que se puede eliminar
+            validateCanDelete(current);
 
-        // Soft delete: cambiar estado a "closed"
-        product.setStatus(ProductStatus.CLOSED.getValue());
-        product.setLastUpdated(LocalDateTime.now());
+            // Soft delete: cambiar estado a "closed"
+            return current.toBuilder()
+                    .status(ProductStatus.CLOSED.getValue())
+                    .lastUpdated(LocalDateTime.now())
+                    .build();
+        });
 
         log.info("✅ Producto eliminado (soft delete): {}", id);
         return true;
@@ -357,34 +824,80 @@ public class ProductService {
      * Eliminar productos en batch
      */
     public BatchOperationResultDto deleteProducts(List<String> ids) {
-        log.info("🗑️ Eliminando {} productos en batch", ids.size());
-
-        int successful = 0;
-        int failed = 0;
+        return deleteProducts(ids.stream());
+    }
 
-        for (String id : ids) {
-            try {
-                deleteProduct(id);
-                successful++;
-            } catch (Exception e) {
-                log.error("Error al eliminar producto {}: {}", id, e.getMessage());
-                failed++;
+    /**
+     * Eliminar productos en batch consumiendo los ids a medida que llegan
+     * Todos los ids se resuelven contra el índice primario en una sola lectura y el soft delete
+     * se guarda en una única escritura con compare-and-swap por ítem sobre la versión leída: un
+     * producto modificado entre la lectura y la escritura no se pisa y se informa como error.
+     * El resultado informa el estado de cada id.
+     */
+    public BatchOperationResultDto deleteProducts(Stream<String> ids) {
+        List<BatchItemResultDto> items = new ArrayList<>();
+        Map<String, BatchItemResultDto> pending = new LinkedHashMap<>();
+        ids.forEach(id -> {
+            BatchItemResultDto item = BatchItemResultDto.builder().index(items.size()).id(id).build();
+            items.add(item);
+            if (id == null || !PRODUCT_ID.matcher(id).matches()) {
+                markFailed(item, "El ID debe tener formato MLA seguido de números");
+            } else if (pending.putIfAbsent(id, item) != null) {
+                markFailed(item, "ID repetido en el batch");
+            }
+        });
+        log.info("🗑️ Eliminando {} productos en batch", items.size());
+
+        Map<String, ProductDto> found = productRepository.findAllById(pending.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductDto> closed = new ArrayList<>(found.size());
+        pending.forEach((id, item) -> {
+            ProductDto product = found.get(id);
+            if (product == null) {
+                markFailed(item, "Producto no encontrado: " + id);
+            } else if (ProductStatus.CLOSED.getValue().equals(product.getStatus())) {
+                markFailed(item, "El producto ya está eliminado");
+            } else {
+                // Soft delete: versión nueva con estado "closed"
+                closed.add(product.toBuilder()
+                        .status(ProductStatus.CLOSED.getValue())
+                        .lastUpdated(now)
+                        .build());
+            }
+        });
+
+        Map<String, ProductDto> stored = closed.isEmpty() ? Map.of() : productRepository.saveAllIfVersion(closed);
+        for (ProductDto product : closed) {
+            BatchItemResultDto item = pending.get(product.getId());
+            if (stored.containsKey(product.getId())) {
+                item.setStatus(BatchItemResultDto.DELETED);
+            } else {
+                markFailed(item, "El producto fue modificado concurrentemente, reintentar");
             }
         }
 
+        int failed = items.size() - stored.size();
+        log.info("✅ Batch de eliminación completado: {} eliminados, {} con errores", stored.size(), failed);
         return BatchOperationResultDto.builder()
-                .totalProcessed(ids.size())
-                .successful(successful)
+                .totalProcessed(items.size())
+                .successful(stored.size())
                 .failed(failed)
+                .items(items)
                 .build();
     }
 
+    private static void markFailed(BatchItemResultDto item, String error) {
+        item.setStatus(BatchItemResultDto.ERROR);
+        item.setError(error);
+    }
+
     // ================================
     // OPERACIONES DE ANÁLISIS
     // ================================
 
     /**
      * Obtener estadísticas de productos
+     * Todos los valores se leen de agregados mantenidos por el repositorio (O(1))
      */
     public ProductStatisticsDto getStatistics() {
         log.debug("📊 Generando estadísticas de productos");
@@ -392,8 +905,8 @@ public class ProductService {
         long totalProducts = productRepository.count();
         List<String> brands = productRepository.findAllBrands();
         List<String> categories = productRepository.findAllCategories();
-        long activeProducts = productRepository.findByStatus(ProductStatus.ACTIVE.getValue()).size();
-        long productsWithVariations = productRepository.findWithVariations().size();
+        long activeProducts = productRepository.countByStatus(ProductStatus.ACTIVE.getValue());
+        long productsWithVariations = productRepository.countWithVariations();
 
         return ProductStatisticsDto.builder()
                 .totalProducts(totalProducts)
@@ -406,10 +919,65 @@ public class ProductService {
                 .build();
     }
 
+    /**
+     * Obtener marcas disponibles sin construir las estadísticas completas
+     */
+    public List<String> getAvailableBrands() {
+        return productRepository.findAllBrands();
+    }
+
+    /**
+     * Obtener categorías disponibles sin construir las estadísticas completas
+     */
+    public List<String> getAvailableCategories() {
+        return productRepository.findAllCategories();
+    }
+
+    /**
+     * Obtener sugerencias de autocompletado para un prefijo
+     */
+    public List<SuggestionDto> getSuggestions(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidProductDataException("El prefijo es obligatorio");
+        }
+        if (limit <= 0 || limit > 10) {
+            throw new InvalidProductDataException("El limit debe estar entre 1 y 10");
+        }
+
+        return productRepository.suggest(prefix, limit);
+    }
+
+    /**
+     * Flujo de cambios del catálogo a partir de una secuencia; sin secuencia, solo los cambios nuevos
+     * El Last-Event-ID de una reconexión SSE tiene prioridad sobre el parámetro since.
+     */
+    public Multi<ChangeEventDto> streamChanges(Long since, String lastEventId) {
+        Long sequence = since;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                sequence = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidProductDataException("Last-Event-ID inválido: " + lastEventId);
+            }
+        }
+        if (sequence != null && sequence < 0) {
+            throw new InvalidProductDataException("La secuencia no puede ser negativa: " + sequence);
+        }
+
+        log.info("📡 Nueva suscripción al flujo de cambios desde la secuencia {}", sequence == null ? "actual" : sequence);
+        return Multi.createFrom().publisher(productRepository.changesSince(sequence));
+    }
+
     // ================================
     // MÉTODOS AUXILIARES
     // ================================
 
+    private void validateStockQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new InvalidProductDataException("La cantidad debe ser mayor a 0");
+        }
+    }
+
     private void validateCreateRequest(CreateProductRequestDto request) {
         Set<ConstraintViolation<CreateProductRequestDto>> violations = validator.validate(request);
         if (!violations.isEmpty()) {
@@ -434,7 +1002,7 @@ public class ProductService {
         if (id == null || id.trim().isEmpty()) {
             throw new InvalidProductDataException("El ID del producto no puede estar vacío");
         }
-        if (!id.matches("^MLA\\d+$")) {
+        if (!PRODUCT_ID.matcher(id).matches()) {
             throw new InvalidProductDataException("El ID debe tener formato MLA seguido de números");
         }
     }
@@ -461,10 +1029,10 @@ public class ProductService {
     }
 
     private void validateBrandExists(String brand) {
-        List<String> availableBrands = productRepository.findAllBrands();
-        if (!availableBrands.contains(brand)) {
+        // Existencia sobre el índice de marcas; la lista completa solo se arma para el mensaje de error
+        if (brand == null || !productRepository.exists(Criterion.brand(brand))) {
             throw new InvalidProductDataException("La marca '" + brand + "' no existe. Marcas disponibles: " +
-                    String.join(", ", availableBrands));
+                    String.join(", ", productRepository.findAllBrands()));
         }
     }
 
@@ -493,7 +1061,20 @@ public class ProductService {
 
     private String generateProductId() {
         // Generar ID único tipo MercadoLibre
-        return "MLA" + System.currentTimeMillis() + ThreadLocalRandom.current().nextInt(1000);
+        return ID_PREFIX + idGenerator.nextId();
+    }
+
+    /**
+     * Validar y mapear un ítem de batch sin id; lanza InvalidProductDataException si no es válido
+     */
+    private ProductDto prepareForCreation(CreateProductRequestDto request) {
+        if (request == null) {
+            throw new InvalidProductDataException("El producto no puede ser nulo");
+        }
+        validateCreateRequest(request);
+        ProductDto product = mapCreateRequestToDto(request, null);
+        applyBusinessRulesForCreation(product);
+        return product;
     }
 
     private ProductDto mapCreateRequestToDto(CreateProductRequestDto request, String id) {
@@ -522,40 +1103,130 @@ public class ProductService {
     }
 
     private ProductDto applyUpdates(ProductDto existing, UpdateProductRequestDto request) {
-        // Aplicar solo los campos que no son null en el request
-        if (request.getTitle() != null) existing.setTitle(request.getTitle());
-        if (request.getDescription() != null) existing.setDescription(request.getDescription());
-        if (request.getPrice() != null) existing.setPrice(request.getPrice());
-        if (request.getCurrencyId() != null) existing.setCurrencyId(request.getCurrencyId());
-        if (request.getCondition() != null) existing.setCondition(request.getCondition());
-        if (request.getStatus() != null) existing.setStatus(request.getStatus());
-        if (request.getThumbnail() != null) existing.setThumbnail(request.getThumbnail());
+        // Aplicar solo los campos que no son null en el request; el resto se comparte con la versión anterior
+        ProductDto.ProductDtoBuilder updated = existing.toBuilder();
+        if (request.getTitle() != null) updated.title(request.getTitle());
+        if (request.getDescription() != null) updated.description(request.getDescription());
+        if (request.getPrice() != null) updated.price(request.getPrice());
+        if (request.getCurrencyId() != null) updated.currencyId(request.getCurrencyId());
+        if (request.getCondition() != null) updated.condition(request.getCondition());
+        if (request.getStatus() != null) updated.status(request.getStatus());
+        if (request.getThumbnail() != null) updated.thumbnail(request.getThumbnail());
+
+        return updated.lastUpdated(LocalDateTime.now()).build();
+    }
+
+    private List<BigDecimal> parsePriceBuckets(String priceBuckets) {
+        if (priceBuckets == null || priceBuckets.isBlank()) {
+            return defaultPriceBuckets;
+        }
+        try {
+            return Arrays.stream(priceBuckets.split(","))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .map(BigDecimal::new)
+                    .toList();
+        } catch (NumberFormatException e) {
+            throw new InvalidProductDataException("Los rangos de precio deben ser números separados por coma");
+        }
+    }
+
+    private List<AvailableFilterResponseDto> toAvailableFilters(SearchFacetsDto facets) {
+        return List.of(
+                toValueFilter("brand", "Marca", facets.getBrands()),
+                toValueFilter("condition", "Condición", facets.getConditions()),
+                toValueFilter("currency", "Moneda", facets.getCurrencies()),
+                toPriceFilter(facets));
+    }
 
-        existing.setLastUpdated(LocalDateTime.now());
+    private AvailableFilterResponseDto toValueFilter(String id, String name, Map<String, Long> counts) {
+        List<FilterValueResponseDto> values = counts.entrySet().stream()
+                .map(entry -> new FilterValueResponseDto(entry.getKey(), entry.getKey(), entry.getValue()))
+                .toList();
 
-        return existing;
+        return new AvailableFilterResponseDto(id, name, "STRING", values);
     }
 
-    private List<ProductDto> applySorting(List<ProductDto> products, String sortBy) {
-        if (sortBy == null || sortBy.isBlank()) {
-            return products;
+    private AvailableFilterResponseDto toPriceFilter(SearchFacetsDto facets) {
+        List<BigDecimal> boundaries = facets.getPriceBoundaries();
+        List<Long> counts = facets.getPriceBucketCounts();
+        List<FilterValueResponseDto> values = new ArrayList<>();
+
+        // Rangos semiabiertos [desde, hasta); se omiten los que no tienen resultados
+        for (int bucket = 0; bucket < counts.size(); bucket++) {
+            if (counts.get(bucket) == 0) continue;
+            String from = bucket == 0 ? "*" : boundaries.get(bucket - 1).toPlainString();
+            String to = bucket == boundaries.size() ? "*" : boundaries.get(bucket).toPlainString();
+            String name = bucket == 0 ? "Hasta " + to
+                    : bucket == boundaries.size() ? "Más de " + from
+                    : from + " a " + to;
+            values.add(new FilterValueResponseDto(from + "-" + to, name, counts.get(bucket)));
         }
 
-        return switch (sortBy.toLowerCase()) {
-            case "price_asc" -> products.stream()
-                    .sorted((a, b) -> a.getPrice().compareTo(b.getPrice()))
-                    .toList();
-            case "price_desc" -> products.stream()
-                    .sorted((a, b) -> b.getPrice().compareTo(a.getPrice()))
-                    .toList();
-            case "title_asc" -> products.stream()
-                    .sorted((a, b) -> a.getTitle().compareTo(b.getTitle()))
-                    .toList();
-            case "date_desc" -> products.stream()
-                    .sorted((a, b) -> b.getDateCreated().compareTo(a.getDateCreated()))
-                    .toList();
-            default -> products;
-        };
+        return new AvailableFilterResponseDto("price", "Precio", "range", values);
+    }
+
+    /**
+     * Ordenamiento pedido; con texto y sin un orden válido se ordena por relevancia
+     */
+    private static ProductSort sortOf(SearchRequestDto request) {
+        ProductSort sort = ProductSort.fromId(request.getSortBy());
+        if (sort == null && request.getQuery() != null && !request.getQuery().isBlank()) {
+            return ProductSort.RELEVANCE;
+        }
+        return sort;
+    }
+
+    private Criterion toCriterion(SearchRequestDto request) {
+        List<Criterion> criteria = new ArrayList<>();
+        if (request.getQuery() != null && !request.getQuery().isBlank()) {
+            criteria.add(Criterion.text(request.getQuery(), request.isFuzzy()));
+        }
+        if (request.getBrand() != null && !request.getBrand().isBlank()) {
+            criteria.add(Criterion.brand(request.getBrand()));
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            criteria.add(Criterion.priceIn(request.getMinPrice(), request.getMaxPrice(), request.getPriceCurrency()));
+        }
+        if (request.getCondition() != null && !request.getCondition().isBlank()) {
+            criteria.add(Criterion.field(ProductField.CONDITION, request.getCondition()));
+        }
+        if (request.getAttributes() != null) {
+            for (String filter : request.getAttributes()) {
+                String[] pair = parseFilterPair(filter, "atributo", "ID:valor");
+                criteria.add(Criterion.attribute(pair[0], pair[1]));
+            }
+        }
+        if ((request.getVariationAttributes() != null && !request.getVariationAttributes().isEmpty())
+                || request.isInStock()) {
+            criteria.add(toVariationCriterion(request));
+        }
+        return Criterion.and(criteria);
+    }
+
+    /**
+     * Todas las combinaciones deben darse en la misma variación
+     */
+    private Criterion toVariationCriterion(SearchRequestDto request) {
+        Map<String, String> combinations = new LinkedHashMap<>();
+        if (request.getVariationAttributes() != null) {
+            for (String filter : request.getVariationAttributes()) {
+                String[] pair = parseFilterPair(filter, "variación", "nombre:valor");
+                if (combinations.putIfAbsent(pair[0].toLowerCase(), pair[1]) != null) {
+                    throw new InvalidProductDataException("Filtro de variación repetido: '" + pair[0] + "'");
+                }
+            }
+        }
+        return Criterion.variation(combinations, request.isInStock());
+    }
+
+    private String[] parseFilterPair(String filter, String kind, String format) {
+        int separator = filter == null ? -1 : filter.indexOf(':');
+        if (separator <= 0 || separator == filter.length() - 1) {
+            throw new InvalidProductDataException(
+                    "Filtro de " + kind + " inválido: '" + filter + "' (formato " + format + ")");
+        }
+        return new String[]{filter.substring(0, separator).trim(), filter.substring(separator + 1).trim()};
     }
 
     private List<ProductSummaryResponseDto> applyPagination(List<ProductDto> products, int offset, int limit) {
@@ -575,6 +1246,7 @@ public class ProductService {
                 .condition(product.getCondition())
                 .thumbnail(product.getThumbnail())
                 .status(product.getStatus())
+                .soldQuantity(product.getSoldQuantity())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.ecommerce.catalog.domain.currency;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Tabla de cotizaciones hacia una moneda base
+ * Cada cotización indica cuántas unidades de la moneda base vale 1 unidad de la moneda.
+ */
+public final class ExchangeRates {
+
+    private static final int SCALE = 4;
+
+    private final String base;
+    private final Map<String, BigDecimal> rates;
+
+    public ExchangeRates(String base, Map<String, BigDecimal> rates) {
+        this.base = base.toUpperCase(Locale.ROOT);
+        Map<String, BigDecimal> normalized = new HashMap<>();
+        rates.forEach((currency, rate) -> {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Cotización inválida para " + currency + ": " + rate);
+            }
+            normalized.put(currency.toUpperCase(Locale.ROOT), rate);
+        });
+        normalized.put(this.base, BigDecimal.ONE);
+        this.rates = Map.copyOf(normalized);
+    }
+
+    /**
+     * Leer una tabla con formato properties: base=ARS y una línea MONEDA=cotización por moneda
+     */
+    public static ExchangeRates load(InputStream input) {
+        Properties properties = new Properties();
+        try (InputStreamReader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer las cotizaciones", e);
+        }
+
+        String base = properties.getProperty("base");
+        if (base == null || base.isBlank()) {
+            throw new IllegalArgumentException("La tabla de cotizaciones debe declarar la moneda base");
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : properties.stringPropertyNames()) {
+            if (!"base".equals(currency)) {
+                rates.put(currency, new BigDecimal(properties.getProperty(currency).trim()));
+            }
+        }
+        return new ExchangeRates(base.trim(), rates);
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public boolean supports(String currency) {
+        return currency != null && rates.containsKey(currency.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Monto expresado en la moneda base; null si el monto es null o la moneda no tiene cotización
+     */
+    public BigDecimal toBase(BigDecimal amount, String currency) {
+        if (amount == null || !supports(currency)) {
+            return null;
+        }
+        return amount.multiply(rates.get(currency.toUpperCase(Locale.ROOT))).setScale(SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ExchangeRates that)) return false;
+        if (!base.equals(that.base) || !rates.keySet().equals(that.rates.keySet())) return false;
+        return rates.entrySet().stream()
+                .allMatch(entry -> entry.getValue().compareTo(that.rates.get(entry.getKey())) == 0);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(base, rates.keySet());
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeRates{base=" + base + ", rates=" + rates + "}";
+    }
+}
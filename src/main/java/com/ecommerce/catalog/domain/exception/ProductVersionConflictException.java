@@ -0,0 +1,20 @@
+package com.ecommerce.catalog.domain.exception;
+
+public class ProductVersionConflictException extends RuntimeException {
+
+    // true si el cliente envió una versión esperada (If-Match); false si se agotaron los reintentos sin ella
+    private final boolean precondition;
+
+    public ProductVersionConflictException(String message) {
+        this(message, true);
+    }
+
+    public ProductVersionConflictException(String message, boolean precondition) {
+        super(message);
+        this.precondition = precondition;
+    }
+
+    public boolean isPrecondition() {
+        return precondition;
+    }
+}
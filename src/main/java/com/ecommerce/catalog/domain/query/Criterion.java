@@ -0,0 +1,126 @@
+package com.ecommerce.catalog.domain.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Condición componible sobre productos
+ * El repositorio la compila en un plan sobre sus índices; agregar un filtro nuevo
+ * es combinar criterios existentes, no escribir otro método de búsqueda.
+ */
+public sealed interface Criterion {
+
+    String BRAND_ATTRIBUTE = "BRAND";
+
+    /** Todos los productos */
+    record MatchAll() implements Criterion {
+    }
+
+    /** Algún término de la consulta en título, descripción o atributos */
+    record Text(String query, boolean fuzzy) implements Criterion {
+    }
+
+    /** Campo escalar igual al valor (sin distinguir mayúsculas ni tildes) */
+    record FieldEquals(ProductField field, String value) implements Criterion {
+    }
+
+    /** Algún atributo con ese id cuyo valor coincide (sin distinguir mayúsculas ni tildes) */
+    record AttributeEquals(String attributeId, String value) implements Criterion {
+    }
+
+    /** Precio dentro del rango; un extremo null no acota */
+    record PriceRange(BigDecimal min, BigDecimal max) implements Criterion {
+    }
+
+    /**
+     * Precio convertido a la moneda base dentro del rango expresado en currency,
+     * sin importar la moneda de cada producto; currency null indica la moneda base
+     */
+    record ConvertedPriceRange(BigDecimal min, BigDecimal max, String currency) implements Criterion {
+    }
+
+    /** Productos con al menos una variación */
+    record HasVariations() implements Criterion {
+    }
+
+    /** Alguna variación que tiene todas las combinaciones (nombre → valor) y, si se pide, stock */
+    record VariationMatch(Map<String, String> attributes, boolean inStock) implements Criterion {
+    }
+
+    record And(List<Criterion> criteria) implements Criterion {
+    }
+
+    record Or(List<Criterion> criteria) implements Criterion {
+    }
+
+    record Not(Criterion criterion) implements Criterion {
+    }
+
+    static Criterion all() {
+        return new MatchAll();
+    }
+
+    static Criterion text(String query, boolean fuzzy) {
+        return new Text(query, fuzzy);
+    }
+
+    static Criterion field(ProductField field, String value) {
+        return new FieldEquals(field, value);
+    }
+
+    static Criterion attribute(String attributeId, String value) {
+        return new AttributeEquals(attributeId, value);
+    }
+
+    static Criterion brand(String brand) {
+        return new AttributeEquals(BRAND_ATTRIBUTE, brand);
+    }
+
+    static Criterion price(BigDecimal min, BigDecimal max) {
+        return new PriceRange(min, max);
+    }
+
+    static Criterion priceIn(BigDecimal min, BigDecimal max, String currency) {
+        return new ConvertedPriceRange(min, max, currency);
+    }
+
+    static Criterion withVariations() {
+        return new HasVariations();
+    }
+
+    static Criterion variation(Map<String, String> attributes, boolean inStock) {
+        return new VariationMatch(Map.copyOf(attributes), inStock);
+    }
+
+    /**
+     * Conjunción que ignora los MatchAll; sin condiciones equivale a MatchAll
+     */
+    static Criterion and(List<Criterion> criteria) {
+        List<Criterion> effective = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            if (criterion instanceof And and) {
+                effective.addAll(and.criteria());
+            } else if (!(criterion instanceof MatchAll)) {
+                effective.add(criterion);
+            }
+        }
+        if (effective.isEmpty()) {
+            return all();
+        }
+        return effective.size() == 1 ? effective.get(0) : new And(List.copyOf(effective));
+    }
+
+    static Criterion and(Criterion... criteria) {
+        return and(List.of(criteria));
+    }
+
+    static Criterion or(Criterion... criteria) {
+        return criteria.length == 1 ? criteria[0] : new Or(List.of(criteria));
+    }
+
+    static Criterion not(Criterion criterion) {
+        return new Not(criterion);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.catalog.domain.query;
+
+import com.ecommerce.catalog.application.dto.ProductDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Function;
+
+/**
+ * Campos escalares del producto sobre los que se puede filtrar por igualdad
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProductField {
+    STATUS(ProductDto::getStatus),
+    CONDITION(ProductDto::getCondition),
+    CURRENCY(ProductDto::getCurrencyId);
+
+    private final Function<ProductDto, String> accessor;
+}
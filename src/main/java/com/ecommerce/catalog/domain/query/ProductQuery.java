@@ -0,0 +1,31 @@
+package com.ecommerce.catalog.domain.query;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Consulta sobre el repositorio: criterio, ordenamiento y cantidad máxima de resultados
+ * Sin sort se respeta el orden de inserción; sin limit se devuelven todos los resultados.
+ * Con límites de precio para facetas, el resultado trae además los conteos por faceta de todas las coincidencias.
+ */
+@Getter
+@Builder
+public class ProductQuery {
+
+    @Builder.Default
+    private final Criterion criterion = Criterion.all();
+
+    private final ProductSort sort;
+
+    private final Integer limit;
+
+    // Límites de los rangos de precio de la faceta; null no cuenta facetas
+    private final List<BigDecimal> facetPriceBoundaries;
+
+    public static ProductQuery of(Criterion criterion) {
+        return ProductQuery.builder().criterion(criterion).build();
+    }
+}
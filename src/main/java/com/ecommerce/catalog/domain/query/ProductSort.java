@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.domain.query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Ordenamientos soportados por las consultas del repositorio
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProductSort {
+    RELEVANCE("relevance"),
+    PRICE_ASC("price_asc"),
+    PRICE_DESC("price_desc"),
+    TITLE_ASC("title_asc"),
+    TITLE_DESC("title_desc"),
+    DATE_DESC("date_desc"),
+    DATE_ASC("date_asc");
+
+    private final String id;
+
+    /**
+     * Ordenamiento por id de la API ("price_asc"), null si no corresponde a ninguno
+     */
+    public static ProductSort fromId(String id) {
+        if (id == null) {
+            return null;
+        }
+        return Arrays.stream(values())
+                .filter(sort -> sort.id.equalsIgnoreCase(id))
+                .findFirst()
+                .orElse(null);
+    }
+}
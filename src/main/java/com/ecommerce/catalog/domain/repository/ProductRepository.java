@@ -1,10 +1,20 @@
 package com.ecommerce.catalog.domain.repository;
 
+import com.ecommerce.catalog.application.dto.ChangeEventDto;
 import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.SearchHitsDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+import com.ecommerce.catalog.domain.currency.ExchangeRates;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductQuery;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.function.UnaryOperator;
 
 /**
  * Interfaz del repositorio de productos
@@ -14,8 +24,24 @@ public interface ProductRepository {
 
     // Operaciones básicas CRUD
     Optional<ProductDto> findById(String id);
+    Map<String, ProductDto> findAllById(Collection<String> ids);
     List<ProductDto> findAll();
     long count();
+    // Devuelve lo guardado, con la versión asignada
+    ProductDto save(ProductDto product);
+    void saveAll(List<ProductDto> products);
+    // Compare-and-swap: guarda solo si la versión actual es la esperada y devuelve lo guardado
+    Optional<ProductDto> saveIfVersion(ProductDto product, long expectedVersion);
+    // Compare-and-swap por ítem en una sola escritura: cada producto se guarda solo si la versión actual
+    // es la que trae (la leída); devuelve lo guardado por id, y los ausentes tuvieron conflicto
+    Map<String, ProductDto> saveAllIfVersion(List<ProductDto> products);
+    // Aplica el cambio a cada coincidencia en una sola escritura; devolver la misma instancia la deja como está
+    List<ProductDto> updateWhere(Criterion criterion, UnaryOperator<ProductDto> change);
+    // Suma delta al stock de una variación sin dejarlo negativo y devuelve el stock resultante
+    int adjustStock(String productId, long variationId, int delta);
+
+    // Flujo de cambios: eventos con secuencia creciente a partir de la indicada (null = desde ahora)
+    Flow.Publisher<ChangeEventDto> changesSince(Long sequence);
 
     // Búsquedas por campos específicos
     List<ProductDto> findByTitleContaining(String title);
@@ -31,9 +57,23 @@ public interface ProductRepository {
     List<ProductDto> findWithVariations();
     List<ProductDto> searchAdvanced(String query, String brand, BigDecimal minPrice,
                                     BigDecimal maxPrice, String condition);
+    List<SuggestionDto> suggest(String prefix, int limit);
+
+    // Consulta componible: criterio, orden, límite y facetas compilados en un plan sobre los índices
+    SearchHitsDto search(ProductQuery query);
+
+    // Solo conteo o existencia: se responden con cardinalidades de índices, sin armar listas
+    long count(Criterion criterion);
+    boolean exists(Criterion criterion);
+
+    // Cotizaciones: el precio normalizado a la moneda base se recalcula solo cuando cambian
+    // (el repositorio JSON las relee de catalog.currency.rates-file cuando el archivo se modifica)
+    ExchangeRates getExchangeRates();
+    void updateExchangeRates(ExchangeRates rates);
 
     // Operaciones de agregación
-    long countByBrand(String brand);
+    long countByStatus(String status);
+    long countWithVariations();
     List<String> findAllBrands();
     List<String> findAllCategories();
 }
\ No newline at end of file
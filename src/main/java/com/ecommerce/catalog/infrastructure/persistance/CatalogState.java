@@ -0,0 +1,348 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.SearchFacetsDto;
+import com.ecommerce.catalog.application.dto.SearchHitsDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+import com.ecommerce.catalog.domain.currency.ExchangeRates;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductQuery;
+import com.ecommerce.catalog.domain.query.ProductSort;
+import com.ecommerce.catalog.infrastructure.persistance.index.DiacriticFoldingFilter;
+import com.ecommerce.catalog.infrastructure.persistance.index.InvertedIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.KeywordIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.RangeIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.SuggestionIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.VariationIndex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Una copia del catálogo en memoria: los productos por slot y todos sus índices
+ * El repositorio mantiene dos copias iguales detrás de {@link LeftRight}. Los métodos de lectura
+ * pueden correr en paralelo entre sí; los de escritura los llama solo el escritor, sobre la copia
+ * que ningún lector está usando. Las dos copias comparten los productos, que son inmutables.
+ */
+final class CatalogState {
+
+    private final List<ProductDto> products = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final List<String> normalizedTitles = new ArrayList<>();
+    private final CatalogStatistics statistics = new CatalogStatistics();
+    private final InvertedIndex textIndex = new InvertedIndex();
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final RangeIndex priceIndex = new RangeIndex();
+    // Columna de precio en la moneda base: filtros y ordenamientos entre monedas sin convertir por consulta
+    private final RangeIndex normalizedPriceIndex = new RangeIndex();
+    private ExchangeRates exchangeRates;
+    private final VariationIndex variationIndex = new VariationIndex();
+    private final QueryPlanner planner;
+    private final SuggestionIndex suggestionIndex = new SuggestionIndex();
+    private final ParallelScanner scanner;
+
+    CatalogState(ExchangeRates exchangeRates, ParallelScanner scanner) {
+        this.exchangeRates = exchangeRates;
+        this.scanner = scanner;
+        this.planner = new QueryPlanner(keywordIndex, priceIndex, normalizedPriceIndex, () -> this.exchangeRates,
+                textIndex, variationIndex, products::size);
+    }
+
+    // ================================
+    // LECTURAS
+    // ================================
+
+    /**
+     * Versión guardada del producto; null si no existe
+     */
+    ProductDto get(String id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? null : products.get(slot);
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    List<ProductDto> products() {
+        return List.copyOf(products);
+    }
+
+    ExchangeRates exchangeRates() {
+        return exchangeRates;
+    }
+
+    CatalogStatistics statistics() {
+        return statistics;
+    }
+
+    List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Productos cuyo título normalizado contiene el texto ya normalizado
+     */
+    List<ProductDto> titleContaining(String needle) {
+        BitSet matches = scanner.scan(null, products.size(), BitSet::new, (partial, slot) -> {
+            String normalized = normalizedTitles.get(slot);
+            if (normalized != null && normalized.contains(needle)) {
+                partial.set(slot);
+            }
+        }, CatalogState::union);
+        List<ProductDto> result = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            result.add(products.get(slot));
+        }
+        return result;
+    }
+
+    SearchHitsDto search(ProductQuery query) {
+        QueryPlanner.Plan plan = planner.compile(query.getCriterion());
+        BitSet matches = plan.evaluate();
+
+        // El total y las facetas solo cuentan; el orden se aplica únicamente a los que se devuelven
+        long total = matches.cardinality();
+        SearchFacetsDto facets = null;
+        if (query.getFacetPriceBoundaries() != null) {
+            FacetCounter counter = new FacetCounter(query.getFacetPriceBoundaries());
+            facets = scanner.scan(matches, products.size(), counter::emptyCopy,
+                    (partial, slot) -> partial.collect(products.get(slot), normalizedPriceIndex.valueAt(slot)),
+                    FacetCounter::merge).toDto();
+        }
+
+        int limit = query.getLimit() == null ? Integer.MAX_VALUE : Math.max(0, query.getLimit());
+        List<ProductDto> hits = new ArrayList<>();
+        for (int slot : orderedSlots(matches, plan, query.getSort(), limit)) {
+            hits.add(products.get(slot));
+        }
+        return new SearchHitsDto(hits, total, facets);
+    }
+
+    long count(Criterion criterion) {
+        return planner.compile(criterion).count();
+    }
+
+    boolean exists(Criterion criterion) {
+        return planner.compile(criterion).exists();
+    }
+
+    /**
+     * Slots a devolver en orden: por relevancia usa el top-K de BM25 restringido a los matches;
+     * con otro orden mantiene un heap acotado a limit en lugar de ordenar todos los resultados
+     */
+    private int[] orderedSlots(BitSet matches, QueryPlanner.Plan plan, ProductSort sort, int limit) {
+        if (sort == ProductSort.RELEVANCE && !plan.rankingTerms().isEmpty()) {
+            return textIndex.topK(plan.rankingTerms(), Math.min(limit, matches.cardinality()), matches::get);
+        }
+
+        Comparator<Integer> bySlot = comparatorFor(sort);
+        if (bySlot == null) {
+            return matches.stream().limit(limit).toArray();
+        }
+
+        Comparator<Integer> order = bySlot.thenComparing(Comparator.naturalOrder());
+        return scanner.scan(matches, products.size(), () -> new TopSlots(limit, order),
+                TopSlots::offer, TopSlots::merge).toArray();
+    }
+
+    private static BitSet union(BitSet left, BitSet right) {
+        left.or(right);
+        return left;
+    }
+
+    /**
+     * Heap acotado con los mejores slots según el orden; los parciales de cada tarea se fusionan
+     */
+    private static final class TopSlots {
+        private final int limit;
+        private final Comparator<Integer> order;
+        private final PriorityQueue<Integer> heap;
+
+        TopSlots(int limit, Comparator<Integer> order) {
+            this.limit = limit;
+            this.order = order;
+            this.heap = new PriorityQueue<>(order.reversed());
+        }
+
+        void offer(int slot) {
+            if (limit <= 0) return;
+            if (heap.size() < limit) {
+                heap.add(slot);
+            } else if (order.compare(slot, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(slot);
+            }
+        }
+
+        TopSlots merge(TopSlots other) {
+            for (int slot : other.heap) {
+                offer(slot);
+            }
+            return this;
+        }
+
+        int[] toArray() {
+            int[] slots = new int[heap.size()];
+            for (int i = slots.length - 1; i >= 0; i--) {
+                slots[i] = heap.poll();
+            }
+            return slots;
+        }
+    }
+
+    /**
+     * Orden entre slots; el precio se compara en la moneda base para mezclar monedas
+     */
+    private Comparator<Integer> comparatorFor(ProductSort sort) {
+        if (sort == null) {
+            return null;
+        }
+        return switch (sort) {
+            case PRICE_ASC -> Comparator.comparing(normalizedPriceIndex::valueAt, Comparator.nullsLast(Comparator.naturalOrder()));
+            case PRICE_DESC -> Comparator.comparing(normalizedPriceIndex::valueAt, Comparator.nullsLast(Comparator.reverseOrder()));
+            case TITLE_ASC -> byProduct(Comparator.comparing(ProductDto::getTitle, Comparator.nullsLast(Comparator.naturalOrder())));
+            case TITLE_DESC -> byProduct(Comparator.comparing(ProductDto::getTitle, Comparator.nullsLast(Comparator.reverseOrder())));
+            case DATE_DESC -> byProduct(Comparator.comparing(ProductDto::getDateCreated, Comparator.nullsLast(Comparator.reverseOrder())));
+            case DATE_ASC -> byProduct(Comparator.comparing(ProductDto::getDateCreated, Comparator.nullsLast(Comparator.naturalOrder())));
+            case RELEVANCE -> null;
+        };
+    }
+
+    private Comparator<Integer> byProduct(Comparator<ProductDto> comparator) {
+        return Comparator.comparing(products::get, comparator);
+    }
+
+    // ================================
+    // ESCRITURAS (solo el escritor, sobre la copia no publicada)
+    // ================================
+
+    /**
+     * Slots que cumplen el criterio, para las escrituras por consulta
+     */
+    BitSet matches(Criterion criterion) {
+        return planner.compile(criterion).evaluate();
+    }
+
+    ProductDto at(int slot) {
+        return products.get(slot);
+    }
+
+    /**
+     * Ubicar el producto en su slot (o en uno nuevo al final) sin tocar los índices secundarios
+     * Lo que aporta a los índices se calcula acá, una sola vez: el cambio devuelto se repite tal cual
+     * sobre la otra copia con {@link #replay}.
+     */
+    Change place(ProductDto stored) {
+        Integer slot = slotById.get(stored.getId());
+        ProductDto previous = slot == null ? null : products.get(slot);
+        Change change = new Change(slot == null ? products.size() : slot, previous, stored,
+                Derived.between(previous, stored, textIndex));
+        place(change);
+        return change;
+    }
+
+    private void place(Change change) {
+        if (change.slot() == products.size()) {
+            slotById.put(change.product().getId(), change.slot());
+            products.add(change.product());
+            normalizedTitles.add(change.derived().title());
+        } else {
+            products.set(change.slot(), change.product());
+            normalizedTitles.set(change.slot(), change.derived().title());
+        }
+    }
+
+    /**
+     * Repetir sobre esta copia los cambios ya aplicados a la otra, en el mismo orden
+     */
+    void replay(List<Change> changes) {
+        for (Change change : changes) {
+            place(change);
+        }
+        index(changes);
+    }
+
+    /**
+     * Aplicar un lote de cambios a los índices secundarios recorriendo cada índice una sola vez
+     * Los cambios se aplican en orden, así un slot repetido en el lote queda con el último.
+     */
+    void index(List<Change> changes) {
+        for (Change change : changes) {
+            statistics.index(change.product());
+        }
+        for (Change change : changes) {
+            if (change.derived().text() != null) {
+                textIndex.index(change.slot(), change.derived().text());
+            }
+        }
+        for (Change change : changes) {
+            keywordIndex.index(change.slot(), change.derived().keys());
+        }
+        for (Change change : changes) {
+            ProductDto product = change.product();
+            priceIndex.index(change.slot(), product.getPrice());
+            normalizedPriceIndex.index(change.slot(), exchangeRates.toBase(product.getPrice(), product.getCurrencyId()));
+        }
+        for (Change change : changes) {
+            if (change.derived().variationsChanged()) {
+                variationIndex.index(change.slot(), change.product().getVariations());
+            }
+        }
+        for (Change change : changes) {
+            suggestionIndex.index(change.product());
+        }
+    }
+
+    /**
+     * Reemplazar las cotizaciones y recalcular la columna de precio normalizado
+     */
+    void updateExchangeRates(ExchangeRates rates) {
+        exchangeRates = rates;
+        for (int slot = 0; slot < products.size(); slot++) {
+            ProductDto product = products.get(slot);
+            normalizedPriceIndex.index(slot, rates.toBase(product.getPrice(), product.getCurrencyId()));
+        }
+    }
+
+    private static String normalizeTitle(ProductDto product) {
+        return product.getTitle() == null ? null
+                : DiacriticFoldingFilter.fold(product.getTitle().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Producto ya ubicado en su slot, pendiente de aplicar a los índices
+     *
+     * @param previous versión que reemplazó; null si es un alta
+     */
+    record Change(int slot, ProductDto previous, ProductDto product, Derived derived) {
+    }
+
+    /**
+     * Lo que un producto aporta a los índices, calculado sin tocarlos
+     * Los campos que no cambiaron respecto de la versión anterior no se recalculan: con las
+     * sublistas compartidas entre versiones la comparación suele resolverse por identidad.
+     *
+     * @param text              términos analizados; null si título, descripción y atributos no cambiaron
+     * @param variationsChanged las variaciones difieren de la versión anterior
+     */
+    record Derived(Set<String> keys, String title, InvertedIndex.Document text, boolean variationsChanged) {
+
+        static Derived between(ProductDto previous, ProductDto next, InvertedIndex textIndex) {
+            boolean sameText = previous != null
+                    && Objects.equals(previous.getTitle(), next.getTitle())
+                    && Objects.equals(previous.getDescription(), next.getDescription())
+                    && Objects.equals(previous.getAttributes(), next.getAttributes());
+            return new Derived(QueryPlanner.keysOf(next), normalizeTitle(next), sameText ? null : textIndex.analyze(next),
+                    previous == null || !Objects.equals(previous.getVariations(), next.getVariations()));
+        }
+    }
+}
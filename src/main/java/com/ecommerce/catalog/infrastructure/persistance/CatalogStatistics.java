@@ -0,0 +1,137 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Vista de estadísticas del catálogo mantenida incrementalmente
+ * Se actualiza en cada carga y mutación para que las lecturas sean O(1).
+ * No es thread-safe: el repositorio la protege con su propio lock.
+ */
+class CatalogStatistics {
+
+    static final String BRAND_ATTRIBUTE = "BRAND";
+    static final Set<String> CATEGORY_ATTRIBUTES = Set.of("FOOTWEAR_TYPE", "CLOTHING_TYPE", "MODEL");
+
+    // Lo que cada producto aportó la última vez que se indexó, para poder restarlo
+    private final Map<String, ProductFacts> factsById = new HashMap<>();
+
+    private final Map<String, Long> statusCounts = new HashMap<>();
+    private final TreeMap<String, Long> brandCounts = new TreeMap<>();
+    private final TreeMap<String, Long> categoryCounts = new TreeMap<>();
+    private long productsWithVariations;
+
+    // Vistas inmutables, se reconstruyen solo cuando aparece o desaparece un valor
+    private List<String> brands = List.of();
+    private List<String> categories = List.of();
+
+    /**
+     * Registrar (o re-registrar) un producto, reemplazando su aporte anterior
+     */
+    void index(ProductDto product) {
+        ProductFacts previous = factsById.get(product.getId());
+        ProductFacts current = ProductFacts.of(product);
+
+        if (current.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(current, 1);
+        factsById.put(product.getId(), current);
+    }
+
+    long total() {
+        return factsById.size();
+    }
+
+    long countByStatus(String status) {
+        return status == null ? 0 : statusCounts.getOrDefault(status.toLowerCase(), 0L);
+    }
+
+    long countWithVariations() {
+        return productsWithVariations;
+    }
+
+    List<String> brands() {
+        return brands;
+    }
+
+    List<String> categories() {
+        return categories;
+    }
+
+    private void apply(ProductFacts facts, long delta) {
+        if (facts.status() != null) {
+            adjust(statusCounts, facts.status(), delta);
+        }
+        if (facts.hasVariations()) {
+            productsWithVariations += delta;
+        }
+
+        boolean brandsChanged = false;
+        for (String brand : facts.brands()) {
+            brandsChanged |= adjust(brandCounts, brand, delta);
+        }
+        if (brandsChanged) {
+            brands = List.copyOf(brandCounts.keySet());
+        }
+
+        boolean categoriesChanged = false;
+        for (String category : facts.categories()) {
+            categoriesChanged |= adjust(categoryCounts, category, delta);
+        }
+        if (categoriesChanged) {
+            categories = List.copyOf(categoryCounts.keySet());
+        }
+    }
+
+    /**
+     * Ajusta el contador y devuelve true si la clave apareció o desapareció
+     */
+    private static boolean adjust(Map<String, Long> counts, String key, long delta) {
+        long updated = counts.getOrDefault(key, 0L) + delta;
+        if (updated <= 0) {
+            counts.remove(key);
+            return true;
+        }
+        return counts.put(key, updated) == null;
+    }
+
+    /**
+     * Hechos derivados de un producto que alimentan las estadísticas
+     */
+    private record ProductFacts(String status, boolean hasVariations,
+                                List<String> brands, List<String> categories) {
+
+        static ProductFacts of(ProductDto product) {
+            List<String> brands = new ArrayList<>();
+            List<String> categories = new ArrayList<>();
+
+            if (product.getAttributes() != null) {
+                for (AttributeDto attr : product.getAttributes()) {
+                    if (attr.getValueName() == null) continue;
+                    if (BRAND_ATTRIBUTE.equals(attr.getId())) {
+                        brands.add(attr.getValueName());
+                    } else if (CATEGORY_ATTRIBUTES.contains(attr.getId())) {
+                        categories.add(attr.getValueName());
+                    }
+                }
+            }
+
+            return new ProductFacts(
+                    product.getStatus() == null ? null : product.getStatus().toLowerCase(),
+                    product.getVariations() != null && !product.getVariations().isEmpty(),
+                    List.copyOf(brands),
+                    List.copyOf(categories));
+        }
+    }
+}
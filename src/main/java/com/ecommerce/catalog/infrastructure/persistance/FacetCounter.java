@@ -0,0 +1,117 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.SearchFacetsDto;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acumulador de conteos por faceta (marca, condición, moneda y rangos de precio)
+ * El repositorio lo alimenta en la misma pasada que produce los resultados; cada tarea del recorrido
+ * paralelo cuenta en su propia copia y al final se fusionan en una vista inmutable
+ */
+@Getter
+final class FacetCounter {
+
+    private final Map<String, Long> brands = new TreeMap<>();
+    private final Map<String, Long> conditions = new TreeMap<>();
+    private final Map<String, Long> currencies = new TreeMap<>();
+
+    // Límites ordenados: n límites generan n + 1 rangos
+    private final List<BigDecimal> priceBoundaries;
+    private final long[] priceBucketCounts;
+
+    FacetCounter(List<BigDecimal> priceBoundaries) {
+        this.priceBoundaries = priceBoundaries.stream()
+                .distinct()
+                .sorted()
+                .toList();
+        this.priceBucketCounts = new long[this.priceBoundaries.size() + 1];
+    }
+
+    /**
+     * Contabilizar un producto que forma parte de los resultados
+     */
+    void collect(ProductDto product) {
+        collect(product, product.getPrice());
+    }
+
+    /**
+     * Contabilizar un producto ubicando su rango con un precio ya convertido a la moneda base
+     */
+    void collect(ProductDto product, BigDecimal price) {
+        if (product.getAttributes() != null) {
+            for (AttributeDto attr : product.getAttributes()) {
+                if ("BRAND".equals(attr.getId()) && attr.getValueName() != null) {
+                    brands.merge(attr.getValueName(), 1L, Long::sum);
+                }
+            }
+        }
+        if (product.getCondition() != null) {
+            conditions.merge(product.getCondition(), 1L, Long::sum);
+        }
+        if (product.getCurrencyId() != null) {
+            currencies.merge(product.getCurrencyId(), 1L, Long::sum);
+        }
+        if (price != null) {
+            priceBucketCounts[bucketOf(price)]++;
+        }
+    }
+
+    /**
+     * Acumulador vacío con los mismos rangos de precio, para conteos parciales
+     */
+    FacetCounter emptyCopy() {
+        return new FacetCounter(priceBoundaries);
+    }
+
+    /**
+     * Sumar los conteos de otro acumulador con los mismos rangos de precio
+     */
+    FacetCounter merge(FacetCounter other) {
+        other.brands.forEach((key, count) -> brands.merge(key, count, Long::sum));
+        other.conditions.forEach((key, count) -> conditions.merge(key, count, Long::sum));
+        other.currencies.forEach((key, count) -> currencies.merge(key, count, Long::sum));
+        for (int i = 0; i < priceBucketCounts.length; i++) {
+            priceBucketCounts[i] += other.priceBucketCounts[i];
+        }
+        return this;
+    }
+
+    /**
+     * Copia inmutable de los conteos para la respuesta
+     */
+    SearchFacetsDto toDto() {
+        return SearchFacetsDto.builder()
+                .brands(Collections.unmodifiableSortedMap(new TreeMap<>(brands)))
+                .conditions(Collections.unmodifiableSortedMap(new TreeMap<>(conditions)))
+                .currencies(Collections.unmodifiableSortedMap(new TreeMap<>(currencies)))
+                .priceBoundaries(priceBoundaries)
+                .priceBucketCounts(Arrays.stream(priceBucketCounts).boxed().toList())
+                .build();
+    }
+
+    /**
+     * Rango [límite i-1, límite i) al que pertenece el precio
+     */
+    private int bucketOf(BigDecimal price) {
+        int low = 0;
+        int high = priceBoundaries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (price.compareTo(priceBoundaries.get(mid)) < 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -1,27 +1,61 @@
 package com.ecommerce.catalog.infrastructure.persistance;
 
+import com.ecommerce.catalog.application.dto.ChangeEventDto;
 import com.ecommerce.catalog.application.dto.ProductDto;
 import com.ecommerce.catalog.application.dto.ProductsContainerDto;
+import com.ecommerce.catalog.application.dto.SearchHitsDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+import com.ecommerce.catalog.application.dto.VariationDto;
+import com.ecommerce.catalog.domain.currency.ExchangeRates;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductField;
+import com.ecommerce.catalog.domain.query.ProductQuery;
 import com.ecommerce.catalog.domain.repository.ProductRepository;
+import com.ecommerce.catalog.infrastructure.persistance.CatalogState.Change;
+import com.ecommerce.catalog.infrastructure.persistance.changes.ChangeFeed;
+import com.ecommerce.catalog.infrastructure.persistance.index.DiacriticFoldingFilter;
+import com.ecommerce.catalog.infrastructure.persistance.journal.Durability;
+import com.ecommerce.catalog.infrastructure.persistance.journal.ProductJournal;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.TypeRef;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Implementación corregida del repositorio JSON
@@ -31,14 +65,61 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Slf4j
 public class JsonProductRepository implements ProductRepository {
 
-    private final List<ProductDto> products;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    static final int DEFAULT_PARALLEL_SCAN_THRESHOLD = 50_000;
+    static final String DEFAULT_EXCHANGE_RATES = "currency/exchange-rates.properties";
+    static final long DEFAULT_FSYNC_INTERVAL_MS = 1_000;
+    static final int DEFAULT_CHANGE_BUFFER_SIZE = 65_536;
+    static final long DEFAULT_RATES_RELOAD_INTERVAL_MS = 60_000;
+
+    // Productos e índices en dos copias: las lecturas no toman locks, las escrituras se aplican a ambas
+    private final LeftRight<CatalogState> catalog;
+    // Serializa a los escritores; las lecturas nunca lo toman
+    private final Lock writeLock = new ReentrantLock();
+    // Relectura periódica del archivo de cotizaciones; null sin archivo configurado o con intervalo 0
+    private final ScheduledExecutorService ratesReloader;
+    private volatile FileTime ratesModified;
+    private final ParallelScanner scanner;
+    // Versiones escritas desde el arranque; null si no hay journal configurado
+    private final ProductJournal journal;
+    // Flujo de cambios para réplicas y cachés: las últimas escrituras en un buffer circular
+    private final ChangeFeed changeFeed;
+    // Stock por variación: reservas con CAS sin locks, volcadas a los productos en lotes
+    private final StockColumn stock;
 
     public JsonProductRepository() {
+        this(DEFAULT_PARALLEL_SCAN_THRESHOLD, 0, Optional.empty(), DEFAULT_RATES_RELOAD_INTERVAL_MS,
+                Optional.empty(), Durability.BATCH.getValue(), DEFAULT_FSYNC_INTERVAL_MS, DEFAULT_CHANGE_BUFFER_SIZE);
+    }
+
+    @Inject
+    JsonProductRepository(@ConfigProperty(name = "catalog.scan.parallel-threshold", defaultValue = "50000")
+                          int parallelScanThreshold,
+                          @ConfigProperty(name = "catalog.scan.parallelism", defaultValue = "0")
+                          int scanParallelism,
+                          @ConfigProperty(name = "catalog.currency.rates-file")
+                          Optional<String> exchangeRatesFile,
+                          @ConfigProperty(name = "catalog.currency.reload-interval-ms", defaultValue = "60000")
+                          long ratesReloadIntervalMs,
+                          @ConfigProperty(name = "catalog.journal.path")
+                          Optional<String> journalPath,
+                          @ConfigProperty(name = "catalog.journal.durability", defaultValue = "batch")
+                          String journalDurability,
+                          @ConfigProperty(name = "catalog.journal.fsync-interval-ms", defaultValue = "1000")
+                          long journalFsyncIntervalMs,
+                          @ConfigProperty(name = "catalog.changes.buffer-size", defaultValue = "65536")
+                          int changeBufferSize) {
+        this.scanner = new ParallelScanner(parallelScanThreshold, scanParallelism);
+        this.changeFeed = new ChangeFeed(changeBufferSize);
+        this.stock = new StockColumn(this::publishStock);
+        ExchangeRates exchangeRates = loadExchangeRates(exchangeRatesFile);
+        this.catalog = new LeftRight<>(new CatalogState(exchangeRates, scanner), new CatalogState(exchangeRates, scanner));
+        this.ratesModified = exchangeRatesFile.map(file -> lastModified(Path.of(file))).orElse(null);
+
         // Configurar ObjectMapper para manejar snake_case del JSON
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
         try {
             // Cargar JSON al inicializar
@@ -49,7 +130,7 @@ public class JsonProductRepository implements ProductRepository {
                 throw new RuntimeException("No se pudo encontrar el archivo products.json");
             }
 
-            String jsonString = new String(inputStream.readAllBytes());
+            String jsonString = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
 
             // Configurar JsonPath
             Configuration config = Configuration.defaultConfiguration()
@@ -60,328 +141,639 @@ public class JsonProductRepository implements ProductRepository {
 
             // Deserializar correctamente usando TypeRef para preservar tipos
             ProductsContainerDto container = objectMapper.readValue(jsonString, ProductsContainerDto.class);
-            this.products = container.getProducts();
+            List<ProductDto> products = new ArrayList<>(container.getProducts());
+
+            // Las escrituras del journal se reaplican sobre el catálogo inicial antes de indexar
+            if (journalPath.isPresent()) {
+                Path path = Path.of(journalPath.get());
+                List<ProductDto> replayed = ProductJournal.replay(path, objectMapper);
+                applyJournal(products, replayed);
+                this.journal = ProductJournal.open(path, Durability.fromValue(journalDurability),
+                        journalFsyncIntervalMs, objectMapper);
+                log.info("📒 {} escrituras reaplicadas desde el journal", replayed.size());
+            } else {
+                this.journal = null;
+            }
 
-            log.info("✅ Repositorio JSON inicializado con {} productos", products.size());
+            // Los índices se derivan una sola vez en la carga y la segunda copia repite los mismos cambios
+            List<Change> loaded = catalog.write(state -> {
+                List<Change> changes = new ArrayList<>(products.size());
+                for (ProductDto product : products) {
+                    changes.add(state.place(product.getVersion() == null
+                            ? product.toBuilder().version(1L).build() : product));
+                }
+                state.index(changes);
+                return changes;
+            }, CatalogState::replay);
+            trackStock(loaded);
+
+            log.info("✅ Repositorio JSON inicializado con {} productos (moneda base {})",
+                    products.size(), exchangeRates.getBase());
+
+            // Con índices ya construidos: cada recarga solo recalcula la columna de precio normalizado
+            if (exchangeRatesFile.isPresent() && ratesReloadIntervalMs > 0) {
+                Path ratesFile = Path.of(exchangeRatesFile.get());
+                this.ratesReloader = Executors.newSingleThreadScheduledExecutor(task -> {
+                    Thread thread = new Thread(task, "catalog-rates-reload");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                ratesReloader.scheduleWithFixedDelay(() -> reloadExchangeRates(ratesFile),
+                        ratesReloadIntervalMs, ratesReloadIntervalMs, TimeUnit.MILLISECONDS);
+            } else {
+                this.ratesReloader = null;
+            }
 
         } catch (IOException e) {
             throw new RuntimeException("Error al cargar productos del JSON", e);
         }
     }
 
+    /**
+     * Reemplazar (o agregar al final) cada versión del journal en orden: gana la última de cada id
+     */
+    private static void applyJournal(List<ProductDto> products, List<ProductDto> replayed) {
+        Map<String, Integer> slots = new HashMap<>();
+        for (int slot = 0; slot < products.size(); slot++) {
+            slots.put(products.get(slot).getId(), slot);
+        }
+        for (ProductDto product : replayed) {
+            Integer slot = slots.putIfAbsent(product.getId(), products.size());
+            if (slot == null) {
+                products.add(product);
+            } else {
+                products.set(slot, product);
+            }
+        }
+    }
+
     @Override
     public Optional<ProductDto> findById(String id) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando producto por ID: {}", id);
+        log.debug("🔍 Buscando producto por ID: {}", id);
 
-            // Usar stream de la lista en memoria (más confiable)
-            Optional<ProductDto> result = products.stream()
-                    .filter(product -> id.equals(product.getId()))
-                    .findFirst();
+        Optional<ProductDto> result = Optional.ofNullable(catalog.read(state -> state.get(id)));
 
-            if (result.isPresent()) {
-                log.debug("✅ Producto encontrado: {} - {}", result.get().getId(), result.get().getTitle());
-            } else {
-                log.debug("❌ Producto no encontrado: {}", id);
+        if (result.isPresent()) {
+            log.debug("✅ Producto encontrado: {} - {}", result.get().getId(), result.get().getTitle());
+        } else {
+            log.debug("❌ Producto no encontrado: {}", id);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, ProductDto> findAllById(Collection<String> ids) {
+        Map<String, ProductDto> found = catalog.read(state -> {
+            Map<String, ProductDto> products = new HashMap<>();
+            for (String id : ids) {
+                ProductDto product = state.get(id);
+                if (product != null) {
+                    products.put(id, product);
+                }
             }
+            return products;
+        });
+        log.debug("🔍 Resueltos {} de {} IDs", found.size(), ids.size());
+        return found;
+    }
 
-            return result;
+    @Override
+    public List<ProductDto> findAll() {
+        log.debug("📋 Obteniendo todos los productos");
+        return catalog.read(CatalogState::products);
+    }
 
-        } finally {
-            lock.readLock().unlock();
+    @Override
+    public ProductDto save(ProductDto product) {
+        ProductDto stored = write(product, null).orElseThrow();
+
+        log.debug("💾 Producto guardado: {} (versión {})", stored.getId(), stored.getVersion());
+        return stored;
+    }
+
+    @Override
+    public void saveAll(List<ProductDto> batch) {
+        // Un solo turno de escritura y una pasada por índice para todo el lote
+        publish(state -> {
+            List<Change> changes = new ArrayList<>(batch.size());
+            for (ProductDto product : batch) {
+                changes.add(state.place(nextVersion(product, state.get(product.getId()))));
+            }
+            return changes;
+        });
+
+        log.debug("💾 Lote de {} productos guardado", batch.size());
+    }
+
+    @Override
+    public Map<String, ProductDto> saveAllIfVersion(List<ProductDto> batch) {
+        // El chequeo y la publicación comparten el turno de escritura: nada se intercala entre ambos
+        List<Change> changes = publish(state -> {
+            List<Change> placed = new ArrayList<>(batch.size());
+            for (ProductDto product : batch) {
+                ProductDto current = state.get(product.getId());
+                if (versionOf(current) != versionOf(product)) {
+                    log.debug("⚠️ Conflicto de versión en {}: esperada {}, actual {}",
+                            product.getId(), versionOf(product), versionOf(current));
+                    continue;
+                }
+                placed.add(state.place(nextVersion(product, current)));
+            }
+            return placed;
+        });
+
+        Map<String, ProductDto> saved = new HashMap<>();
+        for (Change change : changes) {
+            saved.put(change.product().getId(), change.product());
         }
+        log.debug("💾 Lote condicional: {} de {} productos guardados", changes.size(), batch.size());
+        return saved;
     }
 
     @Override
-    public List<ProductDto> findAll() {
-        lock.readLock().lock();
+    public Optional<ProductDto> saveIfVersion(ProductDto product, long expectedVersion) {
+        Optional<ProductDto> stored = write(product, expectedVersion);
+
+        stored.ifPresent(saved -> log.debug("💾 Producto guardado: {} (versión {})", saved.getId(), saved.getVersion()));
+        return stored;
+    }
+
+    /**
+     * Escritura puntual de un producto
+     * El chequeo de versión, la derivación y la publicación se hacen en el mismo turno de escritura,
+     * como las escrituras en lote: nada se intercala entre leer la versión actual y reemplazarla.
+     * La versión avanza en cada escritura; se guarda una copia con la versión nueva
+     * que comparte las sublistas con el producto recibido, salvo las variaciones existentes,
+     * que llevan el stock de la columna y no el recibido.
+     *
+     * @param expectedVersion versión que debe tener el producto guardado; null escribe sin condición
+     */
+    private Optional<ProductDto> write(ProductDto product, Long expectedVersion) {
+        List<Change> changes = publish(state -> {
+            ProductDto current = state.get(product.getId());
+            if (expectedVersion != null && versionOf(current) != expectedVersion) {
+                log.debug("⚠️ Conflicto de versión en {}: esperada {}, actual {}",
+                        product.getId(), expectedVersion, versionOf(current));
+                return List.of();
+            }
+            return List.of(state.place(nextVersion(product, current)));
+        });
+        return changes.stream().map(Change::product).findFirst();
+    }
+
+    @Override
+    public List<ProductDto> updateWhere(Criterion criterion, UnaryOperator<ProductDto> change) {
+        List<Change> changes = publish(state -> {
+            // La función puede fallar: se aplica a todas las coincidencias antes de ubicar ninguna,
+            // así una excepción no deja la copia a medio escribir
+            BitSet matches = state.matches(criterion);
+            List<ProductDto> updated = new ArrayList<>();
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                ProductDto current = state.at(slot);
+                ProductDto next = change.apply(current);
+                if (next != current) {
+                    updated.add(nextVersion(next, current));
+                }
+            }
+            List<Change> placed = new ArrayList<>(updated.size());
+            for (ProductDto product : updated) {
+                placed.add(state.place(product));
+            }
+
+            log.debug("💾 Actualización por consulta: {} coincidencias, {} productos modificados",
+                    matches.cardinality(), placed.size());
+            return placed;
+        });
+        return changes.stream().map(Change::product).toList();
+    }
+
+    /**
+     * Publicar una escritura en ambas copias del catálogo y esperar a que sea durable
+     * Los cambios se ubican sobre la copia que no leen las consultas, se indexan, y recién entonces
+     * esa copia pasa a ser la publicada; la otra repite los mismos cambios cuando salen sus lectores.
+     * Con journal, la escritura se encola al publicarse y se espera su confirmación ya fuera del turno
+     * de escritura, así los escritores concurrentes comparten el mismo fsync. Si el journal falla, la
+     * escritura ya publicada queda en memoria (y en el flujo de cambios) pero no es durable: el cliente
+     * recibe el error y el repositorio rechaza toda escritura posterior antes de aplicarla, así un
+     * reintento no vuelve a aplicar operaciones no idempotentes. Se recupera reiniciando desde el journal.
+     *
+     * @param placement ubica los productos en la copia recibida y devuelve los cambios, sin indexarlos
+     * @return los cambios publicados
+     */
+    private List<Change> publish(Function<CatalogState, List<Change>> placement) {
+        List<Change> changes;
+        CompletableFuture<Void> commit;
+        writeLock.lock();
         try {
-            log.debug("📋 Obteniendo todos los productos");
-            return List.copyOf(products);
+            ensureWritable();
+            changes = catalog.write(state -> {
+                List<Change> placed = placement.apply(state);
+                state.index(placed);
+                return placed;
+            }, CatalogState::replay);
+            trackStock(changes);
+            commit = record(changes);
         } finally {
-            lock.readLock().unlock();
+            writeLock.unlock();
         }
+        awaitDurable(commit);
+        return changes;
     }
 
+    /**
+     * Ajustar el stock con CAS sobre la celda y esperar a que el volcado sea durable
+     * Si el volcado falla el ajuste se revierte antes de propagar el error, así un 5xx no deja
+     * unidades reservadas (ni liberadas) y el cliente puede reintentar. Si la reversión de una
+     * liberación ya no entra porque las unidades se reservaron entretanto, se deja registrado.
+     */
     @Override
-    public List<ProductDto> findByTitleContaining(String title) {
-        lock.readLock().lock();
+    public int adjustStock(String productId, long variationId, int delta) {
+        int available = stock.adjust(productId, variationId, delta);
         try {
-            log.debug("🔍 Buscando productos que contengan en título: '{}'", title);
+            awaitDurable(stock.flush());
+        } catch (RuntimeException e) {
+            try {
+                stock.adjust(productId, variationId, -delta);
+            } catch (RuntimeException rollback) {
+                log.error("❌ No se pudo revertir el ajuste de stock {} de la variación {} del producto {}",
+                        delta, variationId, productId, rollback);
+            }
+            throw e;
+        }
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> product.getTitle() != null &&
-                            product.getTitle().toLowerCase().contains(title.toLowerCase()))
-                    .collect(Collectors.toList());
+        log.debug("📦 Stock de la variación {} del producto {}: {} ({})", variationId, productId, available, delta);
+        return available;
+    }
 
-            log.debug("✅ Encontrados {} productos con título que contiene: '{}'", results.size(), title);
-            return results;
+    long stockFlushes() {
+        return stock.flushes();
+    }
 
+    /**
+     * Volcar el stock de las celdas a los productos, en una sola publicación
+     * Lo llama el hilo de la columna de stock con todos los productos reservados desde el último volcado:
+     * el producto guardado, los filtros de disponibilidad, el flujo de cambios y el journal quedan al día.
+     * La versión no avanza: el stock no es parte del documento versionado, así las reservas no hacen
+     * fallar los If-Match ni agotan los reintentos de las actualizaciones. Avanza en cambio la versión
+     * de stock, que distingue el ETag y los eventos de cada volcado.
+     *
+     * @return confirmación del journal; null si no hay journal o no hubo cambios
+     */
+    private CompletableFuture<Void> publishStock(List<String> ids) {
+        writeLock.lock();
+        try {
+            ensureWritable();
+            List<Change> changes = catalog.write(state -> {
+                List<Change> placed = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    ProductDto current = state.get(id);
+                    if (current == null) {
+                        continue;
+                    }
+                    List<VariationDto> variations = stock.variationsOf(current);
+                    if (variations == current.getVariations()) {
+                        continue;
+                    }
+                    placed.add(state.place(current.toBuilder()
+                            .variations(variations)
+                            .stockVersion(stockVersionOf(current) + 1)
+                            .build()));
+                }
+                state.index(placed);
+                return placed;
+            }, CatalogState::replay);
+
+            log.debug("📦 Stock volcado: {} productos reservados, {} actualizados", ids.size(), changes.size());
+            return record(changes);
         } finally {
-            lock.readLock().unlock();
+            writeLock.unlock();
         }
     }
 
-    @Override
-    public List<ProductDto> findByBrand(String brand) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos de marca: '{}'", brand);
+    /**
+     * Rechazar la escritura antes de aplicarla si el journal está cerrado o ya falló
+     */
+    private void ensureWritable() {
+        if (journal != null) {
+            journal.ensureWritable();
+        }
+    }
+
+    /**
+     * Alinear la columna de stock con versiones escritas por fuera de las reservas
+     * Requiere el turno de escritura.
+     */
+    private void trackStock(List<Change> changes) {
+        for (Change change : changes) {
+            stock.track(change.previous(), change.product());
+        }
+    }
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> product.getAttributes() != null &&
-                            product.getAttributes().stream()
-                                    .anyMatch(attr -> "BRAND".equals(attr.getId()) &&
-                                            brand.equalsIgnoreCase(attr.getValueName())))
-                    .collect(Collectors.toList());
+    /**
+     * Versión siguiente a current del producto recibido
+     * Conserva la versión de stock vigente: solo la avanzan los volcados, nunca lo que trae la escritura.
+     */
+    private ProductDto nextVersion(ProductDto product, ProductDto current) {
+        return withStock(product.toBuilder()
+                .version(versionOf(current) + 1)
+                .stockVersion(current == null ? null : current.getStockVersion())
+                .build());
+    }
 
-            log.debug("✅ Encontrados {} productos de marca: '{}'", results.size(), brand);
-            return results;
+    /**
+     * Producto con el stock de la columna en sus variaciones existentes
+     * Una escritura externa nunca cambia ese stock: si trae una copia anterior a un volcado, no devuelve
+     * las unidades reservadas desde entonces. Las variaciones nuevas conservan la cantidad recibida.
+     */
+    private ProductDto withStock(ProductDto product) {
+        List<VariationDto> variations = stock.variationsOf(product);
+        return variations == product.getVariations() ? product : product.toBuilder().variations(variations).build();
+    }
 
-        } finally {
-            lock.readLock().unlock();
+    /**
+     * Emitir los cambios publicados al flujo de cambios y encolarlos en el journal
+     * Se llama en el turno de escritura para que el orden de ambos sea el de publicación.
+     *
+     * @return confirmación del journal; null si no hay journal o no hubo cambios
+     */
+    private CompletableFuture<Void> record(List<Change> changes) {
+        for (Change change : changes) {
+            changeFeed.publish(change.previous(), change.product());
         }
+        if (journal == null || changes.isEmpty()) {
+            return null;
+        }
+        return journal.append(changes.stream().map(Change::product).toList());
+    }
+
+    /**
+     * Esperar, ya fuera del turno de escritura, a que el committer confirme el lote que incluye la escritura
+     */
+    private static void awaitDurable(CompletableFuture<Void> commit) {
+        if (commit != null) {
+            ProductJournal.await(commit);
+        }
+    }
+
+    private static long versionOf(ProductDto product) {
+        return product == null || product.getVersion() == null ? 0L : product.getVersion();
+    }
+
+    private static long stockVersionOf(ProductDto product) {
+        return product.getStockVersion() == null ? 0L : product.getStockVersion();
     }
 
     @Override
-    public List<ProductDto> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos en rango de precio: {} - {}", minPrice, maxPrice);
+    public Flow.Publisher<ChangeEventDto> changesSince(Long sequence) {
+        return changeFeed.since(sequence);
+    }
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> product.getPrice() != null &&
-                            product.getPrice().compareTo(minPrice) >= 0 &&
-                            product.getPrice().compareTo(maxPrice) <= 0)
-                    .collect(Collectors.toList());
+    @Override
+    public List<ProductDto> findByTitleContaining(String title) {
+        log.debug("🔍 Buscando productos que contengan en título: '{}'", title);
 
-            log.debug("✅ Encontrados {} productos en rango de precio: {} - {}",
-                    results.size(), minPrice, maxPrice);
-            return results;
+        // Los títulos se normalizan al indexar; por consulta solo se normaliza el texto buscado
+        String needle = DiacriticFoldingFilter.fold(title.toLowerCase(Locale.ROOT));
+        List<ProductDto> results = catalog.read(state -> state.titleContaining(needle));
 
-        } finally {
-            lock.readLock().unlock();
-        }
+        log.debug("✅ Encontrados {} productos con título que contiene: '{}'", results.size(), title);
+        return results;
     }
 
     @Override
-    public List<ProductDto> findByCondition(String condition) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos con condición: '{}'", condition);
+    public List<ProductDto> findByBrand(String brand) {
+        log.debug("🔍 Buscando productos de marca: '{}'", brand);
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> condition.equalsIgnoreCase(product.getCondition()))
-                    .collect(Collectors.toList());
+        List<ProductDto> results = find(Criterion.brand(brand));
 
-            log.debug("✅ Encontrados {} productos con condición: '{}'", results.size(), condition);
-            return results;
+        log.debug("✅ Encontrados {} productos de marca: '{}'", results.size(), brand);
+        return results;
+    }
 
-        } finally {
-            lock.readLock().unlock();
-        }
+    @Override
+    public List<ProductDto> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        log.debug("🔍 Buscando productos en rango de precio: {} - {}", minPrice, maxPrice);
+
+        List<ProductDto> results = find(Criterion.price(minPrice, maxPrice));
+
+        log.debug("✅ Encontrados {} productos en rango de precio: {} - {}",
+                results.size(), minPrice, maxPrice);
+        return results;
     }
 
     @Override
-    public List<ProductDto> findByStatus(String status) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos con estado: '{}'", status);
+    public List<ProductDto> findByCondition(String condition) {
+        log.debug("🔍 Buscando productos con condición: '{}'", condition);
+
+        List<ProductDto> results = find(Criterion.field(ProductField.CONDITION, condition));
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> status.equalsIgnoreCase(product.getStatus()))
-                    .collect(Collectors.toList());
+        log.debug("✅ Encontrados {} productos con condición: '{}'", results.size(), condition);
+        return results;
+    }
+
+    @Override
+    public List<ProductDto> findByStatus(String status) {
+        log.debug("🔍 Buscando productos con estado: '{}'", status);
 
-            log.debug("✅ Encontrados {} productos con estado: '{}'", results.size(), status);
-            return results;
+        List<ProductDto> results = find(Criterion.field(ProductField.STATUS, status));
 
-        } finally {
-            lock.readLock().unlock();
-        }
+        log.debug("✅ Encontrados {} productos con estado: '{}'", results.size(), status);
+        return results;
     }
 
     @Override
     public List<ProductDto> findByCurrency(String currencyId) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos con moneda: '{}'", currencyId);
-
-            List<ProductDto> results = products.stream()
-                    .filter(product -> currencyId.equalsIgnoreCase(product.getCurrencyId()))
-                    .collect(Collectors.toList());
+        log.debug("🔍 Buscando productos con moneda: '{}'", currencyId);
 
-            log.debug("✅ Encontrados {} productos con moneda: '{}'", results.size(), currencyId);
-            return results;
+        List<ProductDto> results = find(Criterion.field(ProductField.CURRENCY, currencyId));
 
-        } finally {
-            lock.readLock().unlock();
-        }
+        log.debug("✅ Encontrados {} productos con moneda: '{}'", results.size(), currencyId);
+        return results;
     }
 
     @Override
     public List<ProductDto> findWithVariations() {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Buscando productos que tienen variaciones");
+        log.debug("🔍 Buscando productos que tienen variaciones");
 
-            List<ProductDto> results = products.stream()
-                    .filter(product -> product.getVariations() != null &&
-                            !product.getVariations().isEmpty())
-                    .collect(Collectors.toList());
+        List<ProductDto> results = find(Criterion.withVariations());
 
-            log.debug("✅ Encontrados {} productos con variaciones", results.size());
-            return results;
-
-        } finally {
-            lock.readLock().unlock();
-        }
+        log.debug("✅ Encontrados {} productos con variaciones", results.size());
+        return results;
     }
 
     @Override
     public List<ProductDto> searchAdvanced(String query, String brand, BigDecimal minPrice,
                                            BigDecimal maxPrice, String condition) {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Búsqueda avanzada - Query: '{}', Marca: '{}', Precio: {}-{}, Condición: '{}'",
-                    query, brand, minPrice, maxPrice, condition);
-
-            List<ProductDto> results = products.stream()
-                    .filter(product -> {
-                        // Filtro por query en título
-                        if (query != null && !query.isBlank()) {
-                            if (product.getTitle() == null ||
-                                    !product.getTitle().toLowerCase().contains(query.toLowerCase())) {
-                                return false;
-                            }
-                        }
-
-                        // Filtro por marca
-                        if (brand != null && !brand.isBlank()) {
-                            if (product.getAttributes() == null) return false;
-                            boolean hasBrand = product.getAttributes().stream()
-                                    .anyMatch(attr -> "BRAND".equals(attr.getId()) &&
-                                            brand.equalsIgnoreCase(attr.getValueName()));
-                            if (!hasBrand) return false;
-                        }
-
-                        // Filtro por rango de precio
-                        if (minPrice != null && (product.getPrice() == null ||
-                                product.getPrice().compareTo(minPrice) < 0)) {
-                            return false;
-                        }
-                        if (maxPrice != null && (product.getPrice() == null ||
-                                product.getPrice().compareTo(maxPrice) > 0)) {
-                            return false;
-                        }
-
-                        // Filtro por condición
-                        if (condition != null && !condition.isBlank()) {
-                            if (!condition.equalsIgnoreCase(product.getCondition())) {
-                                return false;
-                            }
-                        }
-
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-
-            log.debug("✅ Búsqueda avanzada completada. Encontrados {} productos", results.size());
-            return results;
+        log.debug("🔍 Búsqueda avanzada - Query: '{}', Marca: '{}', Precio: {}-{}, Condición: '{}'",
+                query, brand, minPrice, maxPrice, condition);
 
-        } finally {
-            lock.readLock().unlock();
-        }
+        List<ProductDto> results = find(advancedCriterion(query, brand, minPrice, maxPrice, condition));
+
+        log.debug("✅ Búsqueda avanzada completada. Encontrados {} productos", results.size());
+        return results;
     }
 
     @Override
-    public long count() {
-        lock.readLock().lock();
+    public SearchHitsDto search(ProductQuery query) {
+        SearchHitsDto hits = catalog.read(state -> state.search(query));
+
+        log.debug("✅ Consulta completada. {} coincidencias, {} devueltas", hits.getTotal(), hits.getProducts().size());
+        return hits;
+    }
+
+    @Override
+    public long count(Criterion criterion) {
+        return catalog.read(state -> state.count(criterion));
+    }
+
+    @Override
+    public boolean exists(Criterion criterion) {
+        return catalog.read(state -> state.exists(criterion));
+    }
+
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return catalog.read(state -> state.suggest(prefix, limit));
+    }
+
+    @Override
+    public ExchangeRates getExchangeRates() {
+        return catalog.read(CatalogState::exchangeRates);
+    }
+
+    @Override
+    public void updateExchangeRates(ExchangeRates rates) {
+        writeLock.lock();
         try {
-            return products.size();
+            if (rates.equals(getExchangeRates())) {
+                log.debug("💱 Cotizaciones sin cambios, no se recalculan precios");
+                return;
+            }
+            int size = catalog.write(state -> {
+                state.updateExchangeRates(rates);
+                return state.size();
+            }, (state, recalculated) -> state.updateExchangeRates(rates));
+            log.info("💱 Cotizaciones actualizadas ({}), {} precios recalculados", rates.getBase(), size);
         } finally {
-            lock.readLock().unlock();
+            writeLock.unlock();
         }
     }
 
-    @Override
-    public long countByBrand(String brand) {
-        lock.readLock().lock();
+    /**
+     * Releer el archivo de cotizaciones si cambió desde la última carga
+     * Un archivo ilegible o inválido se informa y se siguen usando las cotizaciones anteriores;
+     * se vuelve a intentar en la próxima pasada.
+     */
+    void reloadExchangeRates(Path file) {
         try {
-            return findByBrand(brand).size();
-        } finally {
-            lock.readLock().unlock();
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(ratesModified)) {
+                return;
+            }
+            updateExchangeRates(loadExchangeRates(Optional.of(file.toString())));
+            ratesModified = modified;
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ No se pudieron recargar las cotizaciones de {}: {}", file, e.getMessage());
         }
     }
 
-    @Override
-    public List<String> findAllBrands() {
-        lock.readLock().lock();
+    private static FileTime lastModified(Path file) {
         try {
-            log.debug("🔍 Obteniendo todas las marcas disponibles");
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer " + file, e);
+        }
+    }
 
-            List<String> brands = products.stream()
-                    .filter(product -> product.getAttributes() != null)
-                    .flatMap(product -> product.getAttributes().stream())
-                    .filter(attr -> "BRAND".equals(attr.getId()) && attr.getValueName() != null)
-                    .map(attr -> attr.getValueName())
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
+    private static ExchangeRates loadExchangeRates(Optional<String> file) {
+        try (InputStream input = file.isPresent()
+                ? Files.newInputStream(Path.of(file.get()))
+                : JsonProductRepository.class.getClassLoader().getResourceAsStream(DEFAULT_EXCHANGE_RATES)) {
+            if (input == null) {
+                throw new IllegalStateException("No se pudo encontrar " + DEFAULT_EXCHANGE_RATES);
+            }
+            return ExchangeRates.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al cargar cotizaciones", e);
+        }
+    }
 
-            log.debug("✅ Encontradas {} marcas únicas", brands.size());
-            return brands;
+    private List<ProductDto> find(Criterion criterion) {
+        return search(ProductQuery.of(criterion)).getProducts();
+    }
 
-        } finally {
-            lock.readLock().unlock();
+    private static Criterion advancedCriterion(String query, String brand, BigDecimal minPrice,
+                                               BigDecimal maxPrice, String condition) {
+        List<Criterion> criteria = new ArrayList<>();
+        if (query != null && !query.isBlank()) {
+            criteria.add(Criterion.text(query, false));
+        }
+        if (brand != null && !brand.isBlank()) {
+            criteria.add(Criterion.brand(brand));
+        }
+        if (minPrice != null || maxPrice != null) {
+            criteria.add(Criterion.price(minPrice, maxPrice));
+        }
+        if (condition != null && !condition.isBlank()) {
+            criteria.add(Criterion.field(ProductField.CONDITION, condition));
         }
+        return Criterion.and(criteria);
+    }
+
+    @Override
+    public long count() {
+        return catalog.read(CatalogState::size);
+    }
+
+    @Override
+    public long countByStatus(String status) {
+        return catalog.read(state -> state.statistics().countByStatus(status));
+    }
+
+    @Override
+    public long countWithVariations() {
+        return catalog.read(state -> state.statistics().countWithVariations());
+    }
+
+    @Override
+    public List<String> findAllBrands() {
+        // Vista inmutable mantenida por CatalogStatistics, no requiere recorrer productos
+        return catalog.read(state -> state.statistics().brands());
     }
 
     @Override
     public List<String> findAllCategories() {
-        lock.readLock().lock();
-        try {
-            log.debug("🔍 Obteniendo todas las categorías disponibles");
-
-            List<String> categories = products.stream()
-                    .filter(product -> product.getAttributes() != null)
-                    .flatMap(product -> product.getAttributes().stream())
-                    .filter(attr -> ("FOOTWEAR_TYPE".equals(attr.getId()) ||
-                            "CLOTHING_TYPE".equals(attr.getId()) ||
-                            "MODEL".equals(attr.getId())) &&
-                            attr.getValueName() != null)
-                    .map(attr -> attr.getValueName())
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
-
-            log.debug("✅ Encontradas {} categorías únicas", categories.size());
-            return categories;
+        return catalog.read(state -> state.statistics().categories());
+    }
 
-        } finally {
-            lock.readLock().unlock();
+    @PreDestroy
+    void close() {
+        if (ratesReloader != null) {
+            ratesReloader.shutdownNow();
+        }
+        scanner.close();
+        stock.close();
+        changeFeed.close();
+        if (journal != null) {
+            journal.close();
         }
     }
 
     // Métodos para debugging
     public void printStatistics() {
-        lock.readLock().lock();
-        try {
-            log.info("📊 ESTADÍSTICAS DEL REPOSITORIO JSON:");
-            log.info("═══════════════════════════════════════");
-            log.info("Total productos: {}", count());
-            log.info("Productos activos: {}", findByStatus("active").size());
-            log.info("Productos nuevos: {}", findByCondition("new").size());
-            log.info("Productos con variaciones: {}", findWithVariations().size());
-            log.info("Marcas disponibles: {}", String.join(", ", findAllBrands()));
-            log.info("Categorías disponibles: {}", String.join(", ", findAllCategories()));
-        } finally {
-            lock.readLock().unlock();
-        }
+        log.info("📊 ESTADÍSTICAS DEL REPOSITORIO JSON:");
+        log.info("═══════════════════════════════════════");
+        log.info("Total productos: {}", count());
+        log.info("Productos activos: {}", countByStatus("active"));
+        log.info("Productos nuevos: {}", findByCondition("new").size());
+        log.info("Productos con variaciones: {}", countWithVariations());
+        log.info("Marcas disponibles: {}", String.join(", ", findAllBrands()));
+        log.info("Categorías disponibles: {}", String.join(", ", findAllCategories()));
     }
 
     // Método para obtener productos raw (para debugging)
     public List<ProductDto> getRawProducts() {
-        return List.copyOf(products);
+        return findAll();
     }
-}
\ No newline at end of file
+}
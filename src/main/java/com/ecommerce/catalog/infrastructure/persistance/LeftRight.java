@@ -0,0 +1,78 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Dos copias de un estado mutable con lecturas sin locks (Left-Right)
+ * Los lectores nunca esperan: anuncian su llegada en un contador, leen la copia publicada y
+ * anuncian su salida. El escritor aplica el cambio a la copia que no está publicada, la publica,
+ * espera a que salgan los lectores que todavía usaban la anterior y repite el cambio sobre ella,
+ * así las dos copias vuelven a quedar iguales. Una escritura cuesta el doble y espera lecturas
+ * en curso; una lectura cuesta dos incrementos.
+ * Un solo escritor a la vez: el llamador serializa las escrituras.
+ */
+final class LeftRight<T> {
+
+    private final T left;
+    private final T right;
+    // Copia que usan los lectores que llegan
+    private volatile T readable;
+    // Par de contadores que usan los lectores que llegan; el escritor los alterna para drenar el otro
+    private volatile int versionIndex;
+    private final LongAdder[] arrivals = {new LongAdder(), new LongAdder()};
+    private final LongAdder[] departures = {new LongAdder(), new LongAdder()};
+
+    LeftRight(T left, T right) {
+        this.left = left;
+        this.right = right;
+        this.readable = left;
+    }
+
+    /**
+     * Leer la copia publicada; reader no debe conservar referencias a estado mutable de la copia
+     */
+    <R> R read(Function<T, R> reader) {
+        int index = versionIndex;
+        arrivals[index].increment();
+        try {
+            return reader.apply(readable);
+        } finally {
+            departures[index].increment();
+        }
+    }
+
+    /**
+     * Aplicar un cambio a ambas copias
+     *
+     * @param change aplica el cambio a la copia no publicada y devuelve lo necesario para repetirlo
+     * @param replay repite sobre la otra copia, ya sin lectores, el cambio devuelto por change
+     * @return lo que devolvió change
+     */
+    <R> R write(Function<T, R> change, BiConsumer<T, R> replay) {
+        T standby = readable == left ? right : left;
+        R result = change.apply(standby);
+
+        T previous = readable;
+        readable = standby;
+        int index = versionIndex;
+        awaitReaders(1 - index);
+        versionIndex = 1 - index;
+        awaitReaders(index);
+
+        replay.accept(previous, result);
+        return result;
+    }
+
+    private void awaitReaders(int index) {
+        // Primero las salidas: un lector que llega entre ambas lecturas solo puede sumar llegadas
+        for (int spins = 0; departures[index].sum() != arrivals[index].sum(); spins++) {
+            if (spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import io.vertx.core.Context;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Recorrido de slots que pasa a fork-join cuando hay suficientes slots para amortizarlo
+ * Por debajo del umbral se recorre en el hilo que atiende la consulta. Por encima, el rango
+ * se divide en tareas sobre un ForkJoinPool propio (no el common pool, que comparten los
+ * hilos de request) y cada tarea acumula un resultado parcial que luego se combina.
+ * En el event loop se recorre siempre en el mismo hilo: esperar al pool lo bloquearía.
+ * El llamador debe estar dentro de una lectura del catálogo durante todo el recorrido.
+ */
+class ParallelScanner implements AutoCloseable {
+
+    private static final int MIN_CHUNK = 2048;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int threshold;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param threshold   cantidad de slots a visitar a partir de la cual se paraleliza
+     * @param parallelism hilos del pool; 0 usa la cantidad de procesadores
+     */
+    ParallelScanner(int threshold, int parallelism) {
+        this.threshold = threshold;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism, owner -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            thread.setName("catalog-scan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Reduce los slots candidatos (o todos los de [0, size) si candidates es null)
+     *
+     * @param identity    crea un acumulador vacío por tarea
+     * @param accumulator incorpora un slot al acumulador
+     * @param combiner    combina dos acumuladores parciales y devuelve el resultado
+     */
+    <A> A scan(BitSet candidates, int size, Supplier<A> identity,
+               ObjIntConsumer<A> accumulator, BinaryOperator<A> combiner) {
+        int work = candidates == null ? size : candidates.cardinality();
+        if (work < threshold || parallelism == 1 || Context.isOnEventLoopThread()) {
+            return scanRange(candidates, 0, size, identity, accumulator);
+        }
+        int chunk = Math.max(MIN_CHUNK, size / (parallelism * TASKS_PER_THREAD) + 1);
+        return pool.invoke(new ScanTask<>(candidates, 0, size, chunk, identity, accumulator, combiner));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static <A> A scanRange(BitSet candidates, int from, int to,
+                                   Supplier<A> identity, ObjIntConsumer<A> accumulator) {
+        A partial = identity.get();
+        if (candidates == null) {
+            for (int slot = from; slot < to; slot++) {
+                accumulator.accept(partial, slot);
+            }
+        } else {
+            for (int slot = candidates.nextSetBit(from); slot >= 0 && slot < to; slot = candidates.nextSetBit(slot + 1)) {
+                accumulator.accept(partial, slot);
+            }
+        }
+        return partial;
+    }
+
+    private static final class ScanTask<A> extends RecursiveTask<A> {
+        private final BitSet candidates;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Supplier<A> identity;
+        private final ObjIntConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        ScanTask(BitSet candidates, int from, int to, int chunk, Supplier<A> identity,
+                 ObjIntConsumer<A> accumulator, BinaryOperator<A> combiner) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunk) {
+                return scanRange(candidates, from, to, identity, accumulator);
+            }
+            int mid = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(candidates, from, mid, chunk, identity, accumulator, combiner);
+            ScanTask<A> right = new ScanTask<>(candidates, mid, to, chunk, identity, accumulator, combiner);
+            left.fork();
+            A rightResult = right.compute();
+            // El izquierdo primero: los combinadores que concatenan conservan el orden de slots
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
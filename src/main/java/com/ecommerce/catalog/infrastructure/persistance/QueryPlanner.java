@@ -0,0 +1,292 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.domain.currency.ExchangeRates;
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductField;
+import com.ecommerce.catalog.infrastructure.persistance.index.DiacriticFoldingFilter;
+import com.ecommerce.catalog.infrastructure.persistance.index.InvertedIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.KeywordIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.QueryTerm;
+import com.ecommerce.catalog.infrastructure.persistance.index.RangeIndex;
+import com.ecommerce.catalog.infrastructure.persistance.index.VariationIndex;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Compila un Criterion en un plan de evaluación sobre los índices del repositorio
+ * Cada hoja se resuelve con un índice (claves exactas, rango de precio original o normalizado
+ * a la moneda base, texto o variaciones) y los operadores lógicos combinan BitSets: los AND
+ * evalúan primero la rama más selectiva y cortan en cuanto el resultado queda vacío;
+ * los NOT dentro de un AND se restan.
+ * No es thread-safe: se usa bajo el lock del repositorio.
+ */
+class QueryPlanner {
+
+    static final String VARIATIONS_KEY = "variations";
+
+    private final KeywordIndex keywordIndex;
+    private final RangeIndex priceIndex;
+    private final RangeIndex normalizedPriceIndex;
+    private final Supplier<ExchangeRates> exchangeRates;
+    private final InvertedIndex textIndex;
+    private final VariationIndex variationIndex;
+    private final IntSupplier size;
+
+    QueryPlanner(KeywordIndex keywordIndex, RangeIndex priceIndex, RangeIndex normalizedPriceIndex,
+                 Supplier<ExchangeRates> exchangeRates, InvertedIndex textIndex,
+                 VariationIndex variationIndex, IntSupplier size) {
+        this.keywordIndex = keywordIndex;
+        this.priceIndex = priceIndex;
+        this.normalizedPriceIndex = normalizedPriceIndex;
+        this.exchangeRates = exchangeRates;
+        this.textIndex = textIndex;
+        this.variationIndex = variationIndex;
+        this.size = size;
+    }
+
+    /**
+     * Claves exactas que aporta un producto al KeywordIndex
+     */
+    static Set<String> keysOf(ProductDto product) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (ProductField field : ProductField.values()) {
+            String value = field.getAccessor().apply(product);
+            if (value != null) {
+                keys.add(fieldKey(field, value));
+            }
+        }
+        if (product.getAttributes() != null) {
+            for (AttributeDto attr : product.getAttributes()) {
+                if (attr.getId() != null && attr.getValueName() != null) {
+                    keys.add(attributeKey(attr.getId(), attr.getValueName()));
+                }
+            }
+        }
+        if (product.getVariations() != null && !product.getVariations().isEmpty()) {
+            keys.add(VARIATIONS_KEY);
+        }
+        return keys;
+    }
+
+    static String fieldKey(ProductField field, String value) {
+        return field.name().toLowerCase(Locale.ROOT) + ":" + normalize(value);
+    }
+
+    static String attributeKey(String attributeId, String value) {
+        return "attr:" + attributeId.toUpperCase(Locale.ROOT) + ":" + normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return DiacriticFoldingFilter.fold(value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Plan compilado junto con los términos que participan del ranking por relevancia
+     */
+    record Plan(Node root, List<QueryTerm> rankingTerms) {
+
+        BitSet evaluate() {
+            return root.evaluate();
+        }
+
+        /**
+         * Cantidad de coincidencias; si la estimación de la raíz es exacta no se evalúa nada
+         */
+        long count() {
+            return root.exact() ? root.estimate() : root.evaluate().cardinality();
+        }
+
+        /**
+         * Hay al menos una coincidencia; una cota superior en cero descarta sin evaluar
+         */
+        boolean exists() {
+            if (root.estimate() == 0) {
+                return false;
+            }
+            return root.exact() || !root.evaluate().isEmpty();
+        }
+    }
+
+    Plan compile(Criterion criterion) {
+        List<QueryTerm> rankingTerms = new ArrayList<>();
+        Node root = compile(criterion, false, rankingTerms);
+        return new Plan(root, List.copyOf(new LinkedHashSet<>(rankingTerms)));
+    }
+
+    private Node compile(Criterion criterion, boolean negated, List<QueryTerm> rankingTerms) {
+        if (criterion instanceof Criterion.MatchAll) {
+            return allSlots();
+        }
+        if (criterion instanceof Criterion.Text text) {
+            if (text.query() == null || text.query().isBlank()) {
+                return allSlots();
+            }
+            List<QueryTerm> terms = text.fuzzy()
+                    ? textIndex.fuzzyQueryTerms(text.query())
+                    : textIndex.queryTerms(text.query());
+            if (!negated) {
+                rankingTerms.addAll(terms);
+            }
+            int estimate = terms.stream().mapToInt(term -> textIndex.documentFrequency(term.term())).sum();
+            return leaf(estimate, false, () -> textIndex.matching(terms));
+        }
+        if (criterion instanceof Criterion.FieldEquals field) {
+            return keyword(fieldKey(field.field(), field.value()));
+        }
+        if (criterion instanceof Criterion.AttributeEquals attribute) {
+            return keyword(attributeKey(attribute.attributeId(), attribute.value()));
+        }
+        if (criterion instanceof Criterion.PriceRange range) {
+            if (range.min() == null && range.max() == null) {
+                return allSlots();
+            }
+            return leaf(priceIndex.count(range.min(), range.max()), true,
+                    () -> priceIndex.range(range.min(), range.max()));
+        }
+        if (criterion instanceof Criterion.ConvertedPriceRange range) {
+            if (range.min() == null && range.max() == null) {
+                return allSlots();
+            }
+            // Los extremos se convierten una vez y el rango se resuelve sobre la columna normalizada
+            ExchangeRates rates = exchangeRates.get();
+            String currency = range.currency() == null ? rates.getBase() : range.currency();
+            if (!rates.supports(currency)) {
+                throw new InvalidProductDataException("No hay cotización para la moneda: " + currency);
+            }
+            BigDecimal min = rates.toBase(range.min(), currency);
+            BigDecimal max = rates.toBase(range.max(), currency);
+            return leaf(normalizedPriceIndex.count(min, max), true, () -> normalizedPriceIndex.range(min, max));
+        }
+        if (criterion instanceof Criterion.HasVariations) {
+            return keyword(VARIATIONS_KEY);
+        }
+        if (criterion instanceof Criterion.VariationMatch variation) {
+            // La estimación cuenta variaciones, no productos: no es exacta
+            return leaf(variationIndex.estimate(variation.attributes(), variation.inStock()), false,
+                    () -> variationIndex.matchingSlots(variation.attributes(), variation.inStock()));
+        }
+        if (criterion instanceof Criterion.And and) {
+            List<Node> positive = new ArrayList<>();
+            List<Node> negative = new ArrayList<>();
+            for (Criterion child : and.criteria()) {
+                if (child instanceof Criterion.Not not) {
+                    negative.add(compile(not.criterion(), !negated, rankingTerms));
+                } else {
+                    positive.add(compile(child, negated, rankingTerms));
+                }
+            }
+            return new AndNode(positive.isEmpty() ? List.of(allSlots()) : positive, negative);
+        }
+        if (criterion instanceof Criterion.Or or) {
+            List<Node> children = new ArrayList<>();
+            for (Criterion child : or.criteria()) {
+                children.add(compile(child, negated, rankingTerms));
+            }
+            return new OrNode(children);
+        }
+        if (criterion instanceof Criterion.Not not) {
+            return new AndNode(List.of(allSlots()), List.of(compile(not.criterion(), !negated, rankingTerms)));
+        }
+        throw new IllegalArgumentException("Criterio no soportado: " + criterion);
+    }
+
+    private Node keyword(String key) {
+        return leaf(keywordIndex.cardinality(key), true, () -> (BitSet) keywordIndex.slots(key).clone());
+    }
+
+    private Node allSlots() {
+        int total = size.getAsInt();
+        return leaf(total, true, () -> {
+            BitSet all = new BitSet(total);
+            all.set(0, total);
+            return all;
+        });
+    }
+
+    private static Node leaf(int estimate, boolean exact, Supplier<BitSet> evaluator) {
+        return new Node() {
+            @Override
+            public int estimate() {
+                return estimate;
+            }
+
+            @Override
+            public boolean exact() {
+                return exact;
+            }
+
+            @Override
+            public BitSet evaluate() {
+                return evaluator.get();
+            }
+        };
+    }
+
+    /**
+     * Nodo del plan: estimación de cardinalidad (cota superior) y evaluación a un BitSet nuevo
+     * Una estimación exacta permite contar sin evaluar.
+     */
+    interface Node {
+        int estimate();
+
+        default boolean exact() {
+            return false;
+        }
+
+        BitSet evaluate();
+    }
+
+    private record AndNode(List<Node> positive, List<Node> negative) implements Node {
+
+        AndNode {
+            // Lo más selectivo primero: las intersecciones siguientes trabajan sobre menos bits
+            positive = positive.stream().sorted(Comparator.comparingInt(Node::estimate)).toList();
+        }
+
+        @Override
+        public int estimate() {
+            return positive.get(0).estimate();
+        }
+
+        @Override
+        public BitSet evaluate() {
+            BitSet result = positive.get(0).evaluate();
+            for (int i = 1; i < positive.size() && !result.isEmpty(); i++) {
+                result.and(positive.get(i).evaluate());
+            }
+            for (int i = 0; i < negative.size() && !result.isEmpty(); i++) {
+                result.andNot(negative.get(i).evaluate());
+            }
+            return result;
+        }
+    }
+
+    private record OrNode(List<Node> children) implements Node {
+
+        @Override
+        public int estimate() {
+            return children.stream().mapToInt(Node::estimate).sum();
+        }
+
+        @Override
+        public BitSet evaluate() {
+            BitSet result = new BitSet();
+            for (Node child : children) {
+                result.or(child.evaluate());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.VariationDto;
+import com.ecommerce.catalog.domain.exception.InsufficientStockException;
+import com.ecommerce.catalog.domain.exception.ProductNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Columna de stock por variación con contadores atómicos
+ * Cada variación tiene una celda en segmentos de AtomicIntegerArray; reservar o liberar es un
+ * CAS sobre esa celda, sin lock de producto ni del repositorio, así miles de compradores sobre
+ * la misma variación nunca venden de más y solo compiten por una línea de caché.
+ * La celda es la única fuente del stock de una variación existente: las escrituras de productos
+ * no la cambian y publican su valor. El producto guardado refleja las celdas para lecturas,
+ * filtros y journal: un único hilo vuelca las celdas modificadas a sus productos en lotes, con
+ * una sola publicación para todas las reservas acumuladas y sin avanzar la versión (el stock no
+ * es parte del documento versionado), y confirma juntos a los que esperaban.
+ * Los segmentos nunca se mueven: crecer solo reemplaza el arreglo que los referencia.
+ */
+@Slf4j
+final class StockColumn implements AutoCloseable {
+
+    private static final int SEGMENT_BITS = 10;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<Key, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile AtomicIntegerArray[] segments = new AtomicIntegerArray[0];
+    // Ordinales asignados; solo avanza con el lock de escritura del repositorio
+    private int allocated;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+    private final Function<List<String>, CompletableFuture<Void>> publisher;
+    private final Thread flusher;
+    private final AtomicLong flushes = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param publisher vuelca las celdas de los productos indicados a sus productos y devuelve
+     *                  su confirmación de durabilidad (null si no hay nada que esperar)
+     */
+    StockColumn(Function<List<String>, CompletableFuture<Void>> publisher) {
+        this.publisher = publisher;
+        this.flusher = new Thread(this::run, "catalog-stock-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Sumar delta al stock de la variación si no queda negativo; devuelve el stock resultante
+     * No toma locks: el CAS sobre la celda es el punto en que la reserva se decide.
+     */
+    int adjust(String productId, long variationId, int delta) {
+        Integer ordinal = ordinals.get(new Key(productId, variationId));
+        if (ordinal == null) {
+            throw new ProductNotFoundException("Variación no encontrada: " + variationId + " del producto " + productId);
+        }
+        AtomicIntegerArray segment = segments[ordinal >>> SEGMENT_BITS];
+        int index = ordinal & SEGMENT_MASK;
+        int current;
+        int next;
+        do {
+            current = segment.get(index);
+            next = (int) Math.min(Integer.MAX_VALUE, (long) current + delta);
+            if (next < 0) {
+                throw new InsufficientStockException("Stock insuficiente en la variación " + variationId
+                        + " del producto " + productId + ": quedan " + current + ", se pidieron " + -delta);
+            }
+        } while (!segment.compareAndSet(index, current, next));
+        dirty.add(productId);
+        return next;
+    }
+
+    /**
+     * Pedir que los cambios hechos hasta ahora se vuelquen a los productos
+     * El futuro se completa cuando el lote que los incluye está publicado y es durable.
+     */
+    CompletableFuture<Void> flush() {
+        if (closed) {
+            throw new IllegalStateException("La columna de stock está cerrada");
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        waiting.offer(done);
+        LockSupport.unpark(flusher);
+        return done;
+    }
+
+    /**
+     * Alinear las celdas con una versión escrita por fuera de las reservas
+     * Solo una variación nueva toma su cantidad del producto; la de una existente vive únicamente en
+     * su celda y solo la cambian adjust y sus reservas. Así ninguna escritura, ni siquiera una hecha
+     * desde una copia anterior a un volcado, devuelve unidades ya reservadas: las escrituras
+     * externas publican la cantidad de la celda (ver variationsOf), no la que traen.
+     * Requiere el lock de escritura del repositorio.
+     */
+    void track(ProductDto previous, ProductDto current) {
+        if (previous != null && previous.getVariations() == current.getVariations()) {
+            return;
+        }
+        Set<Long> removed = new HashSet<>();
+        if (previous != null && previous.getVariations() != null) {
+            for (VariationDto variation : previous.getVariations()) {
+                if (variation.getId() != null) {
+                    removed.add(variation.getId());
+                }
+            }
+        }
+        if (current.getVariations() != null) {
+            for (VariationDto variation : current.getVariations()) {
+                if (variation.getId() == null) {
+                    continue;
+                }
+                removed.remove(variation.getId());
+                Key key = new Key(current.getId(), variation.getId());
+                if (!ordinals.containsKey(key)) {
+                    int ordinal = allocate();
+                    cell(ordinal).set(ordinal & SEGMENT_MASK, quantityOf(variation));
+                    ordinals.put(key, ordinal);
+                }
+            }
+        }
+        // Las celdas de variaciones eliminadas no se reutilizan: un reservador en vuelo podría tener su ordinal
+        removed.forEach(id -> ordinals.remove(new Key(current.getId(), id)));
+    }
+
+    /**
+     * Variaciones del producto con el stock de sus celdas; la misma lista si ya coinciden
+     */
+    List<VariationDto> variationsOf(ProductDto product) {
+        List<VariationDto> variations = product.getVariations();
+        if (variations == null) {
+            return null;
+        }
+        List<VariationDto> updated = null;
+        for (int i = 0; i < variations.size(); i++) {
+            VariationDto variation = variations.get(i);
+            Integer ordinal = variation.getId() == null ? null : ordinals.get(new Key(product.getId(), variation.getId()));
+            if (ordinal == null) {
+                continue;
+            }
+            int quantity = cell(ordinal).get(ordinal & SEGMENT_MASK);
+            if (variation.getAvailableQuantity() == null || quantity != variation.getAvailableQuantity()) {
+                if (updated == null) {
+                    updated = new ArrayList<>(variations);
+                }
+                updated.set(i, variation.toBuilder().availableQuantity(quantity).build());
+            }
+        }
+        return updated == null ? variations : List.copyOf(updated);
+    }
+
+    long flushes() {
+        return flushes.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int quantityOf(VariationDto variation) {
+        return variation.getAvailableQuantity() == null ? 0 : Math.max(0, variation.getAvailableQuantity());
+    }
+
+    private AtomicIntegerArray cell(int ordinal) {
+        return segments[ordinal >>> SEGMENT_BITS];
+    }
+
+    private int allocate() {
+        int ordinal = allocated++;
+        int segment = ordinal >>> SEGMENT_BITS;
+        if (segment == segments.length) {
+            AtomicIntegerArray[] grown = Arrays.copyOf(segments, Math.max(4, segments.length * 2));
+            for (int i = segments.length; i < grown.length; i++) {
+                grown[i] = new AtomicIntegerArray(1 << SEGMENT_BITS);
+            }
+            segments = grown;
+        }
+        return ordinal;
+    }
+
+    private void run() {
+        List<CompletableFuture<Void>> batch = new ArrayList<>();
+        while (true) {
+            CompletableFuture<Void> next;
+            while ((next = waiting.poll()) != null) {
+                batch.add(next);
+            }
+            if (!batch.isEmpty()) {
+                publish(batch);
+                batch = new ArrayList<>();
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+    }
+
+    private void publish(List<CompletableFuture<Void>> batch) {
+        // Los marcados antes de encolarse ya están en el conjunto: se toman después de vaciar la cola
+        List<String> ids = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        CompletableFuture<Void> published = null;
+        try {
+            if (!ids.isEmpty()) {
+                published = publisher.apply(ids);
+                flushes.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error al volcar el stock de {} productos", ids.size(), e);
+            // Quedan marcados para el próximo volcado
+            dirty.addAll(ids);
+            published = CompletableFuture.failedFuture(e);
+        }
+        if (published == null) {
+            batch.forEach(done -> done.complete(null));
+            return;
+        }
+        published.whenComplete((ignored, error) -> batch.forEach(done -> {
+            if (error == null) {
+                done.complete(null);
+            } else {
+                done.completeExceptionally(error);
+            }
+        }));
+    }
+
+    private record Key(String productId, long variationId) {
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.catalog.infrastructure.persistance.changes;
+
+import com.ecommerce.catalog.application.dto.ChangeEventDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.enums.ChangeType;
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flujo de cambios del catálogo sobre un buffer circular en memoria
+ * Un único escritor (el repositorio, con su lock de escritura) agrega eventos con secuencia
+ * creciente; cada suscriptor es solo un cursor sobre el mismo arreglo, así los eventos no se
+ * copian por suscriptor. Se entrega lo que cada uno pidió (request(n)): un suscriptor lento no
+ * frena a los demás ni al escritor, y si queda más de un buffer atrás su flujo termina con error
+ * para que retome desde una secuencia vigente. Un hilo despachador reparte los eventos nuevos.
+ * Las secuencias empiezan en 1 en cada arranque del proceso.
+ */
+@Slf4j
+public final class ChangeFeed implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ChangeEventDto[] ring;
+    private final int mask;
+    // Última secuencia publicada; 0 = ninguna
+    private final AtomicLong published = new AtomicLong();
+    private final Set<Cursor> cursors = ConcurrentHashMap.newKeySet();
+    private final Thread dispatcher;
+    private volatile boolean closed;
+
+    public ChangeFeed(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new ChangeEventDto[size];
+        this.mask = size - 1;
+        this.dispatcher = new Thread(this::dispatch, "catalog-change-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Publicar el cambio de previous (null si es un alta) a current
+     * Un solo escritor a la vez: el repositorio llama con su lock de escritura tomado.
+     */
+    public void publish(ProductDto previous, ProductDto current) {
+        long sequence = published.get() + 1;
+        ring[(int) (sequence & mask)] = ChangeEventDto.builder()
+                .sequence(sequence)
+                .type(typeOf(previous, current).getValue())
+                .productId(current.getId())
+                .version(current.getVersion())
+                .stockVersion(current.getStockVersion())
+                .timestamp(LocalDateTime.now())
+                .product(current)
+                .build();
+        // La escritura volátil publica el slot a los lectores
+        published.set(sequence);
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Eventos posteriores a la secuencia indicada; null empieza por el próximo cambio
+     * La secuencia debe seguir en el buffer: si ya se descartó (o es de un arranque anterior)
+     * el cliente tiene que volver a sincronizar el catálogo completo.
+     */
+    public Flow.Publisher<ChangeEventDto> since(Long sequence) {
+        long last = published.get();
+        long after = sequence == null ? last : sequence;
+        if (after < oldest(last) - 1 || after > last) {
+            throw new InvalidProductDataException("La secuencia " + after + " no está disponible; "
+                    + "se puede retomar desde " + (oldest(last) - 1) + " hasta " + last);
+        }
+        return subscriber -> {
+            Cursor cursor = new Cursor(subscriber, after + 1);
+            cursors.add(cursor);
+            subscriber.onSubscribe(cursor);
+            cursor.drain();
+        };
+    }
+
+    public long lastSequence() {
+        return published.get();
+    }
+
+    public int subscribers() {
+        return cursors.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cursors.forEach(Cursor::drain);
+    }
+
+    /**
+     * Clasificar el cambio: precio o estado solo si fue lo único que cambió; stock si no cambió la versión
+     */
+    static ChangeType typeOf(ProductDto previous, ProductDto current) {
+        if (previous == null) {
+            return ChangeType.CREATED;
+        }
+        if (Objects.equals(previous.getVersion(), current.getVersion())
+                && !Objects.equals(previous.getStockVersion(), current.getStockVersion())) {
+            return ChangeType.STOCK_CHANGED;
+        }
+        boolean priceChanged = !Objects.equals(previous.getPrice(), current.getPrice())
+                || !Objects.equals(previous.getCurrencyId(), current.getCurrencyId());
+        boolean statusChanged = !Objects.equals(previous.getStatus(), current.getStatus());
+        if (priceChanged == statusChanged) {
+            return ChangeType.UPDATED;
+        }
+        // Con las sublistas compartidas entre versiones la comparación se resuelve casi siempre por identidad
+        ProductDto rest = previous.toBuilder()
+                .price(current.getPrice())
+                .currencyId(current.getCurrencyId())
+                .status(current.getStatus())
+                .version(current.getVersion())
+                .stockVersion(current.getStockVersion())
+                .lastUpdated(current.getLastUpdated())
+                .build();
+        if (!rest.equals(current)) {
+            return ChangeType.UPDATED;
+        }
+        return priceChanged ? ChangeType.PRICE_CHANGED : ChangeType.STATUS_CHANGED;
+    }
+
+    private long oldest(long last) {
+        return Math.max(1, last - ring.length + 1);
+    }
+
+    private void dispatch() {
+        while (!closed) {
+            long seen = published.get();
+            cursors.forEach(Cursor::drain);
+            if (published.get() == seen) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Posición de un suscriptor en el buffer y lo que tiene pedido
+     * drain() puede llamarse desde el despachador y desde request(); el contador wip
+     * garantiza que un solo hilo emita a la vez, como exige Reactive Streams.
+     */
+    private final class Cursor implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super ChangeEventDto> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private long next;
+        private volatile boolean done;
+        private volatile Throwable invalidRequest;
+
+        Cursor(Flow.Subscriber<? super ChangeEventDto> subscriber, long next) {
+            this.subscriber = subscriber;
+            this.next = next;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("La demanda debe ser positiva: " + n);
+            } else {
+                requested.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            cursors.remove(this);
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (invalidRequest != null) {
+                    terminate(invalidRequest);
+                    return;
+                }
+                long demand = requested.get();
+                long emitted = 0;
+                while (emitted < demand && !done && next <= published.get()) {
+                    ChangeEventDto event = ring[(int) (next & mask)];
+                    if (event.getSequence() != next) {
+                        // El escritor ya reutilizó el slot: el suscriptor quedó más de un buffer atrás
+                        log.warn("⚠️ Suscriptor del flujo de cambios atrasado en la secuencia {}", next);
+                        terminate(new IllegalStateException("El suscriptor quedó atrás: la secuencia " + next
+                                + " ya no está en el buffer, retomar desde una secuencia vigente"));
+                        return;
+                    }
+                    subscriber.onNext(event);
+                    next++;
+                    emitted++;
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                if (closed && !done) {
+                    done = true;
+                    cursors.remove(this);
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(Throwable error) {
+            if (!done) {
+                done = true;
+                cursors.remove(this);
+                subscriber.onError(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cadena de análisis de texto: Tokenizer seguido de filtros aplicados en orden
+ * Se ejecuta una vez al indexar cada producto y una vez por consulta, de modo que
+ * ambos lados comparan términos ya normalizados.
+ */
+public final class Analyzer {
+
+    private static final String SYNONYMS_RESOURCE = "analysis/synonyms_es.txt";
+    private static volatile Analyzer spanish;
+
+    private final List<TokenFilter> filters;
+
+    public Analyzer(List<TokenFilter> filters) {
+        this.filters = List.copyOf(filters);
+    }
+
+    /**
+     * Cadena por defecto del catálogo: minúsculas, sin tildes, sin palabras vacías,
+     * stemming liviano y sinónimos de analysis/synonyms_es.txt
+     */
+    public static Analyzer spanish() {
+        Analyzer analyzer = spanish;
+        if (analyzer == null) {
+            synchronized (Analyzer.class) {
+                if (spanish == null) {
+                    spanish = spanish(loadSynonyms(SYNONYMS_RESOURCE));
+                }
+                analyzer = spanish;
+            }
+        }
+        return analyzer;
+    }
+
+    public static Analyzer spanish(List<List<String>> synonyms) {
+        Analyzer base = new Analyzer(List.of(
+                new LowercaseFilter(),
+                new DiacriticFoldingFilter(),
+                new StopwordFilter(StopwordFilter.SPANISH),
+                new SpanishLightStemFilter()));
+        return base.with(SynonymFilter.of(synonyms, base));
+    }
+
+    /**
+     * Nueva cadena con un filtro adicional al final
+     */
+    public Analyzer with(TokenFilter filter) {
+        List<TokenFilter> extended = new ArrayList<>(filters);
+        extended.add(filter);
+        return new Analyzer(extended);
+    }
+
+    public List<String> analyze(String text) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            String term = token;
+            for (int i = 0; i < filters.size() && term != null; i++) {
+                term = filters.get(i).filter(term);
+            }
+            if (term != null && !term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    static List<List<String>> loadSynonyms(String resource) {
+        try (InputStream input = Analyzer.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                return List.of();
+            }
+            List<List<String>> groups = new ArrayList<>();
+            for (String line : new String(input.readAllBytes(), StandardCharsets.UTF_8).split("\\R")) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                groups.add(Arrays.stream(trimmed.split(","))
+                        .map(String::trim)
+                        .filter(word -> !word.isEmpty())
+                        .toList());
+            }
+            return groups;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al cargar sinónimos de " + resource, e);
+        }
+    }
+}
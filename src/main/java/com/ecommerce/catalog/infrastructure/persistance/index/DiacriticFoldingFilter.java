@@ -0,0 +1,46 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Elimina tildes y diéresis ("Género" → "Genero", "pingüino" → "pinguino")
+ * La ñ se conserva: en español es una letra distinta de la n.
+ */
+public class DiacriticFoldingFilter implements TokenFilter {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    @Override
+    public String filter(String token) {
+        return fold(token);
+    }
+
+    public static String fold(String text) {
+        if (text == null || isAscii(text)) {
+            return text;
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'ñ' || c == 'Ñ') {
+                folded.append(c);
+            } else if (c < 128) {
+                folded.append(c);
+            } else {
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                folded.append(COMBINING_MARKS.matcher(decomposed).replaceAll(""));
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diccionario de términos con índice de borrado simétrico (symmetric delete)
+ * Cada término se registra bajo todas sus variantes con hasta maxDistance borrados;
+ * una consulta genera sus propios borrados y solo verifica la distancia real
+ * contra los pocos términos que comparten variante, nunca contra los productos.
+ */
+public class FuzzyTermDictionary {
+
+    private final int maxDistance;
+    private final Map<String, Set<String>> termsByDelete = new HashMap<>();
+
+    public FuzzyTermDictionary(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    public void add(String term) {
+        for (String variant : deletes(term, maxDistance)) {
+            termsByDelete.computeIfAbsent(variant, key -> new HashSet<>(2)).add(term);
+        }
+    }
+
+    public void remove(String term) {
+        for (String variant : deletes(term, maxDistance)) {
+            Set<String> terms = termsByDelete.get(variant);
+            if (terms == null) continue;
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                termsByDelete.remove(variant);
+            }
+        }
+    }
+
+    /**
+     * Términos del diccionario a distancia de edición menor o igual a distance, con su distancia
+     */
+    public Map<String, Integer> lookup(String term, int distance) {
+        int allowed = Math.min(distance, maxDistance);
+        Map<String, Integer> matches = new HashMap<>();
+        for (String variant : deletes(term, allowed)) {
+            Set<String> candidates = termsByDelete.get(variant);
+            if (candidates == null) continue;
+            for (String candidate : candidates) {
+                if (matches.containsKey(candidate)) continue;
+                int actual = editDistance(term, candidate, allowed);
+                if (actual <= allowed) {
+                    matches.put(candidate, actual);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Variantes del término con hasta n caracteres borrados (incluye el propio término)
+     */
+    static Set<String> deletes(String term, int n) {
+        Set<String> result = new HashSet<>();
+        result.add(term);
+        Set<String> frontier = Set.of(term);
+        for (int level = 0; level < n; level++) {
+            Set<String> next = new HashSet<>();
+            for (String word : frontier) {
+                if (word.length() <= 1) continue;
+                for (int i = 0; i < word.length(); i++) {
+                    String variant = word.substring(0, i) + word.substring(i + 1);
+                    if (result.add(variant)) {
+                        next.add(variant);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein (alineamiento óptimo) con corte temprano
+     * Devuelve limit + 1 en cuanto la distancia supera el límite
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
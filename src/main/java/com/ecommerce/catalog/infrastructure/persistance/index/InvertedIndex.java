@@ -0,0 +1,355 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido sobre título, descripción y valores de atributos
+ * Puntúa con BM25 sobre frecuencias ponderadas por campo (BM25F simplificado)
+ * y recupera el top-K con block-max WAND para no evaluar todos los candidatos.
+ * El diccionario de términos admite expansión difusa por distancia de edición.
+ * Documentos y consultas pasan por el mismo Analyzer.
+ * No es thread-safe: el repositorio lo protege con su propio lock.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+    private static final int MAX_FUZZY_DISTANCE = 2;
+
+    private final Analyzer analyzer;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final FuzzyTermDictionary dictionary = new FuzzyTermDictionary(MAX_FUZZY_DISTANCE);
+    private final List<String[]> termsBySlot = new ArrayList<>();
+    private float[] docLengths = new float[16];
+    private int docCount;
+    private double totalLength;
+
+    public InvertedIndex() {
+        this(Analyzer.spanish());
+    }
+
+    public InvertedIndex(Analyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * Términos ponderados de un documento ya analizado
+     */
+    public record Document(Map<String, Float> frequencies, float length) {
+    }
+
+    /**
+     * Analizar los campos de texto del producto; no toca el índice, así que puede
+     * ejecutarse fuera del lock del repositorio
+     */
+    public Document analyze(ProductDto product) {
+        Map<String, Float> freqs = new HashMap<>();
+        float length = 0f;
+        for (TextField field : TextField.values()) {
+            for (String term : analyzer.analyze(textOf(product, field))) {
+                freqs.merge(term, field.getWeight(), Float::sum);
+                length += field.getWeight();
+            }
+        }
+        return new Document(freqs, length);
+    }
+
+    /**
+     * Indexar (o re-indexar) el producto ubicado en un slot
+     */
+    public void index(int slot, ProductDto product) {
+        index(slot, analyze(product));
+    }
+
+    /**
+     * Indexar (o re-indexar) un documento ya analizado en un slot
+     */
+    public void index(int slot, Document document) {
+        Map<String, Float> freqs = document.frequencies();
+        float length = document.length();
+
+        while (termsBySlot.size() <= slot) {
+            termsBySlot.add(null);
+        }
+        String[] previous = termsBySlot.get(slot);
+        if (previous != null) {
+            for (String term : previous) {
+                if (!freqs.containsKey(term)) {
+                    removePosting(term, slot);
+                }
+            }
+            totalLength -= docLengths[slot];
+            docCount--;
+        }
+
+        if (docLengths.length <= slot) {
+            docLengths = Arrays.copyOf(docLengths, Math.max(slot + 1, docLengths.length * 2));
+        }
+        docLengths[slot] = length;
+        totalLength += length;
+        docCount++;
+
+        for (Map.Entry<String, Float> entry : freqs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> {
+                dictionary.add(term);
+                return new PostingList();
+            }).put(slot, entry.getValue(), docLengths);
+        }
+        termsBySlot.set(slot, freqs.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Términos distintos de una consulta, en el orden en que aparecen
+     */
+    public List<QueryTerm> queryTerms(String query) {
+        return new LinkedHashSet<>(analyzer.analyze(query)).stream()
+                .map(QueryTerm::exact)
+                .toList();
+    }
+
+    /**
+     * Términos de la consulta expandidos a los del diccionario dentro de la distancia
+     * permitida según su largo; las variantes pesan menos cuanto más lejanas son
+     */
+    public List<QueryTerm> fuzzyQueryTerms(String query) {
+        Map<String, Float> boosts = new LinkedHashMap<>();
+        for (String token : new LinkedHashSet<>(analyzer.analyze(query))) {
+            boosts.merge(token, 1.0f, Math::max);
+            for (Map.Entry<String, Integer> match : dictionary.lookup(token, allowedDistance(token)).entrySet()) {
+                boosts.merge(match.getKey(), 1.0f / (1 + match.getValue()), Math::max);
+            }
+        }
+        return boosts.entrySet().stream()
+                .map(entry -> new QueryTerm(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Cantidad de slots que contienen el término
+     */
+    public int documentFrequency(String term) {
+        PostingList list = postings.get(term);
+        return list == null ? 0 : list.size();
+    }
+
+    /**
+     * Slots que contienen al menos uno de los términos
+     */
+    public BitSet matching(List<QueryTerm> terms) {
+        BitSet result = new BitSet();
+        for (QueryTerm term : terms) {
+            PostingList list = postings.get(term.term());
+            if (list == null) continue;
+            for (int position = 0; position < list.size(); position++) {
+                result.set(list.doc(position));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Los k slots con mayor puntaje BM25 que aceptan el filtro, de mayor a menor
+     */
+    public int[] topK(List<QueryTerm> terms, int k, IntPredicate filter) {
+        if (k <= 0 || docCount == 0) {
+            return new int[0];
+        }
+
+        float averageLength = (float) (totalLength / docCount);
+        List<TermCursor> cursorList = new ArrayList<>();
+        for (QueryTerm term : terms) {
+            PostingList list = postings.get(term.term());
+            if (list != null && list.size() > 0) {
+                cursorList.add(new TermCursor(list, term.boost() * idf(list.size()), averageLength));
+            }
+        }
+        TermCursor[] cursors = cursorList.toArray(TermCursor[]::new);
+        Comparator<ScoredDoc> worstFirst = Comparator.comparingDouble(ScoredDoc::score)
+                .thenComparing(Comparator.comparingInt(ScoredDoc::doc).reversed());
+        PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(worstFirst);
+
+        while (true) {
+            Arrays.sort(cursors, Comparator.comparingInt(TermCursor::doc));
+            boolean full = heap.size() >= k;
+            float threshold = full ? heap.peek().score() : -1f;
+
+            // Pivote: primer cursor donde la suma de cotas supera el umbral
+            int pivot = -1;
+            float accumulated = 0f;
+            for (int i = 0; i < cursors.length && cursors[i].doc() != NO_MORE_DOCS; i++) {
+                accumulated += cursors[i].maxScore;
+                if (accumulated > threshold) {
+                    pivot = i;
+                    break;
+                }
+            }
+            if (pivot < 0) {
+                break;
+            }
+            int pivotDoc = cursors[pivot].doc();
+            while (pivot + 1 < cursors.length && cursors[pivot + 1].doc() == pivotDoc) {
+                pivot++;
+            }
+
+            // Cota por bloque: si ni los bloques actuales alcanzan, saltar al siguiente bloque
+            if (full) {
+                float blockBound = 0f;
+                for (int i = 0; i <= pivot; i++) {
+                    blockBound += cursors[i].blockMaxScore(pivotDoc);
+                }
+                if (blockBound <= threshold) {
+                    int next = pivot + 1 < cursors.length ? cursors[pivot + 1].doc() : NO_MORE_DOCS;
+                    for (int i = 0; i <= pivot; i++) {
+                        int blockLastDoc = cursors[i].blockLastDoc();
+                        if (blockLastDoc != NO_MORE_DOCS) {
+                            next = Math.min(next, blockLastDoc + 1);
+                        }
+                    }
+                    for (int i = 0; i <= pivot; i++) {
+                        cursors[i].advanceTo(next);
+                    }
+                    continue;
+                }
+            }
+
+            if (cursors[0].doc() == pivotDoc) {
+                if (filter.test(pivotDoc)) {
+                    float score = 0f;
+                    for (int i = 0; i <= pivot; i++) {
+                        score += cursors[i].score();
+                    }
+                    if (!full) {
+                        heap.add(new ScoredDoc(pivotDoc, score));
+                    } else if (score > threshold) {
+                        heap.poll();
+                        heap.add(new ScoredDoc(pivotDoc, score));
+                    }
+                }
+                for (int i = 0; i <= pivot; i++) {
+                    cursors[i].next();
+                }
+            } else {
+                for (int i = 0; i < pivot; i++) {
+                    cursors[i].advanceTo(pivotDoc);
+                }
+            }
+        }
+
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll().doc();
+        }
+        return result;
+    }
+
+    private void removePosting(String term, int slot) {
+        PostingList list = postings.get(term);
+        if (list == null) return;
+        list.remove(slot, docLengths);
+        if (list.size() == 0) {
+            postings.remove(term);
+            dictionary.remove(term);
+        }
+    }
+
+    private static int allowedDistance(String token) {
+        if (token.length() < 3) return 0;
+        return token.length() <= 5 ? 1 : MAX_FUZZY_DISTANCE;
+    }
+
+    private float idf(int docFreq) {
+        return (float) Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private static float bm25(float idf, float freq, float length, float averageLength) {
+        return idf * freq * (K1 + 1) / (freq + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static String textOf(ProductDto product, TextField field) {
+        return switch (field) {
+            case TITLE -> product.getTitle();
+            case DESCRIPTION -> product.getDescription();
+            case ATTRIBUTES -> product.getAttributes() == null ? null : product.getAttributes().stream()
+                    .map(AttributeDto::getValueName)
+                    .filter(value -> value != null)
+                    .collect(Collectors.joining(" "));
+        };
+    }
+
+    private record ScoredDoc(int doc, float score) {
+    }
+
+    /**
+     * Cursor sobre la lista de postings de un término durante una consulta
+     */
+    private final class TermCursor {
+        private final PostingList list;
+        private final float idf;
+        private final float averageLength;
+        private final float maxScore;
+        private int position;
+        private int block;
+
+        TermCursor(PostingList list, float idf, float averageLength) {
+            this.list = list;
+            this.idf = idf;
+            this.averageLength = averageLength;
+
+            float max = 0f;
+            for (int b = 0; b < list.blockCount(); b++) {
+                max = Math.max(max, bm25(idf, list.blockMaxFreq(b), list.blockMinLength(b), averageLength));
+            }
+            this.maxScore = max;
+        }
+
+        int doc() {
+            return position < list.size() ? list.doc(position) : NO_MORE_DOCS;
+        }
+
+        void next() {
+            position++;
+        }
+
+        void advanceTo(int target) {
+            position = list.advance(position, target);
+        }
+
+        float score() {
+            int doc = list.doc(position);
+            return bm25(idf, list.freq(position), docLengths[doc], averageLength);
+        }
+
+        /**
+         * Cota del puntaje en el bloque que contiene al objetivo (movimiento superficial)
+         */
+        float blockMaxScore(int target) {
+            block = Math.max(block, position / PostingList.BLOCK_SIZE);
+            while (block < list.blockCount() && list.blockLastDoc(block) < target) {
+                block++;
+            }
+            if (block >= list.blockCount()) {
+                return 0f;
+            }
+            return bm25(idf, list.blockMaxFreq(block), list.blockMinLength(block), averageLength);
+        }
+
+        int blockLastDoc() {
+            return block < list.blockCount() ? list.blockLastDoc(block) : NO_MORE_DOCS;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de valores exactos: para cada clave, el conjunto de slots que la tienen
+ * Las claves llegan ya normalizadas ("status:active", "attr:BRAND:nike").
+ * No es thread-safe: el repositorio lo protege con su propio lock.
+ */
+public class KeywordIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final Map<String, BitSet> slotsByKey = new HashMap<>();
+    private final List<Set<String>> keysBySlot = new ArrayList<>();
+
+    /**
+     * Indexar (o re-indexar) las claves del producto ubicado en un slot
+     */
+    public void index(int slot, Collection<String> keys) {
+        while (keysBySlot.size() <= slot) {
+            keysBySlot.add(Set.of());
+        }
+        Set<String> current = Set.copyOf(keys);
+        Set<String> previous = keysBySlot.get(slot);
+
+        for (String key : previous) {
+            if (current.contains(key)) continue;
+            BitSet slots = slotsByKey.get(key);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                slotsByKey.remove(key);
+            }
+        }
+        for (String key : current) {
+            slotsByKey.computeIfAbsent(key, k -> new BitSet()).set(slot);
+        }
+        keysBySlot.set(slot, current);
+    }
+
+    /**
+     * Slots con la clave; el BitSet es interno y no debe modificarse
+     */
+    public BitSet slots(String key) {
+        return slotsByKey.getOrDefault(key, EMPTY);
+    }
+
+    public int cardinality(String key) {
+        BitSet slots = slotsByKey.get(key);
+        return slots == null ? 0 : slots.cardinality();
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.Locale;
+
+/**
+ * Pasa los términos a minúsculas
+ */
+public class LowercaseFilter implements TokenFilter {
+
+    @Override
+    public String filter(String token) {
+        return token.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postings de un término: slots ordenados con su frecuencia ponderada
+ * Mantiene por bloque la frecuencia máxima y la longitud mínima de documento,
+ * que permiten acotar el puntaje BM25 de todo el bloque sin evaluarlo (block-max)
+ */
+public class PostingList {
+
+    static final int BLOCK_SIZE = 64;
+
+    private int[] docs = new int[4];
+    private float[] freqs = new float[4];
+    private int size;
+
+    private float[] blockMaxFreq = new float[1];
+    private float[] blockMinLength = new float[1];
+
+    public int size() {
+        return size;
+    }
+
+    int doc(int position) {
+        return docs[position];
+    }
+
+    float freq(int position) {
+        return freqs[position];
+    }
+
+    int blockCount() {
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    float blockMaxFreq(int block) {
+        return blockMaxFreq[block];
+    }
+
+    float blockMinLength(int block) {
+        return blockMinLength[block];
+    }
+
+    /**
+     * Último slot cubierto por el bloque
+     */
+    int blockLastDoc(int block) {
+        return docs[Math.min(size, (block + 1) * BLOCK_SIZE) - 1];
+    }
+
+    /**
+     * Insertar o reemplazar el posting de un slot manteniendo el orden
+     */
+    void put(int doc, float freq, float[] docLengths) {
+        int position = Arrays.binarySearch(docs, 0, size, doc);
+        if (position >= 0) {
+            // Reemplazo en el lugar: solo cambia su bloque
+            freqs[position] = freq;
+            refreshBlocks(position / BLOCK_SIZE, position / BLOCK_SIZE + 1, docLengths);
+        } else {
+            position = -position - 1;
+            ensureCapacity(size + 1);
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            System.arraycopy(freqs, position, freqs, position + 1, size - position);
+            docs[position] = doc;
+            freqs[position] = freq;
+            size++;
+            refreshBlocks(position / BLOCK_SIZE, blockCount(), docLengths);
+        }
+    }
+
+    void remove(int doc, float[] docLengths) {
+        int position = Arrays.binarySearch(docs, 0, size, doc);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+        System.arraycopy(freqs, position + 1, freqs, position, size - position - 1);
+        size--;
+        refreshBlocks(position / BLOCK_SIZE, blockCount(), docLengths);
+    }
+
+    /**
+     * Primera posición cuyo slot es mayor o igual al objetivo, a partir de from
+     */
+    int advance(int from, int target) {
+        if (from >= size || docs[from] >= target) {
+            return from;
+        }
+        // Galopar y luego búsqueda binaria: los saltos suelen ser cortos
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < size && docs[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        int position = Arrays.binarySearch(docs, low, Math.min(high, size), target);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Recalcular metadatos de los bloques [fromBlock, toBlock)
+     * Un alta o baja desplaza los postings siguientes y hay que recalcular hasta el final; al
+     * construir por slots crecientes se inserta al final y eso es solo el último bloque.
+     */
+    void refreshBlocks(int fromBlock, int toBlock, float[] docLengths) {
+        int blocks = blockCount();
+        if (blockMaxFreq.length < blocks) {
+            int capacity = Math.max(blocks, blockMaxFreq.length * 2);
+            blockMaxFreq = Arrays.copyOf(blockMaxFreq, capacity);
+            blockMinLength = Arrays.copyOf(blockMinLength, capacity);
+        }
+        for (int block = fromBlock; block < Math.min(toBlock, blocks); block++) {
+            int start = block * BLOCK_SIZE;
+            int end = Math.min(size, start + BLOCK_SIZE);
+            float maxFreq = 0f;
+            float minLength = Float.MAX_VALUE;
+            for (int position = start; position < end; position++) {
+                maxFreq = Math.max(maxFreq, freqs[position]);
+                minLength = Math.min(minLength, docLengths[docs[position]]);
+            }
+            blockMaxFreq[block] = maxFreq;
+            blockMinLength[block] = minLength;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (docs.length < capacity) {
+            int newCapacity = Math.max(capacity, docs.length * 2);
+            docs = Arrays.copyOf(docs, newCapacity);
+            freqs = Arrays.copyOf(freqs, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+/**
+ * Término de consulta con su factor de ponderación (menor a 1 para variantes difusas)
+ */
+public record QueryTerm(String term, float boost) {
+
+    public static QueryTerm exact(String term) {
+        return new QueryTerm(term, 1.0f);
+    }
+}
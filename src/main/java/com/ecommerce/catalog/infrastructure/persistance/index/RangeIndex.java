@@ -0,0 +1,86 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice ordenado de un valor numérico: resuelve rangos recorriendo solo los valores distintos
+ * que caen dentro del rango, nunca los productos.
+ * No es thread-safe: el repositorio lo protege con su propio lock.
+ */
+public class RangeIndex {
+
+    private final TreeMap<BigDecimal, BitSet> slotsByValue = new TreeMap<>();
+    private final List<BigDecimal> valueBySlot = new ArrayList<>();
+
+    /**
+     * Indexar (o re-indexar) el valor del producto ubicado en un slot; null no se indexa
+     */
+    public void index(int slot, BigDecimal value) {
+        while (valueBySlot.size() <= slot) {
+            valueBySlot.add(null);
+        }
+        BigDecimal previous = valueBySlot.get(slot);
+        if (previous != null) {
+            BitSet slots = slotsByValue.get(previous);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                slotsByValue.remove(previous);
+            }
+        }
+        // El TreeMap compara con compareTo: 100 y 100.00 caen en la misma clave
+        if (value != null) {
+            slotsByValue.computeIfAbsent(value, k -> new BitSet()).set(slot);
+        }
+        valueBySlot.set(slot, value);
+    }
+
+    /**
+     * Valor indexado para el slot; null si no tiene
+     */
+    public BigDecimal valueAt(int slot) {
+        return slot < valueBySlot.size() ? valueBySlot.get(slot) : null;
+    }
+
+    /**
+     * Slots con valor en [min, max]; un extremo null no acota
+     */
+    public BitSet range(BigDecimal min, BigDecimal max) {
+        BitSet result = new BitSet();
+        for (BitSet slots : subMap(min, max).values()) {
+            result.or(slots);
+        }
+        return result;
+    }
+
+    /**
+     * Cantidad de slots en el rango, sin materializarlos
+     */
+    public int count(BigDecimal min, BigDecimal max) {
+        int count = 0;
+        for (BitSet slots : subMap(min, max).values()) {
+            count += slots.cardinality();
+        }
+        return count;
+    }
+
+    private NavigableMap<BigDecimal, BitSet> subMap(BigDecimal min, BigDecimal max) {
+        if (min != null && max != null) {
+            if (min.compareTo(max) > 0) {
+                return new TreeMap<>();
+            }
+            return slotsByValue.subMap(min, true, max, true);
+        }
+        if (min != null) {
+            return slotsByValue.tailMap(min, true);
+        }
+        if (max != null) {
+            return slotsByValue.headMap(max, true);
+        }
+        return slotsByValue;
+    }
+}
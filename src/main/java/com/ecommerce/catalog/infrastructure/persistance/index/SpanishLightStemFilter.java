@@ -0,0 +1,37 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+/**
+ * Stemming liviano para español: quita plurales y la vocal final de género
+ * ("zapatillas" y "zapatilla" → "zapatill", "negras" → "negr", "luces" → "luz").
+ * Espera términos en minúsculas y sin tildes; las palabras de menos de 5 letras no se tocan.
+ */
+public class SpanishLightStemFilter implements TokenFilter {
+
+    private static final int MIN_LENGTH = 5;
+
+    @Override
+    public String filter(String token) {
+        int length = token.length();
+        if (length < MIN_LENGTH) {
+            return token;
+        }
+
+        char last = token.charAt(length - 1);
+        if (last == 'o' || last == 'a' || last == 'e') {
+            return token.substring(0, length - 1);
+        }
+        if (last == 's') {
+            if (token.endsWith("eses")) {
+                return token.substring(0, length - 2);
+            }
+            if (token.endsWith("ces")) {
+                return token.substring(0, length - 3) + "z";
+            }
+            char vowel = token.charAt(length - 2);
+            if (vowel == 'o' || vowel == 'a' || vowel == 'e') {
+                return token.substring(0, length - 2);
+            }
+        }
+        return token;
+    }
+}
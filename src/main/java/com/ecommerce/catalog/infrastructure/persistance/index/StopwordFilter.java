@@ -0,0 +1,25 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.Set;
+
+/**
+ * Descarta palabras vacías (artículos, preposiciones, conjunciones)
+ */
+public class StopwordFilter implements TokenFilter {
+
+    public static final Set<String> SPANISH = Set.of(
+            "a", "al", "ante", "con", "contra", "de", "del", "desde", "e", "el", "en", "entre",
+            "es", "hacia", "hasta", "la", "las", "lo", "los", "mas", "ni", "o", "para", "por",
+            "que", "se", "sin", "sobre", "su", "sus", "u", "un", "una", "unas", "unos", "y");
+
+    private final Set<String> stopwords;
+
+    public StopwordFilter(Set<String> stopwords) {
+        this.stopwords = Set.copyOf(stopwords);
+    }
+
+    @Override
+    public String filter(String token) {
+        return stopwords.contains(token) ? null : token;
+    }
+}
@@ -0,0 +1,180 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trie de autocompletado con el top-N precalculado en cada nodo
+ * Una consulta baja por el prefijo y devuelve la lista del nodo, sin recorrer productos.
+ * Las escrituras recalculan el top-N solo en el camino afectado y se detienen
+ * en cuanto un nodo no cambia. No es thread-safe: el repositorio lo protege con su lock.
+ */
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_KEY_LENGTH = 40;
+    private static final String TITLE = "title";
+    private static final String BRAND = "brand";
+
+    private static final Comparator<Entry> BY_RELEVANCE = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::text)
+            .thenComparing(entry -> entry.key().type());
+
+    private final Node root = new Node();
+    private final Map<SuggestionKey, Entry> entries = new HashMap<>();
+    private final Map<String, Contribution> contributionsById = new HashMap<>();
+
+    /**
+     * Registrar (o re-registrar) las sugerencias que aporta un producto
+     */
+    public void index(ProductDto product) {
+        Contribution current = Contribution.of(product);
+        Contribution previous = contributionsById.put(product.getId(), current);
+        if (current.equals(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            previous.texts().forEach((key, text) -> adjust(key, text, -previous.weight()));
+        }
+        current.texts().forEach((key, text) -> adjust(key, text, current.weight()));
+    }
+
+    /**
+     * Mejores sugerencias para el prefijo, de mayor a menor popularidad
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        String path = truncate(normalized);
+
+        Node node = root;
+        for (int i = 0; i < path.length() && node != null; i++) {
+            node = node.children.get(path.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        // Más allá del largo indexado el top del nodo es una aproximación: se filtra por el prefijo completo
+        boolean exceedsKey = normalized.length() > path.length();
+        return node.top.stream()
+                .filter(entry -> !exceedsKey || entry.key().normalized().startsWith(normalized))
+                .limit(Math.min(limit, MAX_SUGGESTIONS))
+                .map(entry -> new SuggestionDto(entry.text(), entry.key().type(), entry.weight()))
+                .toList();
+    }
+
+    private void adjust(SuggestionKey key, String text, long delta) {
+        Entry existing = entries.get(key);
+        long weight = (existing == null ? 0 : existing.weight()) + delta;
+
+        Entry updated = null;
+        if (weight > 0) {
+            updated = new Entry(key, existing == null ? text : existing.text(), weight);
+            entries.put(key, updated);
+        } else {
+            entries.remove(key);
+        }
+        updatePath(key, updated);
+    }
+
+    private void updatePath(SuggestionKey key, Entry entry) {
+        String path = truncate(key.normalized());
+        Node[] nodes = new Node[path.length() + 1];
+        nodes[0] = root;
+        for (int i = 0; i < path.length(); i++) {
+            nodes[i + 1] = nodes[i].children.computeIfAbsent(path.charAt(i), c -> new Node());
+        }
+
+        Node leaf = nodes[path.length()];
+        leaf.terminals.removeIf(terminal -> terminal.key().equals(key));
+        if (entry != null) {
+            leaf.terminals.add(entry);
+        }
+
+        for (int depth = path.length(); depth >= 0; depth--) {
+            Node node = nodes[depth];
+            if (depth > 0 && node.terminals.isEmpty() && node.children.isEmpty()) {
+                nodes[depth - 1].children.remove(path.charAt(depth - 1));
+                continue;
+            }
+            List<Entry> top = computeTop(node);
+            if (top.equals(node.top)) {
+                // Los ancestros se derivan de este top: si no cambió, ellos tampoco
+                break;
+            }
+            node.top = top;
+        }
+    }
+
+    private static List<Entry> computeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(BY_RELEVANCE);
+        return List.copyOf(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : DiacriticFoldingFilter.fold(text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+    }
+
+    private static String truncate(String normalized) {
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> terminals = new ArrayList<>(1);
+        private List<Entry> top = List.of();
+    }
+
+    private record SuggestionKey(String type, String normalized) {
+    }
+
+    private record Entry(SuggestionKey key, String text, long weight) {
+    }
+
+    /**
+     * Sugerencias que aporta un producto y su peso: 1 + unidades vendidas, solo si está activo
+     */
+    private record Contribution(Map<SuggestionKey, String> texts, long weight) {
+
+        static Contribution of(ProductDto product) {
+            if (!"active".equalsIgnoreCase(product.getStatus())) {
+                return new Contribution(Map.of(), 0);
+            }
+
+            Set<String> brands = new LinkedHashSet<>();
+            if (product.getAttributes() != null) {
+                for (AttributeDto attr : product.getAttributes()) {
+                    if ("BRAND".equals(attr.getId()) && attr.getValueName() != null && !attr.getValueName().isBlank()) {
+                        brands.add(attr.getValueName().trim());
+                    }
+                }
+            }
+
+            Map<SuggestionKey, String> texts = new HashMap<>();
+            if (product.getTitle() != null && !product.getTitle().isBlank()) {
+                texts.put(new SuggestionKey(TITLE, normalize(product.getTitle())), product.getTitle().trim());
+            }
+            for (String brand : brands) {
+                texts.putIfAbsent(new SuggestionKey(BRAND, normalize(brand)), brand);
+            }
+
+            long sold = product.getSoldQuantity() == null ? 0 : Math.max(0, product.getSoldQuantity());
+            return new Contribution(Map.copyOf(texts), 1 + sold);
+        }
+    }
+}
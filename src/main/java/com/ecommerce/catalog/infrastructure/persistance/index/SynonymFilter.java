@@ -0,0 +1,46 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reemplaza cada término por el representante de su grupo de sinónimos
+ * Se aplica igual al indexar y al consultar, así "tenis" y "zapatillas" comparten posting list
+ * sin duplicar términos en el índice. Solo admite sinónimos de una palabra.
+ */
+public class SynonymFilter implements TokenFilter {
+
+    private final Map<String, String> canonical;
+
+    private SynonymFilter(Map<String, String> canonical) {
+        this.canonical = Map.copyOf(canonical);
+    }
+
+    /**
+     * Construye el filtro pasando cada palabra de los grupos por la cadena previa,
+     * para que el mapa quede expresado en los mismos términos que recibe
+     */
+    public static SynonymFilter of(List<List<String>> groups, Analyzer upstream) {
+        Map<String, String> canonical = new HashMap<>();
+        for (List<String> group : groups) {
+            String representative = null;
+            for (String word : group) {
+                List<String> terms = upstream.analyze(word);
+                if (terms.size() != 1) continue;
+                String term = terms.get(0);
+                if (representative == null) {
+                    representative = term;
+                } else if (!term.equals(representative)) {
+                    canonical.put(term, representative);
+                }
+            }
+        }
+        return new SynonymFilter(canonical);
+    }
+
+    @Override
+    public String filter(String token) {
+        return canonical.getOrDefault(token, token);
+    }
+}
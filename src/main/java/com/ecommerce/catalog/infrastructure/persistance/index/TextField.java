@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Campos de texto indexados y su peso en el puntaje de relevancia
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TextField {
+    TITLE(3.0f),
+    ATTRIBUTES(2.0f),
+    DESCRIPTION(1.0f);
+
+    private final float weight;
+}
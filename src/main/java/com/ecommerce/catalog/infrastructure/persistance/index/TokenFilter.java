@@ -0,0 +1,10 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+/**
+ * Eslabón de la cadena de análisis: transforma un término o lo descarta devolviendo null
+ */
+@FunctionalInterface
+public interface TokenFilter {
+
+    String filter(String token);
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separación de texto en términos (secuencias de letras y dígitos)
+ * La normalización de cada término queda a cargo de los filtros del Analyzer.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeCombinationDto;
+import com.ecommerce.catalog.application.dto.VariationDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice secundario a nivel de variación (talle, color, stock)
+ * Cada variación recibe un ordinal propio; las claves ("color:negro", "talle:42", "in_stock")
+ * apuntan a ordinales, así todas las condiciones se cumplen en la misma variación.
+ * Una consulta intersecta las claves y solo recorre las variaciones que coinciden
+ * para traducirlas al slot de su producto.
+ * No es thread-safe: el repositorio lo protege con su propio lock.
+ */
+public class VariationIndex {
+
+    public static final String IN_STOCK_KEY = "in_stock";
+
+    private final KeywordIndex keys = new KeywordIndex();
+    private final List<int[]> ordinalsBySlot = new ArrayList<>();
+    private final List<Integer> slotByOrdinal = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet liveOrdinals = new BitSet();
+
+    /**
+     * Indexar (o re-indexar) las variaciones del producto ubicado en un slot
+     */
+    public void index(int slot, List<VariationDto> variations) {
+        while (ordinalsBySlot.size() <= slot) {
+            ordinalsBySlot.add(new int[0]);
+        }
+        for (int ordinal : ordinalsBySlot.get(slot)) {
+            keys.index(ordinal, Set.of());
+            liveOrdinals.clear(ordinal);
+            freeOrdinals.push(ordinal);
+        }
+
+        int count = variations == null ? 0 : variations.size();
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            int ordinal = allocate(slot);
+            ordinals[i] = ordinal;
+            keys.index(ordinal, keysOf(variations.get(i)));
+            liveOrdinals.set(ordinal);
+        }
+        ordinalsBySlot.set(slot, ordinals);
+    }
+
+    /**
+     * Slots de productos con alguna variación que cumple todas las condiciones a la vez
+     */
+    public BitSet matchingSlots(Map<String, String> attributes, boolean inStock) {
+        BitSet variations = matchingVariations(attributes, inStock);
+        BitSet slots = new BitSet();
+        for (int ordinal = variations.nextSetBit(0); ordinal >= 0; ordinal = variations.nextSetBit(ordinal + 1)) {
+            slots.set(slotByOrdinal.get(ordinal));
+        }
+        return slots;
+    }
+
+    /**
+     * Cota superior de variaciones que coinciden: la clave menos frecuente
+     */
+    public int estimate(Map<String, String> attributes, boolean inStock) {
+        int estimate = liveOrdinals.cardinality();
+        for (String key : queryKeys(attributes, inStock)) {
+            estimate = Math.min(estimate, keys.cardinality(key));
+        }
+        return estimate;
+    }
+
+    private BitSet matchingVariations(Map<String, String> attributes, boolean inStock) {
+        List<String> queryKeys = queryKeys(attributes, inStock);
+        if (queryKeys.isEmpty()) {
+            return (BitSet) liveOrdinals.clone();
+        }
+        queryKeys.sort((a, b) -> Integer.compare(keys.cardinality(a), keys.cardinality(b)));
+
+        BitSet result = (BitSet) keys.slots(queryKeys.get(0)).clone();
+        for (int i = 1; i < queryKeys.size() && !result.isEmpty(); i++) {
+            result.and(keys.slots(queryKeys.get(i)));
+        }
+        return result;
+    }
+
+    private static List<String> queryKeys(Map<String, String> attributes, boolean inStock) {
+        List<String> queryKeys = new ArrayList<>();
+        if (attributes != null) {
+            attributes.forEach((name, value) -> queryKeys.add(key(name, value)));
+        }
+        if (inStock) {
+            queryKeys.add(IN_STOCK_KEY);
+        }
+        return queryKeys;
+    }
+
+    private int allocate(int slot) {
+        if (!freeOrdinals.isEmpty()) {
+            int ordinal = freeOrdinals.pop();
+            slotByOrdinal.set(ordinal, slot);
+            return ordinal;
+        }
+        slotByOrdinal.add(slot);
+        return slotByOrdinal.size() - 1;
+    }
+
+    private static Set<String> keysOf(VariationDto variation) {
+        Set<String> variationKeys = new LinkedHashSet<>();
+        if (variation.getAttributeCombinations() != null) {
+            for (AttributeCombinationDto combination : variation.getAttributeCombinations()) {
+                if (combination.getName() != null && combination.getValueName() != null) {
+                    variationKeys.add(key(combination.getName(), combination.getValueName()));
+                }
+            }
+        }
+        if (variation.getAvailableQuantity() != null && variation.getAvailableQuantity() > 0) {
+            variationKeys.add(IN_STOCK_KEY);
+        }
+        return variationKeys;
+    }
+
+    static String key(String name, String value) {
+        return normalize(name) + ":" + normalize(value);
+    }
+
+    private static String normalize(String text) {
+        return DiacriticFoldingFilter.fold(text.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.catalog.infrastructure.persistance.journal;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Cuándo se considera durable una escritura del journal
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Durability {
+    // fsync de cada lote antes de confirmar a los escritores: no se pierde nada confirmado
+    BATCH("batch"),
+    // se confirma al escribir al sistema operativo y se hace fsync cada intervalo: se puede perder el último intervalo
+    PERIODIC("periodic"),
+    // se confirma al escribir al sistema operativo y el fsync queda a su criterio: sobrevive a la caída del proceso, no del equipo
+    BUFFERED("buffered");
+
+    private final String value;
+
+    public static Durability fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(durability -> durability.value.equals(value.trim().toLowerCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Modo de durabilidad inválido: " + value
+                        + ". Valores válidos: " + Arrays.stream(values()).map(Durability::getValue)
+                        .collect(Collectors.joining(", "))));
+    }
+}
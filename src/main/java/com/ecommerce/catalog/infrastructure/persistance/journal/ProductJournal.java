@@ -0,0 +1,270 @@
+package com.ecommerce.catalog.infrastructure.persistance.journal;
+
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal de escrituras con group commit
+ * Cada registro es la versión completa de un producto en una línea JSON; al arrancar se
+ * reaplican en orden y gana la última versión de cada id. Los escritores encolan en una cola
+ * sin locks y un único hilo committer toma todo lo pendiente, lo escribe de una vez, hace
+ * (o no) fsync según la durabilidad configurada y confirma juntos a todos los que esperaban:
+ * con muchos escritores concurrentes se paga un fsync por lote, no uno por escritura.
+ * Los productos son inmutables, así que se serializan en el committer sin copiarlos.
+ * Un error de escritura o de fsync deja el journal fallado: lo pendiente y todo append posterior
+ * fallan con el mismo error, así no se escribe nada detrás de un registro que pudo quedar a medias.
+ */
+@Slf4j
+public final class ProductJournal implements AutoCloseable {
+
+    // Tope de pendientes por lote: acota la latencia del primer escritor de un lote grande
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final FileChannel channel;
+    private final ObjectMapper mapper;
+    private final Durability durability;
+    private final long fsyncIntervalNanos;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Thread committer;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private volatile boolean closed;
+    // Primer error de escritura o fsync; a partir de ahí no se acepta ni se escribe nada más
+    private volatile UncheckedIOException failure;
+
+    // Estado del committer: solo lo toca su hilo
+    private boolean dirty;
+    private long lastSync = System.nanoTime();
+
+    private ProductJournal(FileChannel channel, ObjectMapper mapper, Durability durability, long fsyncIntervalMillis) {
+        this.channel = channel;
+        this.mapper = mapper;
+        this.durability = durability;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.committer = new Thread(this::run, "catalog-journal-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Abrir (o crear) el journal para agregar registros al final
+     */
+    public static ProductJournal open(Path file, Durability durability, long fsyncIntervalMillis,
+                                      ObjectMapper mapper) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("📒 Journal abierto en {} (durabilidad {})", file, durability.getValue());
+        return new ProductJournal(channel, mapper, durability, fsyncIntervalMillis);
+    }
+
+    /**
+     * Leer los registros del journal en orden; un archivo inexistente no tiene registros
+     * Una última línea incompleta (caída en medio de una escritura) se descarta.
+     */
+    public static List<ProductDto> replay(Path file, ObjectMapper mapper) throws IOException {
+        List<ProductDto> products = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return products;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (!line.isBlank()) {
+                    try {
+                        products.add(mapper.readValue(line, ProductDto.class));
+                    } catch (JsonProcessingException e) {
+                        if (next != null) {
+                            throw e;
+                        }
+                        log.warn("⚠️ Se descarta el último registro incompleto del journal {}", file);
+                    }
+                }
+                line = next;
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Encolar las versiones nuevas; el futuro se completa cuando son durables según el modo configurado
+     * El orden de llamada es el orden en el journal.
+     * Un append que compite con close nunca queda colgado: o lo escribe el committer, o falla.
+     */
+    public CompletableFuture<Void> append(List<ProductDto> products) {
+        if (products.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ensureWritable();
+        Pending pending = new Pending(products, new CompletableFuture<>());
+        queue.offer(pending);
+        // El committer pudo ver la cola vacía y terminar entre el chequeo y el encolado: si nadie lo tomó, no se escribe
+        if (closed && queue.remove(pending)) {
+            throw new IllegalStateException("El journal está cerrado");
+        }
+        LockSupport.unpark(committer);
+        return pending.done();
+    }
+
+    /**
+     * Verificar que el journal acepta appends: falla si está cerrado o si ya falló una escritura
+     */
+    public void ensureWritable() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IllegalStateException("El journal está cerrado");
+        }
+    }
+
+    /**
+     * Esperar la confirmación de un append, propagando los errores de escritura
+     */
+    public static void await(CompletableFuture<Void> commit) {
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    public long batches() {
+        return batches.get();
+    }
+
+    public long records() {
+        return records.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(committer);
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+            channel.force(false);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("❌ Error al cerrar el journal", e);
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            Pending pending;
+            while (batch.size() < MAX_BATCH && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (!batch.isEmpty()) {
+                if (failure == null) {
+                    commit(batch);
+                } else {
+                    batch.forEach(waiting -> waiting.done().completeExceptionally(failure));
+                }
+                batch.clear();
+                continue;
+            }
+            if (closed) {
+                failPending();
+                return;
+            }
+            syncIfDue();
+            LockSupport.parkNanos(this, durability == Durability.PERIODIC
+                    ? Math.min(IDLE_PARK_NANOS, fsyncIntervalNanos) : IDLE_PARK_NANOS);
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int count = 0;
+            for (Pending pending : batch) {
+                for (ProductDto product : pending.products()) {
+                    buffer.write(mapper.writeValueAsBytes(product));
+                    buffer.write('\n');
+                    count++;
+                }
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            dirty = true;
+            if (durability == Durability.BATCH) {
+                sync();
+            } else {
+                syncIfDue();
+            }
+            batches.incrementAndGet();
+            records.addAndGet(count);
+            batch.forEach(pending -> pending.done().complete(null));
+        } catch (IOException e) {
+            log.error("❌ Error al escribir un lote de {} escrituras en el journal", batch.size(), e);
+            failure = new UncheckedIOException("No se pudo escribir el journal", e);
+            batch.forEach(pending -> pending.done().completeExceptionally(failure));
+        }
+    }
+
+    /**
+     * Fallar lo encolado después de la última vuelta del committer, que ya no se va a escribir
+     */
+    private void failPending() {
+        IllegalStateException failure = new IllegalStateException("El journal está cerrado");
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.done().completeExceptionally(failure);
+        }
+    }
+
+    private void syncIfDue() {
+        if (durability == Durability.PERIODIC && dirty && System.nanoTime() - lastSync >= fsyncIntervalNanos) {
+            try {
+                sync();
+            } catch (IOException e) {
+                log.error("❌ Error en el fsync periódico del journal", e);
+                failure = new UncheckedIOException("No se pudo sincronizar el journal", e);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        dirty = false;
+        lastSync = System.nanoTime();
+    }
+
+    private record Pending(List<ProductDto> products, CompletableFuture<Void> done) {
+    }
+}
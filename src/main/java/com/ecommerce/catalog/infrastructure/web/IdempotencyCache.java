@@ -0,0 +1,151 @@
+package com.ecommerce.catalog.infrastructure.web;
+
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas de altas por Idempotency-Key, para que un reintento no vuelva a crear ni a validar
+ * Cada clave guarda la huella del body con que se usó y el resultado (estado y entidad): un
+ * reintento con el mismo body recibe la misma respuesta, y uno que llega mientras la primera
+ * ejecución sigue en curso espera ese resultado en lugar de ejecutar de nuevo. Un error no se
+ * guarda: los que esperaban lo reciben y el próximo reintento vuelve a ejecutar.
+ * Todas las entradas viven lo mismo y entran a la cola FIFO de descarte recién al completarse, así
+ * esa cola sigue casi el orden de vencimiento y alcanza para descartar las vencidas y acotar la
+ * cantidad. Una ejecución en curso nunca se descarta ni vence (un reintento concurrente volvería a
+ * crear) y una que falla no llega a la cola, que no crece con errores repetidos.
+ */
+@ApplicationScoped
+@Slf4j
+public class IdempotencyCache {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Map.Entry<String, Entry>> order = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Inject
+    public IdempotencyCache(@ConfigProperty(name = "catalog.idempotency.max-entries", defaultValue = "100000")
+                            int maxEntries,
+                            @ConfigProperty(name = "catalog.idempotency.ttl", defaultValue = "PT24H")
+                            Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Ejecutar la acción una sola vez por clave, o devolver (esperándola si hace falta) la respuesta ya obtenida
+     *
+     * @param fingerprint huella del endpoint y el body; la misma clave con otra huella se rechaza
+     */
+    public Response execute(String key, String fingerprint, Supplier<Response> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidProductDataException(IDEMPOTENCY_KEY_HEADER + " no puede superar los "
+                    + MAX_KEY_LENGTH + " caracteres");
+        }
+        Entry fresh = new Entry(fingerprint, new CompletableFuture<>(), clock.getAsLong() + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                break;
+            }
+            if (existing.expired(clock.getAsLong())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new InvalidProductDataException("La " + IDEMPOTENCY_KEY_HEADER + " " + key
+                        + " ya se usó con otro request");
+            }
+            log.info("🔁 Reintento con {} {}: se devuelve la respuesta original", IDEMPOTENCY_KEY_HEADER, key);
+            Stored stored = await(existing.result());
+            return Response.status(stored.status())
+                    .entity(stored.entity())
+                    .header(REPLAYED_HEADER, "true")
+                    .build();
+        }
+
+        Response response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, fresh);
+            fresh.result().completeExceptionally(e);
+            throw e;
+        }
+        fresh.result().complete(new Stored(response.getStatus(), response.getEntity()));
+        order.offer(Map.entry(key, fresh));
+        evict();
+        return response;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int queued() {
+        return order.size();
+    }
+
+    /**
+     * Descartar las entradas vencidas y, si todavía sobran, las completadas más viejas
+     * Las en curso no están en la cola: cuentan para el máximo pero no se descartan.
+     */
+    private void evict() {
+        long now = clock.getAsLong();
+        Map.Entry<String, Entry> oldest;
+        while ((oldest = order.peek()) != null
+                && (oldest.getValue().expired(now) || entries.size() > maxEntries)) {
+            if (order.remove(oldest)) {
+                entries.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+
+    private static Stored await(CompletableFuture<Stored> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Stored> result, long expiresAt) {
+
+        /**
+         * Vencida solo si ya se completó: una ejecución en curso que supera el TTL sigue haciendo esperar
+         * a los reintentos
+         */
+        boolean expired(long now) {
+            return result.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    private record Stored(int status, Object entity) {
+    }
+}
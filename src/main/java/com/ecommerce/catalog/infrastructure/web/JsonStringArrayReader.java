@@ -0,0 +1,70 @@
+package com.ecommerce.catalog.infrastructure.web;
+
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lee un array JSON de strings del body sin materializarlo como List
+ * Cada elemento se entrega al consumidor del Stream a medida que se parsea.
+ */
+final class JsonStringArrayReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private JsonStringArrayReader() {
+    }
+
+    static Stream<String> stream(InputStream body) {
+        JsonParser parser;
+        try {
+            parser = JSON.createParser(body);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new InvalidProductDataException("El body debe ser un array JSON de IDs");
+            }
+        } catch (IOException e) {
+            throw new InvalidProductDataException("JSON inválido: " + e.getMessage());
+        }
+
+        Spliterator<String> elements = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        return false;
+                    }
+                    if (token == JsonToken.VALUE_STRING) {
+                        action.accept(parser.getText());
+                    } else if (token == JsonToken.VALUE_NULL) {
+                        action.accept(null);
+                    } else {
+                        throw new InvalidProductDataException("El array solo puede contener IDs (strings)");
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new InvalidProductDataException("JSON inválido: " + e.getMessage());
+                }
+            }
+        };
+        return StreamSupport.stream(elements, false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
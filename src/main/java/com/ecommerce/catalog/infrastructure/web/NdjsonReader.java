@@ -0,0 +1,54 @@
+package com.ecommerce.catalog.infrastructure.web;
+
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Lee un body NDJSON (un objeto JSON por línea) sin materializarlo
+ * Las líneas se leen a medida que se consume el Stream; cada una se entrega como un Supplier que
+ * la parsea al invocarse, así una línea inválida se informa como error de ese ítem sin cortar
+ * la lectura y el parseo puede hacerse en paralelo con la validación. Las líneas vacías se ignoran.
+ */
+final class NdjsonReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private NdjsonReader() {
+    }
+
+    static <T> Stream<Supplier<T>> stream(InputStream body, ObjectReader reader) {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return lines.lines()
+                .filter(line -> !line.isBlank())
+                .<Supplier<T>>map(line -> () -> parse(line, reader))
+                .onClose(() -> {
+                    try {
+                        lines.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static <T> T parse(String line, ObjectReader reader) {
+        try {
+            T value = reader.readValue(line);
+            if (value == null) {
+                throw new InvalidProductDataException("La línea debe ser un objeto JSON");
+            }
+            return value;
+        } catch (JsonProcessingException e) {
+            throw new InvalidProductDataException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -2,18 +2,46 @@ package com.ecommerce.catalog.infrastructure.web;
 
 import com.ecommerce.catalog.application.dto.*;
 import com.ecommerce.catalog.application.service.ProductService;
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
 import com.ecommerce.catalog.infrastructure.web.dto.request.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controlador REST para gestión de productos
@@ -25,85 +53,263 @@ import java.util.List;
 @Slf4j
 public class ProductController {
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ProductService productService;
 
+    private final ObjectMapper objectMapper;
+
+    private final IdempotencyCache idempotencyCache;
+
     @Inject
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper,
+                             IdempotencyCache idempotencyCache) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.idempotencyCache = idempotencyCache;
     }
 
     // ================================
     // CREATE ENDPOINTS
     // ================================
 
+    /**
+     * Alta de un producto; con Idempotency-Key un reintento devuelve la respuesta original
+     */
     @POST
-    public Response createProduct(@Valid CreateProductRequestDto request) {
+    public Response createProduct(@HeaderParam(IdempotencyCache.IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+                                  @Valid CreateProductRequestDto request) {
         log.info("POST /api/items - Creando producto: {}", request.getTitle());
 
-        ProductDto product = productService.createProduct(request);
+        return idempotent(idempotencyKey, "POST /api/items", request, () -> {
+            ProductDto product = productService.createProduct(request);
 
-        return Response.status(Response.Status.CREATED)
-                .entity(product)
-                .build();
+            return Response.status(Response.Status.CREATED)
+                    .entity(product)
+                    .build();
+        });
     }
 
     @POST
     @Path("/batch")
-    public Response createProductsBatch(@Valid List<CreateProductRequestDto> requests) {
+    public Response createProductsBatch(@HeaderParam(IdempotencyCache.IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+                                        List<CreateProductRequestDto> requests) {
         log.info("POST /api/items/batch - Creando {} productos", requests.size());
 
-        List<ProductDto> products = productService.createProducts(requests);
+        return idempotent(idempotencyKey, "POST /api/items/batch", requests, () -> {
+            // Cada ítem se valida en el servicio para informar errores por ítem sin rechazar el lote
+            BatchOperationResultDto result = productService.createProducts(requests);
 
-        return Response.status(Response.Status.CREATED)
-                .entity(products)
-                .build();
+            // 207 Multi-Status cuando algún ítem falló
+            return Response.status(result.getFailed() == 0 ? Response.Status.CREATED.getStatusCode() : 207)
+                    .entity(result)
+                    .build();
+        });
+    }
+
+    /**
+     * Importación NDJSON: un producto por línea, leído y guardado en micro-lotes
+     * La respuesta también es NDJSON: el resultado de cada ítem a medida que su lote se guarda
+     * y al final una línea con los totales. Un ítem inválido no corta la importación.
+     */
+    @POST
+    @Path("/_import")
+    @Consumes(APPLICATION_NDJSON)
+    @Produces(APPLICATION_NDJSON)
+    public Response importProducts(InputStream body) {
+        log.info("POST /api/items/_import - Importando productos NDJSON");
+
+        StreamingOutput results = output -> {
+            try (Stream<Supplier<CreateProductRequestDto>> items =
+                         NdjsonReader.stream(body, objectMapper.readerFor(CreateProductRequestDto.class))) {
+                BatchOperationResultDto summary = productService.importProducts(items, batch -> {
+                    try {
+                        for (BatchItemResultDto item : batch) {
+                            writeLine(output, item);
+                        }
+                        output.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writeLine(output, summary);
+            }
+        };
+
+        return Response.ok(results).build();
+    }
+
+    /**
+     * Sin Idempotency-Key se ejecuta siempre; con clave, una vez por clave y request
+     * La huella es el endpoint más un SHA-256 del body serializado, así el formato del JSON recibido no importa.
+     */
+    private Response idempotent(String key, String endpoint, Object body, Supplier<Response> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return idempotencyCache.execute(key.trim(), endpoint + ":" + HexFormat.of().formatHex(digest), action);
+        } catch (JsonProcessingException e) {
+            throw new InvalidProductDataException("No se pudo procesar el body: " + e.getOriginalMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write('\n');
     }
 
     // ================================
     // READ ENDPOINTS
     // ================================
 
+    /**
+     * Lecturas sobre el repositorio en memoria: se resuelven en el event loop de Vert.x
+     * Responden en microsegundos, así que pasar a un hilo worker y volver cuesta más que la
+     * lectura. El repositorio las sirve desde la copia publicada del catálogo, sin locks ni
+     * recorridos paralelos en el event loop, así que nunca esperan a una escritura. Las escrituras
+     * siguen en workers: con journal esperan el fsync de su lote.
+     */
     @GET
     @Path("/{id}")
-    public Response getProductById(@PathParam("id") String id) {
-        log.debug("GET /api/items/{} - Obteniendo producto", id);
+    @NonBlocking
+    public Uni<Response> getProductById(@PathParam("id") String id) {
+        return Uni.createFrom().item(() -> {
+            log.debug("GET /api/items/{} - Obteniendo producto", id);
 
-        ProductDto product = productService.getProductById(id);
+            ProductDto product = productService.getProductById(id);
 
-        return Response.ok(product).build();
+            return withETag(Response.ok(product), product).build();
+        });
     }
 
     @GET
-    public Response getAllProducts(
+    @NonBlocking
+    public Uni<Response> getAllProducts(
             @QueryParam("offset") @DefaultValue("0") @Min(0) int offset,
             @QueryParam("limit") @DefaultValue("50") @Min(1) @Max(200) int limit,
             @QueryParam("sort") String sortBy) {
-        log.debug("GET /api/items - Offset: {}, Limit: {}, Sort: {}", offset, limit, sortBy);
+        return Uni.createFrom().item(() -> {
+            log.debug("GET /api/items - Offset: {}, Limit: {}, Sort: {}", offset, limit, sortBy);
 
-        ProductListResponseDto response = productService.getAllProducts(offset, limit, sortBy);
+            ProductListResponseDto response = productService.getAllProducts(offset, limit, sortBy);
 
-        return Response.ok(response).build();
+            return Response.ok(response).build();
+        });
     }
 
     @GET
     @Path("/search")
-    public Response searchProducts(
-            @QueryParam("q") String query,
-            @QueryParam("brand") String brand,
-            @QueryParam("price_min") BigDecimal minPrice,
-            @QueryParam("price_max") BigDecimal maxPrice,
-            @QueryParam("condition") String condition,
-            @QueryParam("offset") @DefaultValue("0") @Min(0) int offset,
-            @QueryParam("limit") @DefaultValue("50") @Min(1) @Max(200) int limit,
-            @QueryParam("sort") String sortBy) {
+    @NonBlocking
+    public Uni<Response> searchProducts(@Valid @BeanParam SearchRequestDto request) {
+        return Uni.createFrom().item(() -> {
+            log.info("GET /api/items/search - Query: '{}', Brand: '{}', Price: {}-{}",
+                    request.getQuery(), request.getBrand(), request.getMinPrice(), request.getMaxPrice());
+
+            ProductListResponseDto response = productService.advancedSearch(request);
+
+            return Response.ok(response).build();
+        });
+    }
 
-        log.info("GET /api/items/search - Query: '{}', Brand: '{}', Price: {}-{}",
-                query, brand, minPrice, maxPrice);
+    /**
+     * Exportación completa de lo que cumple los filtros de /search, sin paginar
+     * Se escribe producto a producto con un JsonGenerator directo a la respuesta, como NDJSON
+     * (por defecto) o como un array JSON, y comprimido con gzip si el cliente lo acepta.
+     */
+    @GET
+    @Path("/_export")
+    @Produces({APPLICATION_NDJSON, MediaType.APPLICATION_JSON})
+    public Response exportProducts(@Valid @BeanParam SearchRequestDto filter,
+                                   @QueryParam("format") @DefaultValue("ndjson") String format,
+                                   @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        log.info("GET /api/items/_export - Format: {}, Query: '{}', Brand: '{}'",
+                format, filter.getQuery(), filter.getBrand());
+
+        boolean array = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> false;
+            case "json" -> true;
+            default -> throw new InvalidProductDataException("Formato de exportación inválido: " + format
+                    + ". Valores válidos: ndjson, json");
+        };
+        boolean gzip = acceptsGzip(acceptEncoding);
+        List<ProductDto> snapshot = productService.exportProducts(filter);
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingOutput body = output -> {
+            OutputStream target = gzip ? new GZIPOutputStream(output, EXPORT_BUFFER_SIZE) : output;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                if (array) {
+                    generator.writeStartArray();
+                }
+                for (ProductDto product : snapshot) {
+                    writer.writeValue(generator, product);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                }
+                if (array) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        Response.ResponseBuilder response = Response.ok(body, array ? MediaType.APPLICATION_JSON : APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
 
-        ProductListResponseDto response = productService.advancedSearch(
-                query, brand, minPrice, maxPrice, condition, offset, limit, sortBy);
+    @GET
+    @Path("/search/count")
+    public Response countProducts(@Valid @BeanParam SearchRequestDto request) {
+        log.debug("GET /api/items/search/count - Query: '{}', Brand: '{}', Price: {}-{}",
+                request.getQuery(), request.getBrand(), request.getMinPrice(), request.getMaxPrice());
 
-        return Response.ok(response).build();
+        long total = productService.countProducts(request);
+
+        return Response.ok(new CountResponseDto(total)).build();
+    }
+
+    @GET
+    @Path("/suggest")
+    public Response getSuggestions(
+            @QueryParam("prefix") String prefix,
+            @QueryParam("limit") @DefaultValue("5") @Min(1) @Max(10) int limit) {
+        log.debug("GET /api/items/suggest - Prefix: '{}', Limit: {}", prefix, limit);
+
+        List<SuggestionDto> suggestions = productService.getSuggestions(prefix, limit);
+
+        return Response.ok(suggestions).build();
+    }
+
+    /**
+     * Flujo de cambios por Server-Sent Events: el id de cada evento es su secuencia
+     * y el nombre su tipo (created, price_changed, status_changed, updated)
+     */
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> streamChanges(
+            @QueryParam("since") Long since,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context Sse sse) {
+        log.info("GET /api/items/changes - Since: {}, Last-Event-ID: {}", since, lastEventId);
+
+        return productService.streamChanges(since, lastEventId)
+                .map(event -> sse.newEventBuilder()
+                        .id(String.valueOf(event.getSequence()))
+                        .name(event.getType())
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(event)
+                        .build());
     }
 
     @GET
@@ -131,11 +337,12 @@ public class ProductController {
     public Response searchByPriceRange(
             @QueryParam("min") BigDecimal minPrice,
             @QueryParam("max") BigDecimal maxPrice,
-            @QueryParam("currency") String currency) {
+            @QueryParam("currency") String currency,
+            @QueryParam("price_currency") String priceCurrency) {
 
-        log.debug("GET /api/items/search/price - Range: {}-{} {}", minPrice, maxPrice, currency);
+        log.debug("GET /api/items/search/price - Range: {}-{} {} (rango en {})", minPrice, maxPrice, currency, priceCurrency);
 
-        List<ProductDto> products = productService.searchByPriceRange(minPrice, maxPrice, currency);
+        List<ProductDto> products = productService.searchByPriceRange(minPrice, maxPrice, currency, priceCurrency);
 
         return Response.ok(products).build();
     }
@@ -148,13 +355,14 @@ public class ProductController {
     @Path("/{id}")
     public Response updateProduct(
             @PathParam("id") String id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @Valid UpdateProductRequestDto request) {
 
         log.info("PUT /api/items/{} - Actualizando producto", id);
 
-        ProductDto product = productService.updateProduct(id, request);
+        ProductDto product = productService.updateProduct(id, request, expectedVersions(ifMatch));
 
-        return Response.ok(product).build();
+        return withETag(Response.ok(product), product).build();
     }
 
     @PUT
@@ -162,26 +370,183 @@ public class ProductController {
     public Response updatePrice(
             @PathParam("id") String id,
             @QueryParam("price") BigDecimal newPrice,
-            @QueryParam("reason") @DefaultValue("Actualización manual") String reason) {
+            @QueryParam("reason") @DefaultValue("Actualización manual") String reason,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
 
         log.info("PUT /api/items/{}/price - Nuevo precio: {}", id, newPrice);
 
-        ProductDto product = productService.updatePrice(id, newPrice, reason);
+        ProductDto product = productService.updatePrice(id, newPrice, reason, expectedVersions(ifMatch));
 
-        return Response.ok(product).build();
+        return withETag(Response.ok(product), product).build();
     }
 
     @PUT
     @Path("/{id}/status")
     public Response updateStatus(
             @PathParam("id") String id,
-            @QueryParam("status") String newStatus) {
+            @QueryParam("status") String newStatus,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
 
         log.info("PUT /api/items/{}/status - Nuevo estado: {}", id, newStatus);
 
-        ProductDto product = productService.updateStatus(id, newStatus);
+        ProductDto product = productService.updateStatus(id, newStatus, expectedVersions(ifMatch));
+
+        return withETag(Response.ok(product), product).build();
+    }
+
+    /**
+     * Reservar stock de una variación; 409 si no alcanza
+     * No lleva body: se acepta cualquier Content-Type.
+     */
+    @POST
+    @Path("/{id}/variations/{variationId}/reserve")
+    @Consumes(MediaType.WILDCARD)
+    public Response reserveStock(
+            @PathParam("id") String id,
+            @PathParam("variationId") Long variationId,
+            @QueryParam("quantity") @DefaultValue("1") int quantity) {
+
+        log.info("POST /api/items/{}/variations/{}/reserve - Cantidad: {}", id, variationId, quantity);
+
+        StockReservationDto reservation = productService.reserveStock(id, variationId, quantity);
+
+        return Response.ok(reservation).build();
+    }
+
+    @POST
+    @Path("/{id}/variations/{variationId}/release")
+    @Consumes(MediaType.WILDCARD)
+    public Response releaseStock(
+            @PathParam("id") String id,
+            @PathParam("variationId") Long variationId,
+            @QueryParam("quantity") @DefaultValue("1") int quantity) {
+
+        log.info("POST /api/items/{}/variations/{}/release - Cantidad: {}", id, variationId, quantity);
+
+        StockReservationDto reservation = productService.releaseStock(id, variationId, quantity);
+
+        return Response.ok(reservation).build();
+    }
+
+    /**
+     * Cambio de estado y/o precio sobre todos los productos que cumplen los filtros de /search
+     */
+    @POST
+    @Path("/_update_by_query")
+    public Response updateByQuery(@Valid @BeanParam SearchRequestDto filter,
+                                  @Valid UpdateByQueryRequestDto operation) {
+        log.info("POST /api/items/_update_by_query - Query: '{}', Brand: '{}', Operación: {}",
+                filter.getQuery(), filter.getBrand(), operation);
+
+        UpdateByQueryResultDto result = productService.updateByQuery(filter, operation);
+
+        return Response.ok(result).build();
+    }
 
-        return Response.ok(product).build();
+    /**
+     * Versiones aceptadas por If-Match: lista de entity-tags separados por coma ("3", "4.2")
+     * If-Match usa comparación fuerte, así que un tag débil (W/"3") nunca coincide y se descarta,
+     * igual que un tag que no es una versión. Sin header o con * no se exige versión (null); si no
+     * queda ningún tag que pueda coincidir el conjunto es vacío y la precondición falla con 412.
+     * Un header que no es una lista de entity-tags se rechaza con 400.
+     * De un tag con versión de stock ("4.2") solo cuenta la versión del documento: las escrituras
+     * nunca cambian el stock, así que una reserva posterior no invalida la precondición.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        int tags = 0;
+        int i = 0;
+        while (i < ifMatch.length()) {
+            char c = ifMatch.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < ifMatch.length() && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0 || (close + 1 < ifMatch.length() && ",\t ".indexOf(ifMatch.charAt(close + 1)) < 0)) {
+                throw new InvalidProductDataException("If-Match inválido: " + ifMatch);
+            }
+            tags++;
+            if (!weak) {
+                Long version = versionOf(ifMatch.substring(open + 1, close));
+                if (version != null) {
+                    versions.add(version);
+                }
+            }
+            i = close + 1;
+        }
+        if (tags == 0) {
+            throw new InvalidProductDataException("If-Match inválido: " + ifMatch);
+        }
+        return versions;
+    }
+
+    private static Long versionOf(String opaqueTag) {
+        int separator = opaqueTag.indexOf('.');
+        try {
+            if (separator >= 0) {
+                Long.parseLong(opaqueTag.substring(separator + 1));
+                return Long.parseLong(opaqueTag.substring(0, separator));
+            }
+            return Long.parseLong(opaqueTag);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Si Accept-Encoding admite gzip según sus q-values: gzip (o x-gzip) con q > 0, o * con q > 0
+     * cuando gzip no aparece explícito. "gzip;q=0" lo rechaza; un q inválido cuenta como 0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                any = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    /**
+     * ETag fuerte del producto: la versión, y la versión de stock si ya se volcaron reservas ("4.2")
+     * Los volcados cambian el cuerpo sin cambiar la versión, así que el tag tiene que distinguirlos.
+     */
+    private static Response.ResponseBuilder withETag(Response.ResponseBuilder response, ProductDto product) {
+        if (product.getVersion() == null) {
+            return response;
+        }
+        Long stockVersion = product.getStockVersion();
+        return response.tag(new EntityTag(stockVersion == null || stockVersion == 0
+                ? String.valueOf(product.getVersion())
+                : product.getVersion() + "." + stockVersion));
     }
 
     // ================================
@@ -204,10 +569,14 @@ public class ProductController {
 
     @DELETE
     @Path("/batch")
-    public Response deleteProductsBatch(List<String> productIds) {
-        log.info("DELETE /api/items/batch - Eliminando {} productos", productIds.size());
+    public Response deleteProductsBatch(InputStream body) {
+        log.info("DELETE /api/items/batch - Eliminando productos en batch");
 
-        BatchOperationResultDto result = productService.deleteProducts(productIds);
+        // Los ids se consumen del body a medida que se parsean
+        BatchOperationResultDto result;
+        try (Stream<String> productIds = JsonStringArrayReader.stream(body)) {
+            result = productService.deleteProducts(productIds);
+        }
 
         return Response.ok(result).build();
     }
@@ -218,12 +587,15 @@ public class ProductController {
 
     @GET
     @Path("/statistics")
-    public Response getStatistics() {
-        log.debug("GET /api/items/statistics - Obteniendo estadísticas");
+    @NonBlocking
+    public Uni<Response> getStatistics() {
+        return Uni.createFrom().item(() -> {
+            log.debug("GET /api/items/statistics - Obteniendo estadísticas");
 
-        ProductStatisticsDto statistics = productService.getStatistics();
+            ProductStatisticsDto statistics = productService.getStatistics();
 
-        return Response.ok(statistics).build();
+            return Response.ok(statistics).build();
+        });
     }
 
     @GET
@@ -245,9 +617,9 @@ public class ProductController {
     public Response getAvailableBrands() {
         log.debug("GET /api/items/brands - Obteniendo marcas disponibles");
 
-        ProductStatisticsDto statistics = productService.getStatistics();
+        List<String> brands = productService.getAvailableBrands();
 
-        return Response.ok(statistics.getBrands()).build();
+        return Response.ok(brands).build();
     }
 
     @GET
@@ -255,8 +627,8 @@ public class ProductController {
     public Response getAvailableCategories() {
         log.debug("GET /api/items/categories - Obteniendo categorías disponibles");
 
-        ProductStatisticsDto statistics = productService.getStatistics();
+        List<String> categories = productService.getAvailableCategories();
 
-        return Response.ok(statistics.getCategories()).build();
+        return Response.ok(categories).build();
     }
 }
\ No newline at end of file
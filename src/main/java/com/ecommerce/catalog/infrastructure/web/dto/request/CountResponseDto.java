@@ -0,0 +1,20 @@
+package com.ecommerce.catalog.infrastructure.web.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para el total de productos que cumplen un conjunto de filtros
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountResponseDto {
+
+    @JsonProperty("total")
+    private long total;
+}
@@ -34,4 +34,7 @@ public class ProductListResponseDto {
 
     @JsonProperty("available_sorts")
     private List<SortResponseDto> availableSorts;
+
+    @JsonProperty("available_filters")
+    private List<AvailableFilterResponseDto> availableFilters;
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.ecommerce.catalog.infrastructure.web.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.QueryParam;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Parámetros de GET /api/items/search
+ * Agrupa los filtros para que sumar uno nuevo no cambie la firma del servicio.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchRequestDto {
+
+    @QueryParam("q")
+    private String query;
+
+    @QueryParam("brand")
+    private String brand;
+
+    @QueryParam("price_min")
+    private BigDecimal minPrice;
+
+    @QueryParam("price_max")
+    private BigDecimal maxPrice;
+
+    /**
+     * Moneda en la que se expresan price_min y price_max; sin valor se usa la moneda base.
+     * El rango se compara contra el precio convertido, así incluye productos en otras monedas
+     */
+    @QueryParam("price_currency")
+    private String priceCurrency;
+
+    @QueryParam("condition")
+    private String condition;
+
+    /**
+     * Filtros por atributo con formato ID:valor (ej: attr=GENDER:Hombre), se combinan con AND
+     */
+    @QueryParam("attr")
+    private List<String> attributes;
+
+    /**
+     * Combinaciones de una misma variación con formato nombre:valor (ej: variation=Talle:42&variation=Color:Negro)
+     */
+    @QueryParam("variation")
+    private List<String> variationAttributes;
+
+    /**
+     * Solo productos con alguna variación (que cumpla los filtros de variación) con stock disponible
+     */
+    @QueryParam("in_stock")
+    @DefaultValue("false")
+    private boolean inStock;
+
+    @QueryParam("offset")
+    @DefaultValue("0")
+    @Min(0)
+    @Builder.Default
+    private int offset = 0;
+
+    @QueryParam("limit")
+    @DefaultValue("50")
+    @Min(1)
+    @Max(200)
+    @Builder.Default
+    private int limit = 50;
+
+    @QueryParam("sort")
+    private String sortBy;
+
+    @QueryParam("fuzzy")
+    @DefaultValue("false")
+    private boolean fuzzy;
+
+    @QueryParam("facets")
+    @DefaultValue("false")
+    private boolean includeFacets;
+
+    @QueryParam("price_buckets")
+    private String priceBuckets;
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.catalog.infrastructure.web.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Operación de POST /api/items/_update_by_query, aplicada a todos los productos del filtro
+ * Admite un cambio de estado y a lo sumo un cambio de precio: valor fijo, porcentaje o monto.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateByQueryRequestDto {
+
+    @JsonProperty("status")
+    @Pattern(regexp = "^(active|paused|closed)$", message = "Estado debe ser: active, paused o closed")
+    private String status;
+
+    @JsonProperty("price")
+    @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
+    @Digits(integer = 10, fraction = 2, message = "El precio debe tener máximo 10 enteros y 2 decimales")
+    private BigDecimal price;
+
+    // Ajuste relativo: -15 baja un 15%, 10 sube un 10%
+    @JsonProperty("price_percent")
+    @DecimalMin(value = "-99.99", message = "El porcentaje no puede bajar el precio a cero o menos")
+    @DecimalMax(value = "1000", message = "El porcentaje no puede superar 1000")
+    private BigDecimal pricePercent;
+
+    // Ajuste fijo en la moneda de cada producto: -500 resta 500, 500 suma 500
+    @JsonProperty("price_amount")
+    @Digits(integer = 10, fraction = 2, message = "El monto debe tener máximo 10 enteros y 2 decimales")
+    private BigDecimal priceAmount;
+}
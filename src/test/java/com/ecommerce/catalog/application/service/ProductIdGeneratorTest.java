@@ -0,0 +1,113 @@
+package com.ecommerce.catalog.application.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Id Generator Tests")
+class ProductIdGeneratorTest {
+
+    private static final long NOW = ProductIdGenerator.EPOCH + 365L * 24 * 60 * 60 * 1000 * 10;
+
+    @Test
+    @DisplayName("Debe componer el id con instante, nodo y secuencia")
+    void shouldComposeTimestampNodeAndSequence() {
+        // Given
+        ProductIdGenerator generator = new ProductIdGenerator(5, () -> NOW);
+
+        // When
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        // Then
+        int shift = ProductIdGenerator.NODE_BITS + ProductIdGenerator.SEQUENCE_BITS;
+        assertEquals(NOW - ProductIdGenerator.EPOCH, first >>> shift);
+        assertEquals(5, (first >>> ProductIdGenerator.SEQUENCE_BITS) & ProductIdGenerator.MAX_NODE_ID);
+        assertEquals(first + 1, second, "Dentro del mismo milisegundo solo avanza la secuencia");
+    }
+
+    @Test
+    @DisplayName("Debe seguir creciendo aunque el reloj retroceda")
+    void shouldStayMonotonicWhenClockMovesBackwards() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        ProductIdGenerator generator = new ProductIdGenerator(1, clock::get);
+
+        // When
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        // Then
+        assertTrue(after > before);
+    }
+
+    @Test
+    @DisplayName("Debe reservar bloques mayores que la secuencia de un milisegundo sin repetir")
+    void shouldReserveBlocksLargerThanOneMillisecond() {
+        // Given
+        ProductIdGenerator generator = new ProductIdGenerator(3, () -> NOW);
+
+        // When
+        long[] block = generator.nextIds(10_000);
+        long next = generator.nextId();
+
+        // Then
+        for (int i = 1; i < block.length; i++) {
+            assertTrue(block[i] > block[i - 1]);
+            assertEquals(3, (block[i] >>> ProductIdGenerator.SEQUENCE_BITS) & ProductIdGenerator.MAX_NODE_ID);
+        }
+        assertTrue(next > block[block.length - 1]);
+    }
+
+    @Test
+    @DisplayName("Debe generar ids únicos desde varios hilos")
+    void shouldGenerateUniqueIdsConcurrently() throws Exception {
+        // Given
+        ProductIdGenerator generator = new ProductIdGenerator(0);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long previous = 0;
+                for (int i = 0; i < perThread; i++) {
+                    long id = generator.nextId();
+                    assertTrue(id > previous, "Cada hilo ve ids crecientes");
+                    ids.add(id);
+                    previous = id;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, ids.size());
+        assertTrue(ids.stream().allMatch(id -> String.valueOf(id).length() == 19));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar ids de nodo fuera de rango")
+    void shouldRejectNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ProductIdGenerator(ProductIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -1,16 +1,26 @@
 package com.ecommerce.catalog.application.service;
 
 import com.ecommerce.catalog.application.dto.*;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductField;
+import com.ecommerce.catalog.domain.query.ProductQuery;
+import com.ecommerce.catalog.domain.query.ProductSort;
 import com.ecommerce.catalog.domain.repository.ProductRepository;
 import com.ecommerce.catalog.domain.exception.*;
+import com.ecommerce.catalog.infrastructure.web.dto.request.AvailableFilterResponseDto;
 import com.ecommerce.catalog.infrastructure.web.dto.request.CreateProductRequestDto;
 import com.ecommerce.catalog.infrastructure.web.dto.request.ProductListResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.SearchRequestDto;
 import com.ecommerce.catalog.infrastructure.web.dto.request.SortResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.UpdateByQueryRequestDto;
 import com.ecommerce.catalog.infrastructure.web.dto.request.UpdateProductRequestDto;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -19,6 +29,11 @@ import jakarta.validation.ConstraintViolation;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -84,7 +99,7 @@ class ProductServiceTest {
     void shouldCreateProductSuccessfully() {
         // Given
         when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
-        when(productRepository.findById(anyString())).thenReturn(Optional.empty());
+        stubSaveWithVersion();
 
         // When
         ProductDto result = productService.createProduct(createRequest);
@@ -99,50 +114,184 @@ class ProductServiceTest {
         assertEquals("active", result.getStatus());
         assertNotNull(result.getDateCreated());
         assertNotNull(result.getLastUpdated());
+        assertEquals(1L, result.getVersion(), "Debe devolver lo guardado, con su versión");
+        verify(productRepository).save(argThat(product -> product.getId().equals(result.getId())
+                && product.getVersion() == null));
     }
 
     @Test
-    @DisplayName("Debe fallar al crear producto con ID duplicado")
-    void shouldFailToCreateProductWithDuplicateId() {
+    @DisplayName("Debe crear productos con ids crecientes sin consultar el repositorio")
+    void shouldCreateProductsWithIncreasingIdsWithoutLookup() {
         // Given
         when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
-        when(productRepository.findById(anyString())).thenReturn(Optional.of(sampleProduct));
+        stubSaveWithVersion();
 
-        // When & Then
-        assertThrows(DuplicateProductException.class, () -> {
-            productService.createProduct(createRequest);
-        });
+        // When
+        String first = productService.createProduct(createRequest).getId();
+        String second = productService.createProduct(createRequest).getId();
+
+        // Then
+        assertTrue(first.matches("MLA\\d{19}"));
+        assertTrue(second.compareTo(first) > 0, "Los ids deben ordenarse por fecha de alta");
+        verify(productRepository, never()).findById(anyString());
     }
 
     @Test
-    @DisplayName("Debe crear múltiples productos en batch")
+    @DisplayName("Debe crear múltiples productos en batch con una sola escritura")
     void shouldCreateMultipleProductsInBatch() {
         // Given
         List<CreateProductRequestDto> requests = Arrays.asList(createRequest, createRequest);
         when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
-        when(productRepository.findById(anyString())).thenReturn(Optional.empty());
 
         // When
-        List<ProductDto> results = productService.createProducts(requests);
+        BatchOperationResultDto result = productService.createProducts(requests);
 
         // Then
-        assertEquals(2, results.size());
-        results.forEach(product -> {
-            assertNotNull(product.getId());
-            assertTrue(product.getId().startsWith("MLA"));
+        assertEquals(2, result.getTotalProcessed());
+        assertEquals(2, result.getSuccessful());
+        assertEquals(0, result.getFailed());
+        result.getItems().forEach(item -> {
+            assertEquals(BatchItemResultDto.CREATED, item.getStatus());
+            assertTrue(item.getId().startsWith("MLA"));
         });
+        assertNotEquals(result.getItems().get(0).getId(), result.getItems().get(1).getId());
+        verify(productRepository).saveAll(argThat(products -> products.size() == 2));
+        verify(productRepository, never()).findById(anyString());
+        verify(productRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("Debe fallar al crear más de 100 productos en batch")
-    void shouldFailToCreateMoreThan100ProductsInBatch() {
+    @DisplayName("Debe informar errores por ítem sin rechazar el batch")
+    void shouldReportPerItemErrorsInBatch() {
         // Given
-        List<CreateProductRequestDto> requests = Collections.nCopies(101, createRequest);
+        CreateProductRequestDto lowPrice = CreateProductRequestDto.builder()
+                .title("Producto barato")
+                .price(new BigDecimal("10"))
+                .currencyId("ARS")
+                .condition("new")
+                .build();
+        List<CreateProductRequestDto> requests = Arrays.asList(createRequest, lowPrice, null);
+        when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
 
-        // When & Then
-        assertThrows(InvalidProductDataException.class, () -> {
-            productService.createProducts(requests);
+        // When
+        BatchOperationResultDto result = productService.createProducts(requests);
+
+        // Then
+        assertEquals(1, result.getSuccessful());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(BatchItemResultDto.CREATED, BatchItemResultDto.ERROR, BatchItemResultDto.ERROR),
+                result.getItems().stream().map(BatchItemResultDto::getStatus).toList());
+        assertEquals(1, result.getItems().get(1).getIndex());
+        assertNull(result.getItems().get(1).getId());
+        assertTrue(result.getItems().get(1).getError().contains("precio mínimo"));
+        verify(productRepository).saveAll(argThat(products -> products.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Debe crear lotes de decenas de miles de productos")
+    void shouldCreateLargeBatches() {
+        // Given
+        int size = 20_000;
+        List<CreateProductRequestDto> requests = Collections.nCopies(size, createRequest);
+        when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
+
+        // When
+        BatchOperationResultDto result = productService.createProducts(requests);
+
+        // Then
+        assertEquals(size, result.getSuccessful());
+        assertEquals(size, result.getItems().stream().map(BatchItemResultDto::getId).distinct().count(),
+                "Los ids del bloque no deben repetirse");
+        verify(productRepository, times(1)).saveAll(argThat(products -> products.size() == size));
+    }
+
+    @Test
+    @DisplayName("Debe importar un flujo en micro-lotes entregando los resultados en orden")
+    void shouldImportStreamInMicroBatches() {
+        // Given
+        int size = ProductService.IMPORT_BATCH_SIZE * 2 + 5;
+        Stream<Supplier<CreateProductRequestDto>> items = IntStream.range(0, size)
+                .mapToObj(i -> i == 3
+                        ? (Supplier<CreateProductRequestDto>) () -> {
+                            throw new InvalidProductDataException("JSON inválido: línea cortada");
+                        }
+                        : (Supplier<CreateProductRequestDto>) () -> createRequest);
+        when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
+        List<List<BatchItemResultDto>> delivered = new ArrayList<>();
+
+        // When
+        BatchOperationResultDto summary = productService.importProducts(items, delivered::add);
+
+        // Then
+        assertEquals(size, summary.getTotalProcessed());
+        assertEquals(size - 1, summary.getSuccessful());
+        assertEquals(1, summary.getFailed());
+        assertNull(summary.getItems(), "El detalle se entrega por lote, no en el resumen");
+        assertEquals(List.of(ProductService.IMPORT_BATCH_SIZE, ProductService.IMPORT_BATCH_SIZE, 5),
+                delivered.stream().map(List::size).toList());
+        List<BatchItemResultDto> all = delivered.stream().flatMap(List::stream).toList();
+        assertEquals(IntStream.range(0, size).boxed().toList(), all.stream().map(BatchItemResultDto::getIndex).toList());
+        assertEquals(BatchItemResultDto.ERROR, all.get(3).getStatus());
+        assertTrue(all.get(3).getError().contains("JSON inválido"));
+        verify(productRepository, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Debe validar y guardar las importaciones en pools propios, fuera del common pool")
+    void shouldImportOnDedicatedPools() {
+        // Given
+        Set<String> validationThreads = ConcurrentHashMap.newKeySet();
+        Set<String> saveThreads = ConcurrentHashMap.newKeySet();
+        when(validator.validate(any(CreateProductRequestDto.class))).thenAnswer(invocation -> {
+            validationThreads.add(Thread.currentThread().getName());
+            return Collections.emptySet();
         });
+        doAnswer(invocation -> saveThreads.add(Thread.currentThread().getName()))
+                .when(productRepository).saveAll(anyList());
+        Stream<Supplier<CreateProductRequestDto>> items = IntStream.range(0, ProductService.IMPORT_BATCH_SIZE)
+                .mapToObj(i -> () -> createRequest);
+
+        // When
+        productService.importProducts(items, batch -> { });
+
+        // Then
+        assertFalse(validationThreads.isEmpty());
+        assertTrue(validationThreads.stream().allMatch(name -> name.startsWith("catalog-validate-")),
+                "La validación en paralelo no debe correr en el common pool: " + validationThreads);
+        assertEquals(1, saveThreads.size());
+        assertTrue(saveThreads.iterator().next().startsWith("catalog-import-save-"),
+                "El guardado en segundo plano no debe correr en el common pool: " + saveThreads);
+    }
+
+    @Test
+    @DisplayName("Debe exportar todas las coincidencias de los filtros sin paginar")
+    void shouldExportAllMatchesWithoutPagination() {
+        // Given
+        SearchRequestDto filter = SearchRequestDto.builder().brand("Nike").sortBy("price_asc").build();
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct), 1));
+
+        // When
+        List<ProductDto> exported = productService.exportProducts(filter);
+
+        // Then
+        assertEquals(List.of(sampleProduct), exported);
+        verify(productRepository).search(argThat(query -> query.getLimit() == null
+                && query.getSort() == ProductSort.PRICE_ASC
+                && query.getCriterion().equals(Criterion.and(List.of(Criterion.brand("Nike"))))));
+    }
+
+    @Test
+    @DisplayName("Debe importar un flujo vacío sin escribir")
+    void shouldImportEmptyStream() {
+        // When
+        List<List<BatchItemResultDto>> delivered = new ArrayList<>();
+        BatchOperationResultDto summary = productService.importProducts(Stream.empty(), delivered::add);
+
+        // Then
+        assertEquals(0, summary.getTotalProcessed());
+        assertTrue(delivered.isEmpty());
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -159,7 +308,6 @@ class ProductServiceTest {
                 .build();
 
         when(validator.validate(any(CreateProductRequestDto.class))).thenReturn(Collections.emptySet());
-        when(productRepository.findById(anyString())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(InvalidProductDataException.class, () -> {
@@ -222,7 +370,7 @@ class ProductServiceTest {
     void shouldGetAllProductsWithPagination() {
         // Given
         List<ProductDto> allProducts = Arrays.asList(sampleProduct, sampleProduct);
-        when(productRepository.findAll()).thenReturn(allProducts);
+        when(productRepository.search(any(ProductQuery.class))).thenReturn(new SearchHitsDto(allProducts, 2));
 
         // When
         ProductListResponseDto result = productService.getAllProducts(0, 10, null);
@@ -276,10 +424,9 @@ class ProductServiceTest {
     void shouldSearchProductsByBrand() {
         // Given
         String brand = "Nike";
-        List<String> availableBrands = Arrays.asList("Nike", "Adidas", "Apple");
         List<ProductDto> expectedProducts = Collections.singletonList(sampleProduct);
 
-        when(productRepository.findAllBrands()).thenReturn(availableBrands);
+        when(productRepository.exists(Criterion.brand(brand))).thenReturn(true);
         when(productRepository.findByBrand(brand)).thenReturn(expectedProducts);
 
         // When
@@ -289,6 +436,7 @@ class ProductServiceTest {
         assertEquals(1, results.size());
         assertEquals(sampleProduct.getId(), results.getFirst().getId());
         verify(productRepository).findByBrand(brand);
+        verify(productRepository, never()).findAllBrands();
     }
 
     @Test
@@ -297,31 +445,56 @@ class ProductServiceTest {
         // Given
         String brand = "NonExistentBrand";
         List<String> availableBrands = Arrays.asList("Nike", "Adidas", "Apple");
+        when(productRepository.exists(Criterion.brand(brand))).thenReturn(false);
         when(productRepository.findAllBrands()).thenReturn(availableBrands);
 
         // When & Then
-        assertThrows(InvalidProductDataException.class, () -> {
+        InvalidProductDataException error = assertThrows(InvalidProductDataException.class, () -> {
             productService.searchByBrand(brand);
         });
+        assertTrue(error.getMessage().contains("Nike, Adidas, Apple"));
+        verify(productRepository, never()).findByBrand(any());
     }
 
     @Test
-    @DisplayName("Debe buscar productos por rango de precio")
+    @DisplayName("Debe buscar productos por rango de precio publicados en la moneda indicada")
     void shouldSearchProductsByPriceRange() {
         // Given
         BigDecimal minPrice = new BigDecimal("50.00");
         BigDecimal maxPrice = new BigDecimal("200.00");
-        String currency = "ARS";
         List<ProductDto> expectedProducts = Collections.singletonList(sampleProduct);
 
-        when(productRepository.findByPriceRange(minPrice, maxPrice)).thenReturn(expectedProducts);
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(expectedProducts, 1));
 
         // When
-        List<ProductDto> results = productService.searchByPriceRange(minPrice, maxPrice, currency);
+        List<ProductDto> results = productService.searchByPriceRange(minPrice, maxPrice, "USD");
 
         // Then
         assertEquals(1, results.size());
-        verify(productRepository).findByPriceRange(minPrice, maxPrice);
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(Criterion.and(Criterion.price(minPrice, maxPrice), Criterion.field(ProductField.CURRENCY, "USD")),
+                captor.getValue().getCriterion());
+        verify(productRepository, never()).findByPriceRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe buscar por rango expresado en otra moneda entre todas las monedas")
+    void shouldSearchProductsByPriceRangeInCurrency() {
+        // Given
+        BigDecimal minPrice = new BigDecimal("50.00");
+        BigDecimal maxPrice = new BigDecimal("200.00");
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct), 1));
+
+        // When
+        productService.searchByPriceRange(minPrice, maxPrice, null, "USD");
+
+        // Then
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(Criterion.priceIn(minPrice, maxPrice, "USD"), captor.getValue().getCriterion());
     }
 
     @Test
@@ -365,9 +538,8 @@ class ProductServiceTest {
         int limit = 10;
         String sortBy = "price_asc";
 
-        List<ProductDto> expectedProducts = Collections.singletonList(sampleProduct);
-        when(productRepository.searchAdvanced(query, brand, minPrice, maxPrice, condition))
-                .thenReturn(expectedProducts);
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct), 1));
 
         // When
         ProductListResponseDto result = productService.advancedSearch(
@@ -380,6 +552,184 @@ class ProductServiceTest {
         assertNotNull(result.getPaging());
         assertEquals(1, result.getPaging().getTotal());
         assertEquals("MLA", result.getSiteId());
+        assertNull(result.getAvailableFilters());
+
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(ProductSort.PRICE_ASC, captor.getValue().getSort());
+        assertEquals(10, captor.getValue().getLimit());
+        assertEquals(Criterion.and(
+                Criterion.text(query, false),
+                Criterion.brand(brand),
+                Criterion.priceIn(minPrice, maxPrice, null),
+                Criterion.field(ProductField.CONDITION, condition)), captor.getValue().getCriterion());
+    }
+
+    @Test
+    @DisplayName("Debe contar productos sin construir la lista de resultados")
+    void shouldCountProductsWithoutSearching() {
+        // Given
+        SearchRequestDto request = SearchRequestDto.builder()
+                .brand("Nike")
+                .condition("new")
+                .build();
+        when(productRepository.count(any(Criterion.class))).thenReturn(2L);
+
+        // When
+        long total = productService.countProducts(request);
+
+        // Then
+        assertEquals(2L, total);
+        verify(productRepository).count(Criterion.and(
+                Criterion.brand("Nike"),
+                Criterion.field(ProductField.CONDITION, "new")));
+        verify(productRepository, never()).search(any());
+    }
+
+    @Test
+    @DisplayName("Debe combinar filtros por atributo en la consulta")
+    void shouldCombineAttributeFilters() {
+        // Given
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(), 0));
+        SearchRequestDto request = SearchRequestDto.builder()
+                .attributes(List.of("GENDER:Hombre", "MATERIAL: Sintético"))
+                .build();
+
+        // When
+        productService.advancedSearch(request);
+
+        // Then
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(Criterion.and(
+                Criterion.attribute("GENDER", "Hombre"),
+                Criterion.attribute("MATERIAL", "Sintético")), captor.getValue().getCriterion());
+        assertNull(captor.getValue().getSort());
+    }
+
+    @Test
+    @DisplayName("Debe traducir filtros de variación a una condición sobre la misma variación")
+    void shouldCombineVariationFilters() {
+        // Given
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(), 0));
+        SearchRequestDto request = SearchRequestDto.builder()
+                .variationAttributes(List.of("Talle:42", "Color:Negro"))
+                .inStock(true)
+                .build();
+
+        // When
+        productService.advancedSearch(request);
+
+        // Then
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(Criterion.variation(Map.of("talle", "42", "color", "Negro"), true),
+                captor.getValue().getCriterion());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar filtros de variación repetidos")
+    void shouldRejectRepeatedVariationFilters() {
+        SearchRequestDto request = SearchRequestDto.builder()
+                .variationAttributes(List.of("Color:Negro", "color:Blanco"))
+                .build();
+
+        assertThrows(InvalidProductDataException.class, () -> productService.advancedSearch(request));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar filtros por atributo mal formados")
+    void shouldRejectMalformedAttributeFilters() {
+        SearchRequestDto request = SearchRequestDto.builder().attributes(List.of("GENDER")).build();
+
+        assertThrows(InvalidProductDataException.class, () -> productService.advancedSearch(request));
+        verify(productRepository, never()).search(any());
+    }
+
+    @Test
+    @DisplayName("Debe incluir facetas con conteos cuando se solicitan")
+    void shouldIncludeFacetsWhenRequested() {
+        // Given
+        SearchFacetsDto facets = SearchFacetsDto.builder()
+                .brands(Map.of())
+                .conditions(Map.of("new", 1L))
+                .currencies(Map.of("ARS", 1L))
+                .priceBoundaries(List.of(new BigDecimal("50"), new BigDecimal("500")))
+                .priceBucketCounts(List.of(0L, 1L, 0L))
+                .build();
+        when(productRepository.search(argThat(query -> query.getFacetPriceBoundaries() != null)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct), 1, facets));
+
+        // When
+        ProductListResponseDto result = productService.advancedSearch(SearchRequestDto.builder()
+                .includeFacets(true)
+                .priceBuckets("50,500")
+                .build());
+
+        // Then
+        assertNotNull(result.getAvailableFilters());
+        assertEquals(List.of("brand", "condition", "currency", "price"),
+                result.getAvailableFilters().stream().map(AvailableFilterResponseDto::getId).toList());
+
+        AvailableFilterResponseDto condition = result.getAvailableFilters().get(1);
+        assertEquals("new", condition.getValues().get(0).getId());
+        assertEquals(1L, condition.getValues().get(0).getResults());
+
+        AvailableFilterResponseDto price = result.getAvailableFilters().get(3);
+        assertEquals(1, price.getValues().size());
+        assertEquals("50-500", price.getValues().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debe pedir al repositorio solo los resultados hasta offset + limit")
+    void shouldUseRelevanceRanking() {
+        // Given
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct, sampleProduct), 25));
+
+        // When
+        ProductListResponseDto result = productService.advancedSearch(
+                "test", null, null, null, null, 1, 10, "relevance");
+
+        // Then
+        assertEquals(1, result.getResults().size());
+        assertEquals(25, result.getPaging().getTotal());
+        assertTrue(result.getSort().getActive());
+
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(ProductSort.RELEVANCE, captor.getValue().getSort());
+        assertEquals(11, captor.getValue().getLimit());
+    }
+
+    @Test
+    @DisplayName("Debe ordenar por relevancia cuando hay texto y no se pide orden")
+    void shouldDefaultToRelevanceWhenQueryHasText() {
+        // Given
+        when(productRepository.search(any(ProductQuery.class)))
+                .thenReturn(new SearchHitsDto(List.of(sampleProduct), 1));
+
+        // When
+        ProductListResponseDto result = productService.advancedSearch(
+                "zapatillas", null, null, null, null, 0, 10, null);
+
+        // Then
+        ArgumentCaptor<ProductQuery> captor = ArgumentCaptor.forClass(ProductQuery.class);
+        verify(productRepository).search(captor.capture());
+        assertEquals(ProductSort.RELEVANCE, captor.getValue().getSort());
+        assertEquals("relevance", result.getSort().getId());
+    }
+
+    @Test
+    @DisplayName("Debe fallar con rangos de precio inválidos para facetas")
+    void shouldFailWithInvalidPriceBuckets() {
+        assertThrows(InvalidProductDataException.class, () ->
+                productService.advancedSearch(SearchRequestDto.builder()
+                        .includeFacets(true)
+                        .priceBuckets("10,abc")
+                        .build()));
     }
 
     @Test
@@ -427,6 +777,8 @@ class ProductServiceTest {
         String productId = "MLA1234567890";
         when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
         when(validator.validate(any(UpdateProductRequestDto.class))).thenReturn(Collections.emptySet());
+        when(productRepository.saveIfVersion(any(ProductDto.class), anyLong()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
 
         // When
         ProductDto result = productService.updateProduct(productId, updateRequest);
@@ -438,6 +790,76 @@ class ProductServiceTest {
         assertNotNull(result.getLastUpdated());
     }
 
+    @Test
+    @DisplayName("Debe rechazar la actualización si la versión esperada no es la actual")
+    void shouldRejectUpdateWithStaleVersion() {
+        // Given
+        String productId = "MLA1234567890";
+        sampleProduct = sampleProduct.toBuilder().version(5L).build();
+        when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+
+        // When & Then
+        assertThrows(ProductVersionConflictException.class, () ->
+                productService.updatePrice(productId, new BigDecimal("180.00"), "Promo", Set.of(4L)));
+        verify(productRepository, never()).saveIfVersion(any(), anyLong());
+        assertEquals(new BigDecimal("100.00"), sampleProduct.getPrice());
+    }
+
+    @Test
+    @DisplayName("Debe reintentar sobre la versión más reciente cuando el compare-and-swap falla")
+    void shouldRetryUnconditionalUpdateOnConflict() {
+        // Given
+        String productId = "MLA1234567890";
+        ProductDto concurrent = sampleProduct.toBuilder().version(2L).title("Cambiado por otro").build();
+        sampleProduct = sampleProduct.toBuilder().version(1L).build();
+        when(productRepository.findById(productId))
+                .thenReturn(Optional.of(sampleProduct))
+                .thenReturn(Optional.of(concurrent));
+        when(productRepository.saveIfVersion(any(ProductDto.class), eq(1L))).thenReturn(Optional.empty());
+        when(productRepository.saveIfVersion(any(ProductDto.class), eq(2L)))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+
+        // When
+        ProductDto result = productService.updatePrice(productId, new BigDecimal("180.00"), "Promo");
+
+        // Then
+        assertEquals(new BigDecimal("180.00"), result.getPrice());
+        assertEquals("Cambiado por otro", result.getTitle(), "El reintento parte de la versión concurrente");
+    }
+
+    @Test
+    @DisplayName("Debe informar conflicto si el compare-and-swap falla con versión esperada")
+    void shouldFailConditionalUpdateWhenVersionChangesConcurrently() {
+        // Given
+        String productId = "MLA1234567890";
+        sampleProduct = sampleProduct.toBuilder().version(1L).build();
+        when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.saveIfVersion(any(ProductDto.class), eq(1L))).thenReturn(Optional.empty());
+
+        // When & Then
+        ProductVersionConflictException exception = assertThrows(ProductVersionConflictException.class, () ->
+                productService.updateStatus(productId, "paused", Set.of(1L)));
+        assertTrue(exception.isPrecondition(), "Con If-Match el conflicto es una precondición fallida");
+    }
+
+    @Test
+    @DisplayName("Debe informar conflicto sin precondición al agotar los reintentos sin versión esperada")
+    void shouldReportConflictWithoutPreconditionWhenRetriesRunOut() {
+        // Given
+        String productId = "MLA1234567890";
+        sampleProduct = sampleProduct.toBuilder().version(1L).build();
+        when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.saveIfVersion(any(ProductDto.class), eq(1L))).thenReturn(Optional.empty());
+
+        // When
+        ProductVersionConflictException exception = assertThrows(ProductVersionConflictException.class, () ->
+                productService.updateStatus(productId, "paused"));
+
+        // Then
+        assertFalse(exception.isPrecondition(), "Sin If-Match no hubo precondición: se responde 409");
+        verify(productRepository, times(ProductService.MAX_UPDATE_ATTEMPTS)).saveIfVersion(any(ProductDto.class), eq(1L));
+    }
+
     @Test
     @DisplayName("Debe actualizar precio específico")
     void shouldUpdateSpecificPrice() {
@@ -447,6 +869,8 @@ class ProductServiceTest {
         String reason = "Promoción especial";
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.saveIfVersion(any(ProductDto.class), anyLong()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
 
         // When
         ProductDto result = productService.updatePrice(productId, newPrice, reason);
@@ -487,6 +911,8 @@ class ProductServiceTest {
         String newStatus = "paused";
 
         when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.saveIfVersion(any(ProductDto.class), anyLong()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
 
         // When
         ProductDto result = productService.updateStatus(productId, newStatus);
@@ -529,6 +955,79 @@ class ProductServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("Debe ajustar precios por consulta en una sola escritura e informar conteos")
+    void shouldAdjustPricesByQuery() {
+        // Given
+        ProductDto cheap = sampleProduct.toBuilder().id("MLA1").price(new BigDecimal("1000.00")).build();
+        ProductDto closed = sampleProduct.toBuilder().id("MLA2").status("closed").build();
+        ProductDto paused = sampleProduct.toBuilder().id("MLA3").status("paused").build();
+        when(productRepository.updateWhere(any(Criterion.class), any())).thenAnswer(invocation -> {
+            UnaryOperator<ProductDto> change = invocation.getArgument(1);
+            return Stream.of(cheap, closed, paused)
+                    .filter(product -> change.apply(product) != product)
+                    .toList();
+        });
+        SearchRequestDto filter = SearchRequestDto.builder().brand("Nike").condition("new").build();
+        UpdateByQueryRequestDto operation = UpdateByQueryRequestDto.builder()
+                .status("paused")
+                .pricePercent(new BigDecimal("-15"))
+                .build();
+
+        // When
+        UpdateByQueryResultDto result = productService.updateByQuery(filter, operation);
+
+        // Then
+        assertEquals(3, result.getMatched());
+        assertEquals(2, result.getUpdated());
+        assertEquals(0, result.getNoops());
+        assertEquals(1, result.getFailed());
+        assertEquals("MLA2", result.getFailures().get(0).getId());
+        assertNull(result.getFailures().get(0).getIndex(), "Las coincidencias se identifican por id, no por posición");
+        verify(productRepository).updateWhere(eq(Criterion.and(
+                Criterion.brand("Nike"),
+                Criterion.field(ProductField.CONDITION, "new"))), any());
+    }
+
+    @Test
+    @DisplayName("Debe calcular la versión nueva según la operación o dejar el producto igual")
+    void shouldApplyUpdateByQueryOperation() {
+        // Given
+        List<ProductDto> changed = new ArrayList<>();
+        when(productRepository.updateWhere(any(Criterion.class), any())).thenAnswer(invocation -> {
+            UnaryOperator<ProductDto> change = invocation.getArgument(1);
+            changed.add(change.apply(sampleProduct));
+            return List.of();
+        });
+
+        // When
+        productService.updateByQuery(new SearchRequestDto(),
+                UpdateByQueryRequestDto.builder().pricePercent(new BigDecimal("-15")).build());
+        productService.updateByQuery(new SearchRequestDto(),
+                UpdateByQueryRequestDto.builder().priceAmount(new BigDecimal("-50")).build());
+        productService.updateByQuery(new SearchRequestDto(),
+                UpdateByQueryRequestDto.builder().status("active").build());
+
+        // Then
+        assertEquals(new BigDecimal("85.00"), changed.get(0).getPrice());
+        assertEquals(new BigDecimal("50.00"), changed.get(1).getPrice());
+        assertSame(sampleProduct, changed.get(2), "Ya estaba activo: no hay versión nueva");
+    }
+
+    @Test
+    @DisplayName("Debe rechazar operaciones por consulta vacías o con más de un cambio de precio")
+    void shouldRejectInvalidUpdateByQueryOperations() {
+        // When & Then
+        assertThrows(InvalidProductDataException.class, () ->
+                productService.updateByQuery(new SearchRequestDto(), new UpdateByQueryRequestDto()));
+        assertThrows(InvalidProductDataException.class, () ->
+                productService.updateByQuery(new SearchRequestDto(), UpdateByQueryRequestDto.builder()
+                        .price(new BigDecimal("100"))
+                        .pricePercent(new BigDecimal("10"))
+                        .build()));
+        verify(productRepository, never()).updateWhere(any(), any());
+    }
+
     // ================================
     // TESTS DELETE OPERATIONS
     // ================================
@@ -539,13 +1038,16 @@ class ProductServiceTest {
         // Given
         String productId = "MLA1234567890";
         when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.saveIfVersion(any(ProductDto.class), anyLong()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
 
         // When
         boolean result = productService.deleteProduct(productId);
 
         // Then
         assertTrue(result);
-        assertEquals("closed", sampleProduct.getStatus()); // Soft delete
+        verify(productRepository).saveIfVersion(argThat(product -> "closed".equals(product.getStatus())), eq(0L));
+        assertEquals("active", sampleProduct.getStatus(), "El producto leído no se modifica en el lugar");
     }
 
     @Test
@@ -553,7 +1055,7 @@ class ProductServiceTest {
     void shouldFailToDeleteAlreadyClosedProduct() {
         // Given
         String productId = "MLA1234567890";
-        sampleProduct.setStatus("closed");
+        sampleProduct = sampleProduct.toBuilder().status("closed").build();
         when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
 
         // When & Then
@@ -563,20 +1065,21 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("Debe eliminar productos en batch")
+    @DisplayName("Debe eliminar productos en batch con una lectura y una escritura")
     void shouldDeleteProductsInBatch() {
         // Given
         List<String> ids = Arrays.asList("MLA1136716168", "MLA1234567890");
-
-        // Mock que crea una nueva instancia para cada llamada
-        when(productRepository.findById(anyString())).thenAnswer(invocation -> {
-            String id = invocation.getArgument(0);
-            return Optional.of(ProductDto.builder()
+        when(productRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> requested = invocation.getArgument(0);
+            Map<String, ProductDto> found = new HashMap<>();
+            requested.forEach(id -> found.put(id, ProductDto.builder()
                     .id(id)
                     .title("Test Product " + id)
                     .status("active")
-                    .build());
+                    .build()));
+            return found;
         });
+        stubSaveAllIfVersion(Set.of());
 
         // When
         BatchOperationResultDto result = productService.deleteProducts(ids);
@@ -586,24 +1089,85 @@ class ProductServiceTest {
         assertEquals(2, result.getTotalProcessed());
         assertEquals(2, result.getSuccessful());
         assertEquals(0, result.getFailed());
+        result.getItems().forEach(item -> assertEquals(BatchItemResultDto.DELETED, item.getStatus()));
+        verify(productRepository).saveAllIfVersion(argThat(products -> products.size() == 2 &&
+                products.stream().allMatch(product -> "closed".equals(product.getStatus()))));
+        verify(productRepository, never()).findById(anyString());
     }
 
     @Test
-    @DisplayName("Debe manejar errores en eliminación batch")
+    @DisplayName("Debe informar qué IDs fallaron en la eliminación batch")
     void shouldHandleErrorsInBatchDeletion() {
         // Given
-        List<String> ids = Arrays.asList("MLA1234567890", "MLA9999999999");
-        when(productRepository.findById("MLA1234567890")).thenReturn(Optional.of(sampleProduct));
-        when(productRepository.findById("MLA9999999999")).thenReturn(Optional.empty());
+        ProductDto closed = ProductDto.builder().id("MLA1111111111").status("closed").build();
+        List<String> ids = Arrays.asList("MLA1234567890", "MLA9999999999", "INVALID", "MLA1234567890", "MLA1111111111");
+        when(productRepository.findAllById(anyCollection())).thenReturn(Map.of(
+                "MLA1234567890", sampleProduct,
+                "MLA1111111111", closed));
+        stubSaveAllIfVersion(Set.of());
 
         // When
         BatchOperationResultDto result = productService.deleteProducts(ids);
 
         // Then
         assertNotNull(result);
-        assertEquals(2, result.getTotalProcessed());
+        assertEquals(5, result.getTotalProcessed());
+        assertEquals(1, result.getSuccessful());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(BatchItemResultDto.DELETED, BatchItemResultDto.ERROR, BatchItemResultDto.ERROR,
+                        BatchItemResultDto.ERROR, BatchItemResultDto.ERROR),
+                result.getItems().stream().map(BatchItemResultDto::getStatus).toList());
+        assertEquals("MLA9999999999", result.getItems().get(1).getId());
+        assertTrue(result.getItems().get(1).getError().contains("no encontrado"));
+        assertTrue(result.getItems().get(3).getError().contains("repetido"));
+        assertTrue(result.getItems().get(4).getError().contains("ya está eliminado"));
+        verify(productRepository).saveAllIfVersion(argThat(products -> products.size() == 1 &&
+                "MLA1234567890".equals(products.get(0).getId()) && "closed".equals(products.get(0).getStatus())));
+    }
+
+    @Test
+    @DisplayName("Debe informar como error los productos modificados entre la lectura y la eliminación batch")
+    void shouldReportConcurrentModificationsInBatchDeletion() {
+        // Given
+        ProductDto other = sampleProduct.toBuilder().id("MLA2222222222").version(3L).build();
+        sampleProduct = sampleProduct.toBuilder().version(7L).build();
+        when(productRepository.findAllById(anyCollection())).thenReturn(Map.of(
+                "MLA1234567890", sampleProduct,
+                "MLA2222222222", other));
+        stubSaveAllIfVersion(Set.of("MLA2222222222"));
+
+        // When
+        BatchOperationResultDto result = productService.deleteProducts(List.of("MLA1234567890", "MLA2222222222"));
+
+        // Then
         assertEquals(1, result.getSuccessful());
         assertEquals(1, result.getFailed());
+        assertEquals(BatchItemResultDto.DELETED, result.getItems().get(0).getStatus());
+        assertEquals(BatchItemResultDto.ERROR, result.getItems().get(1).getStatus());
+        assertTrue(result.getItems().get(1).getError().contains("modificado concurrentemente"));
+        verify(productRepository).saveAllIfVersion(argThat(products -> products.get(0).getVersion() == 7L
+                && products.get(1).getVersion() == 3L));
+        verify(productRepository, never()).saveAll(anyList());
+    }
+
+    private void stubSaveWithVersion() {
+        when(productRepository.save(any(ProductDto.class)))
+                .thenAnswer(invocation -> invocation.<ProductDto>getArgument(0).toBuilder().version(1L).build());
+    }
+
+    /**
+     * Guardar el lote condicional salvo los ids indicados, que simulan un conflicto de versión
+     */
+    private void stubSaveAllIfVersion(Set<String> conflicts) {
+        when(productRepository.saveAllIfVersion(anyList())).thenAnswer(invocation -> {
+            Map<String, ProductDto> stored = new HashMap<>();
+            for (ProductDto product : invocation.<List<ProductDto>>getArgument(0)) {
+                if (!conflicts.contains(product.getId())) {
+                    stored.put(product.getId(), product);
+                }
+            }
+            return stored;
+        });
     }
 
     // ================================
@@ -616,14 +1180,12 @@ class ProductServiceTest {
         // Given
         List<String> brands = Arrays.asList("Nike", "Adidas", "Apple");
         List<String> categories = Arrays.asList("Footwear", "Electronics", "Clothing");
-        List<ProductDto> activeProducts = Collections.singletonList(sampleProduct);
-        List<ProductDto> productsWithVariations = Collections.singletonList(sampleProduct);
 
         when(productRepository.count()).thenReturn(10L);
         when(productRepository.findAllBrands()).thenReturn(brands);
         when(productRepository.findAllCategories()).thenReturn(categories);
-        when(productRepository.findByStatus("active")).thenReturn(activeProducts);
-        when(productRepository.findWithVariations()).thenReturn(productsWithVariations);
+        when(productRepository.countByStatus("active")).thenReturn(1L);
+        when(productRepository.countWithVariations()).thenReturn(1L);
 
         // When
         ProductStatisticsDto result = productService.getStatistics();
@@ -637,6 +1199,117 @@ class ProductServiceTest {
         assertEquals(1L, result.getProductsWithVariations());
         assertEquals(brands, result.getBrands());
         assertEquals(categories, result.getCategories());
+        verify(productRepository, never()).findByStatus(anyString());
+        verify(productRepository, never()).findWithVariations();
+    }
+
+    @Test
+    @DisplayName("Debe obtener marcas y categorías sin generar estadísticas completas")
+    void shouldGetBrandsAndCategoriesWithoutFullStatistics() {
+        // Given
+        when(productRepository.findAllBrands()).thenReturn(List.of("Nike", "Sony"));
+        when(productRepository.findAllCategories()).thenReturn(List.of("Zapatillas"));
+
+        // When
+        List<String> brands = productService.getAvailableBrands();
+        List<String> categories = productService.getAvailableCategories();
+
+        // Then
+        assertEquals(List.of("Nike", "Sony"), brands);
+        assertEquals(List.of("Zapatillas"), categories);
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Debe obtener sugerencias de autocompletado")
+    void shouldGetSuggestions() {
+        // Given
+        List<SuggestionDto> suggestions = List.of(new SuggestionDto("Nike", "brand", 3L));
+        when(productRepository.suggest("ni", 5)).thenReturn(suggestions);
+
+        // When
+        List<SuggestionDto> result = productService.getSuggestions("ni", 5);
+
+        // Then
+        assertEquals(suggestions, result);
+    }
+
+    @Test
+    @DisplayName("Debe validar el prefijo y el límite de las sugerencias")
+    void shouldValidateSuggestionParams() {
+        assertThrows(InvalidProductDataException.class, () -> productService.getSuggestions(" ", 5));
+        assertThrows(InvalidProductDataException.class, () -> productService.getSuggestions("ni", 0));
+        assertThrows(InvalidProductDataException.class, () -> productService.getSuggestions("ni", 11));
+        verify(productRepository, never()).suggest(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debe retomar el flujo de cambios desde Last-Event-ID antes que desde since")
+    void shouldStreamChangesFromLastEventId() {
+        // Given
+        ChangeEventDto event = ChangeEventDto.builder().sequence(8L).type("price_changed").productId("MLA1").build();
+        when(productRepository.changesSince(7L)).thenReturn(Multi.createFrom().item(event));
+
+        // When
+        List<ChangeEventDto> events = productService.streamChanges(3L, " 7 ")
+                .subscribe().withSubscriber(AssertSubscriber.<ChangeEventDto>create(10))
+                .awaitCompletion()
+                .getItems();
+
+        // Then
+        assertEquals(List.of(event), events);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar secuencias inválidas del flujo de cambios")
+    void shouldRejectInvalidChangeSequences() {
+        assertThrows(InvalidProductDataException.class, () -> productService.streamChanges(null, "abc"));
+        assertThrows(InvalidProductDataException.class, () -> productService.streamChanges(-1L, null));
+        verify(productRepository, never()).changesSince(any());
+    }
+
+    @Test
+    @DisplayName("Debe reservar y liberar stock descontando y sumando en el repositorio")
+    void shouldReserveAndReleaseStock() {
+        // Given
+        when(productRepository.findById("MLA1")).thenReturn(Optional.of(sampleProduct.toBuilder().id("MLA1").build()));
+        when(productRepository.adjustStock("MLA1", 10L, -2)).thenReturn(3);
+        when(productRepository.adjustStock("MLA1", 10L, 1)).thenReturn(4);
+
+        // When
+        StockReservationDto reserved = productService.reserveStock("MLA1", 10L, 2);
+        StockReservationDto released = productService.releaseStock("MLA1", 10L, 1);
+
+        // Then
+        assertEquals(2, reserved.getQuantity());
+        assertEquals(3, reserved.getAvailableQuantity());
+        assertEquals(-1, released.getQuantity());
+        assertEquals(4, released.getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar reservas con cantidad no positiva")
+    void shouldRejectNonPositiveStockQuantity() {
+        assertThrows(InvalidProductDataException.class, () -> productService.reserveStock("MLA1", 10L, 0));
+        assertThrows(InvalidProductDataException.class, () -> productService.releaseStock("MLA1", 10L, -1));
+        verify(productRepository, never()).adjustStock(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar reservas sobre productos pausados o cerrados pero permitir liberar")
+    void shouldRejectReservationsOnInactiveProducts() {
+        // Given
+        when(productRepository.findById("MLA1")).thenReturn(Optional.of(sampleProduct.toBuilder().id("MLA1").status("paused").build()));
+        when(productRepository.findById("MLA2")).thenReturn(Optional.of(sampleProduct.toBuilder().id("MLA2").status("closed").build()));
+        when(productRepository.adjustStock("MLA2", 10L, 1)).thenReturn(1);
+
+        // When & Then
+        InvalidProductDataException paused = assertThrows(InvalidProductDataException.class,
+                () -> productService.reserveStock("MLA1", 10L, 1));
+        assertTrue(paused.getMessage().contains("paused"));
+        assertThrows(InvalidProductDataException.class, () -> productService.reserveStock("MLA2", 10L, 1));
+        verify(productRepository, never()).adjustStock(any(), anyLong(), eq(-1));
+        assertEquals(1, productService.releaseStock("MLA2", 10L, 1).getAvailableQuantity());
     }
 
     // ================================
@@ -644,70 +1317,47 @@ class ProductServiceTest {
     // ================================
 
     @Test
-    @DisplayName("Debe aplicar ordenamiento por precio ascendente")
+    @DisplayName("Debe delegar el ordenamiento por precio ascendente al repositorio")
     void shouldApplyPriceAscendingSorting() {
         // Given
-        ProductDto product1 = ProductDto.builder()
-                .id("MLA1")
-                .title("Product A")
-                .price(new BigDecimal("200.00"))
-                .dateCreated(LocalDateTime.now())
-                .build();
-
-        ProductDto product2 = ProductDto.builder()
+        ProductDto cheapest = ProductDto.builder()
                 .id("MLA2")
                 .title("Product B")
                 .price(new BigDecimal("100.00"))
                 .dateCreated(LocalDateTime.now())
                 .build();
-
-        List<ProductDto> products = Arrays.asList(product1, product2); // Desordenados
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.search(any(ProductQuery.class))).thenReturn(new SearchHitsDto(List.of(cheapest), 2));
 
         // When
         ProductListResponseDto result = productService.getAllProducts(0, 10, "price_asc");
 
-        // Then
-        assertEquals(2, result.getResults().size());
-        // El primer resultado debe ser el más barato
+        // Then: el repositorio ordena y recorta a la página, sin copiar todo el catálogo
+        verify(productRepository).search(argThat(query -> query.getSort() == ProductSort.PRICE_ASC
+                && query.getLimit() == 10));
+        verify(productRepository, never()).findAll();
         assertEquals("MLA2", result.getResults().getFirst().getId());
-        assertEquals(new BigDecimal("100.00"), result.getResults().getFirst().getPrice());
+        assertEquals(2, result.getPaging().getTotal());
     }
 
     @Test
-    @DisplayName("Debe aplicar ordenamiento por título")
+    @DisplayName("Debe delegar el ordenamiento por título al repositorio")
     void shouldApplyTitleSorting() {
         // Given
-        ProductDto productZ = ProductDto.builder()
-                .id("MLA1")
-                .title("Z Product")
-                .price(new BigDecimal("100.00"))
-                .dateCreated(LocalDateTime.now())
-                .build();
-
-        ProductDto productA = ProductDto.builder()
-                .id("MLA2")
-                .title("A Product")
-                .price(new BigDecimal("100.00"))
-                .dateCreated(LocalDateTime.now())
-                .build();
-
-        List<ProductDto> products = Arrays.asList(productZ, productA);
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.search(any(ProductQuery.class))).thenReturn(new SearchHitsDto(List.of(), 0));
 
         // When
-        ProductListResponseDto result = productService.getAllProducts(0, 10, "title_asc");
+        productService.getAllProducts(20, 10, "title_asc");
 
-        // Then
-        assertEquals(2, result.getResults().size());
-        assertEquals("MLA2", result.getResults().getFirst().getId()); // A Product primero
+        // Then: la página pide los primeros offset + limit en orden
+        verify(productRepository).search(argThat(query -> query.getSort() == ProductSort.TITLE_ASC
+                && query.getLimit() == 30));
     }
 
     @Test
     @DisplayName("Debe manejar lista vacía correctamente")
     void shouldHandleEmptyListCorrectly() {
         // Given
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productRepository.search(any(ProductQuery.class))).thenReturn(new SearchHitsDto(List.of(), 0));
 
         // When
         ProductListResponseDto result = productService.getAllProducts(0, 10, null);
@@ -723,9 +1373,9 @@ class ProductServiceTest {
     void shouldApplyPaginationCorrectly() {
         // Given
         List<ProductDto> products = Arrays.asList(
-                sampleProduct, sampleProduct, sampleProduct, sampleProduct, sampleProduct
+                sampleProduct, sampleProduct, sampleProduct
         );
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.search(argThat(query -> query.getLimit() == 3))).thenReturn(new SearchHitsDto(products, 5));
 
         // When
         ProductListResponseDto result = productService.getAllProducts(1, 2, null); // Skip 1, take 2
@@ -766,7 +1416,6 @@ class ProductServiceTest {
     void shouldHandleValidationErrorsInUpdate() {
         // Given
         String productId = "MLA1234567890";
-        when(productRepository.findById(productId)).thenReturn(Optional.of(sampleProduct));
 
         Set<ConstraintViolation<UpdateProductRequestDto>> violations = new HashSet<>();
         ConstraintViolation<UpdateProductRequestDto> violation = mock(ConstraintViolation.class);
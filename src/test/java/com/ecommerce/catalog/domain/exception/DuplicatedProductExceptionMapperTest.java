@@ -27,7 +27,7 @@ class DuplicatedProductExceptionMapperTest {
     void shouldMapExceptionToConflictResponse() {
         // Given
         String errorMessage = "Product with ID 'MLA123456' already exists";
-        InvalidProductDataException exception = new InvalidProductDataException(errorMessage);
+        DuplicateProductException exception = new DuplicateProductException(errorMessage);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -50,7 +50,7 @@ class DuplicatedProductExceptionMapperTest {
     void shouldCreateCorrectCauseForDuplicateProduct() {
         // Given
         String errorMessage = "Cannot create product: SKU already exists in catalog";
-        InvalidProductDataException exception = new InvalidProductDataException(errorMessage);
+        DuplicateProductException exception = new DuplicateProductException(errorMessage);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -71,7 +71,7 @@ class DuplicatedProductExceptionMapperTest {
     void shouldHandleDuplicateByDifferentFields() {
         // Given
         String errorMessage = "Product with title 'iPhone 15 Pro' already exists in the same category";
-        InvalidProductDataException exception = new InvalidProductDataException(errorMessage);
+        DuplicateProductException exception = new DuplicateProductException(errorMessage);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -88,7 +88,7 @@ class DuplicatedProductExceptionMapperTest {
     @DisplayName("Debe manejar excepción de duplicado con mensaje vacío")
     void shouldHandleDuplicateExceptionWithEmptyMessage() {
         // Given
-        InvalidProductDataException exception = new InvalidProductDataException("");
+        DuplicateProductException exception = new DuplicateProductException("");
 
         // When
         Response response = mapper.toResponse(exception);
@@ -104,7 +104,7 @@ class DuplicatedProductExceptionMapperTest {
     @DisplayName("Debe manejar excepción de duplicado con mensaje null")
     void shouldHandleDuplicateExceptionWithNullMessage() {
         // Given
-        InvalidProductDataException exception = new InvalidProductDataException(null);
+        DuplicateProductException exception = new DuplicateProductException(null);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -0,0 +1,51 @@
+package com.ecommerce.catalog.domain.exception;
+
+import com.ecommerce.catalog.application.exception.InsufficientStockExceptionMapper;
+import com.ecommerce.catalog.infrastructure.web.dto.request.CauseResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.ErrorResponseDto;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Insufficient Stock Exception Mapper Tests")
+class InsufficientStockExceptionMapperTest {
+
+    private InsufficientStockExceptionMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new InsufficientStockExceptionMapper();
+    }
+
+    @Test
+    @DisplayName("Debe mapear excepción a respuesta 409")
+    void shouldMapExceptionToConflictResponse() {
+        // Given
+        String errorMessage = "Stock insuficiente en la variación 1 del producto MLA123456: quedan 2, se pidieron 3";
+        InsufficientStockException exception = new InsufficientStockException(errorMessage);
+
+        // When
+        Response response = mapper.toResponse(exception);
+
+        // Then
+        assertEquals(Response.Status.CONFLICT.getStatusCode(), response.getStatus());
+        assertTrue(response.getEntity() instanceof ErrorResponseDto);
+
+        ErrorResponseDto errorResponse = (ErrorResponseDto) response.getEntity();
+        assertEquals("Insufficient stock", errorResponse.getMessage());
+        assertEquals("insufficient_stock", errorResponse.getError());
+        assertEquals(409, errorResponse.getStatus());
+
+        CauseResponseDto cause = errorResponse.getCause().get(0);
+        assertEquals("items", cause.getDepartment());
+        assertEquals(409, cause.getCauseId());
+        assertEquals("item.stock.insufficient", cause.getCode());
+        assertEquals(List.of("quantity"), cause.getReferences());
+        assertEquals(errorMessage, cause.getMessage());
+    }
+}
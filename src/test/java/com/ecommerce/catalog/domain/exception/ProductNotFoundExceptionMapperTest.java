@@ -27,7 +27,7 @@ class ProductNotFoundExceptionMapperTest {
     void shouldMapExceptionToNotFoundResponse() {
         // Given
         String errorMessage = "Product with ID 'MLA123456' not found";
-        InvalidProductDataException exception = new InvalidProductDataException(errorMessage);
+        ProductNotFoundException exception = new ProductNotFoundException(errorMessage);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -50,7 +50,7 @@ class ProductNotFoundExceptionMapperTest {
     void shouldCreateCorrectCauseInResponse() {
         // Given
         String errorMessage = "Product not found in catalog";
-        InvalidProductDataException exception = new InvalidProductDataException(errorMessage);
+        ProductNotFoundException exception = new ProductNotFoundException(errorMessage);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -70,7 +70,7 @@ class ProductNotFoundExceptionMapperTest {
     @DisplayName("Debe manejar mensaje de excepción null")
     void shouldHandleNullExceptionMessage() {
         // Given
-        InvalidProductDataException exception = new InvalidProductDataException(null);
+        ProductNotFoundException exception = new ProductNotFoundException(null);
 
         // When
         Response response = mapper.toResponse(exception);
@@ -87,7 +87,7 @@ class ProductNotFoundExceptionMapperTest {
     @DisplayName("Debe manejar mensaje de excepción vacío")
     void shouldHandleEmptyExceptionMessage() {
         // Given
-        InvalidProductDataException exception = new InvalidProductDataException("");
+        ProductNotFoundException exception = new ProductNotFoundException("");
 
         // When
         Response response = mapper.toResponse(exception);
@@ -0,0 +1,73 @@
+package com.ecommerce.catalog.domain.exception;
+
+import com.ecommerce.catalog.application.exception.ProductVersionConflictExceptionMapper;
+import com.ecommerce.catalog.infrastructure.web.dto.request.CauseResponseDto;
+import com.ecommerce.catalog.infrastructure.web.dto.request.ErrorResponseDto;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Version Conflict Exception Mapper Tests")
+class ProductVersionConflictExceptionMapperTest {
+
+    private ProductVersionConflictExceptionMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ProductVersionConflictExceptionMapper();
+    }
+
+    @Test
+    @DisplayName("Debe mapear excepción a respuesta 412")
+    void shouldMapExceptionToPreconditionFailedResponse() {
+        // Given
+        String errorMessage = "El producto MLA123456 está en la versión 3, se esperaba 2";
+        ProductVersionConflictException exception = new ProductVersionConflictException(errorMessage);
+
+        // When
+        Response response = mapper.toResponse(exception);
+
+        // Then
+        assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), response.getStatus());
+        assertTrue(response.getEntity() instanceof ErrorResponseDto);
+
+        ErrorResponseDto errorResponse = (ErrorResponseDto) response.getEntity();
+        assertEquals("Product version conflict", errorResponse.getMessage());
+        assertEquals("precondition_failed", errorResponse.getError());
+        assertEquals(412, errorResponse.getStatus());
+
+        CauseResponseDto cause = errorResponse.getCause().get(0);
+        assertEquals("items", cause.getDepartment());
+        assertEquals(412, cause.getCauseId());
+        assertEquals("item.version.conflict", cause.getCode());
+        assertEquals(List.of("If-Match"), cause.getReferences());
+        assertEquals(errorMessage, cause.getMessage());
+    }
+
+    @Test
+    @DisplayName("Debe mapear a 409 un conflicto sin If-Match")
+    void shouldMapExhaustedRetriesToConflictResponse() {
+        // Given
+        String errorMessage = "El producto MLA123456 fue modificado concurrentemente, reintentar";
+        ProductVersionConflictException exception = new ProductVersionConflictException(errorMessage, false);
+
+        // When
+        Response response = mapper.toResponse(exception);
+
+        // Then
+        assertEquals(Response.Status.CONFLICT.getStatusCode(), response.getStatus());
+        ErrorResponseDto errorResponse = (ErrorResponseDto) response.getEntity();
+        assertEquals("conflict", errorResponse.getError());
+        assertEquals(409, errorResponse.getStatus());
+
+        CauseResponseDto cause = errorResponse.getCause().get(0);
+        assertEquals(409, cause.getCauseId());
+        assertEquals("item.write.conflict", cause.getCode());
+        assertEquals(errorMessage, cause.getMessage());
+    }
+}
@@ -2,13 +2,45 @@ package com.ecommerce.catalog.infrastructure.persistance;
 
 import com.ecommerce.catalog.application.dto.ProductDto;
 import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ChangeEventDto;
+import com.ecommerce.catalog.application.dto.SearchFacetsDto;
+import com.ecommerce.catalog.application.dto.SearchHitsDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+import com.ecommerce.catalog.application.dto.VariationDto;
+import com.ecommerce.catalog.domain.currency.ExchangeRates;
+import com.ecommerce.catalog.domain.exception.InsufficientStockException;
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import com.ecommerce.catalog.domain.exception.ProductNotFoundException;
+import com.ecommerce.catalog.domain.query.Criterion;
+import com.ecommerce.catalog.domain.query.ProductField;
+import com.ecommerce.catalog.domain.query.ProductQuery;
+import com.ecommerce.catalog.domain.query.ProductSort;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +54,11 @@ class JsonProductRepositoryTest {
         repository = new JsonProductRepository();
     }
 
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
     @Test
     @DisplayName("Debe encontrar producto por ID")
     void shouldFindProductById() {
@@ -156,6 +193,508 @@ class JsonProductRepositoryTest {
         System.out.printf("📂 Categorías: %s%n", String.join(", ", categories));
     }
 
+    @Test
+    @DisplayName("Debe mantener estadísticas actualizadas al guardar productos")
+    void shouldKeepStatisticsUpToDateOnSave() {
+        // Given
+        long activeBefore = repository.countByStatus("active");
+        long withVariationsBefore = repository.countWithVariations();
+        ProductDto product = ProductDto.builder()
+                .id("MLA5550001")
+                .title("Zapatillas Puma Suede Classic")
+                .status("active")
+                .attributes(List.of(
+                        AttributeDto.builder().id("BRAND").name("Marca").valueName("Puma").build(),
+                        AttributeDto.builder().id("FOOTWEAR_TYPE").name("Tipo de calzado").valueName("Urbanas").build()))
+                .build();
+
+        // When
+        repository.save(product);
+
+        // Then
+        assertEquals(6, repository.count());
+        assertEquals(activeBefore + 1, repository.countByStatus("active"));
+        assertEquals(withVariationsBefore, repository.countWithVariations());
+        assertTrue(repository.findAllBrands().contains("Puma"));
+        assertTrue(repository.findAllCategories().contains("Urbanas"));
+        assertTrue(repository.findById("MLA5550001").isPresent());
+
+        // When: el producto se cierra y pierde su marca
+        repository.save(product.toBuilder().status("closed").attributes(List.of()).build());
+
+        // Then
+        assertEquals(6, repository.count());
+        assertEquals(activeBefore, repository.countByStatus("active"));
+        assertEquals(1, repository.countByStatus("closed"));
+        assertFalse(repository.findAllBrands().contains("Puma"));
+        assertFalse(repository.findAllCategories().contains("Urbanas"));
+    }
+
+    @Test
+    @DisplayName("Debe calcular facetas en la misma pasada de la búsqueda")
+    void shouldCollectFacetsDuringSearch() {
+        // Given
+        ProductQuery query = ProductQuery.builder()
+                .facetPriceBoundaries(List.of(new BigDecimal("100000")))
+                .build();
+
+        // When
+        SearchHitsDto hits = repository.search(query);
+
+        // Then
+        List<ProductDto> products = hits.getProducts();
+        SearchFacetsDto facets = hits.getFacets();
+        assertEquals(products.size(), facets.getConditions().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(1L, facets.getBrands().get("Nike"));
+        assertEquals(products.size(), facets.getCurrencies().get("ARS"));
+        List<Long> buckets = facets.getPriceBucketCounts();
+        assertEquals(2, buckets.size());
+        assertEquals(products.stream().filter(p -> p.getPrice().compareTo(new BigDecimal("100000")) < 0).count(),
+                buckets.get(0));
+        assertNull(repository.search(ProductQuery.of(Criterion.all())).getFacets());
+    }
+
+    @Test
+    @DisplayName("Debe rankear por relevancia usando título, descripción y atributos")
+    void shouldRankByRelevance() {
+        // When
+        SearchHitsDto hits = ranked(Criterion.text("zapatillas nike", false), 10);
+        SearchHitsDto byDescription = ranked(Criterion.text("amortiguación", false), 10);
+        SearchHitsDto filtered = ranked(
+                Criterion.and(Criterion.text("nike", false), Criterion.brand("Apple")), 10);
+
+        // Then
+        assertFalse(hits.getProducts().isEmpty());
+        assertEquals("MLA1136716168", hits.getProducts().get(0).getId());
+        assertEquals(hits.getProducts().size(), hits.getTotal());
+        assertEquals(1, byDescription.getTotal(), "Debe encontrar términos de la descripción");
+        assertEquals(0, filtered.getTotal(), "Los filtros deben aplicarse al ranking");
+        assertTrue(filtered.getProducts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe tolerar errores de tipeo en modo difuso")
+    void shouldTolerateTyposInFuzzyMode() {
+        // When
+        List<ProductDto> exact = repository.search(
+                ProductQuery.of(Criterion.text("zapatilas nik", false))).getProducts();
+        List<ProductDto> fuzzy = repository.search(
+                ProductQuery.of(Criterion.text("zapatilas nik", true))).getProducts();
+        SearchHitsDto ranked = ranked(Criterion.text("zapatilas nik", true), 5);
+
+        // Then
+        assertTrue(exact.isEmpty(), "La búsqueda exacta no debe encontrar términos mal escritos");
+        assertEquals(1, fuzzy.size());
+        assertEquals("MLA1136716168", fuzzy.get(0).getId());
+        assertEquals("MLA1136716168", ranked.getProducts().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debe encontrar productos sin importar tildes, plurales ni sinónimos")
+    void shouldMatchUsingSpanishAnalysis() {
+        // When
+        List<ProductDto> synonym = repository.searchAdvanced("tenis negro", null, null, null, null);
+        List<ProductDto> unaccented = repository.searchAdvanced("algodon", null, null, null, null);
+        List<ProductDto> byTitle = repository.findByTitleContaining("cancelacion");
+
+        // Then
+        assertEquals(List.of("MLA1136716168"), synonym.stream().map(ProductDto::getId).toList());
+        assertEquals(List.of("MLA5567890123"), unaccented.stream().map(ProductDto::getId).toList());
+        assertEquals(List.of("MLA4456789012"), byTitle.stream().map(ProductDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debe limitar los hits rankeados sin alterar el total")
+    void shouldLimitRankedHitsWithoutChangingTotal() {
+        // When
+        SearchHitsDto all = ranked(Criterion.text("gb", false), 10);
+        SearchHitsDto top = ranked(Criterion.text("gb", false), 1);
+
+        // Then
+        assertEquals(all.getTotal(), top.getTotal());
+        assertEquals(1, top.getProducts().size());
+        assertEquals(all.getProducts().get(0).getId(), top.getProducts().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debe sugerir completados y reflejar las ventas al guardar")
+    void shouldSuggestCompletionsUpdatedOnSave() {
+        // Given
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+
+        // When
+        List<SuggestionDto> before = repository.suggest("Zapa", 10);
+        repository.save(nike.toBuilder().soldQuantity(1000).build());
+        List<SuggestionDto> after = repository.suggest("Zapa", 10);
+
+        // Then
+        assertFalse(before.isEmpty(), "Debe sugerir títulos que empiezan con el prefijo");
+        before.forEach(s -> assertTrue(s.getText().toLowerCase().startsWith("zapa")));
+        assertEquals(nike.getTitle(), after.get(0).getText());
+        assertEquals(1001L, after.get(0).getScore());
+        assertTrue(repository.suggest("Nik", 5).stream()
+                .anyMatch(s -> "brand".equals(s.getType()) && "Nike".equals(s.getText())));
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por cualquier atributo combinando AND, OR y NOT")
+    void shouldEvaluateComposableQueries() {
+        // Given
+        Criterion footwearOrCotton = Criterion.or(
+                Criterion.attribute("MATERIAL", "sintetico"),
+                Criterion.attribute("MATERIAL", "Algodón"));
+        Criterion notUnisex = Criterion.not(Criterion.attribute("GENDER", "Unisex"));
+
+        // When
+        SearchHitsDto materials = repository.search(ProductQuery.of(footwearOrCotton));
+        SearchHitsDto men = repository.search(ProductQuery.of(Criterion.and(footwearOrCotton, notUnisex)));
+        SearchHitsDto withoutGender = repository.search(ProductQuery.of(Criterion.and(
+                Criterion.field(ProductField.STATUS, "ACTIVE"),
+                Criterion.not(Criterion.or(
+                        Criterion.attribute("GENDER", "Hombre"),
+                        Criterion.attribute("GENDER", "Unisex"))))));
+
+        // Then
+        assertEquals(List.of("MLA1136716168", "MLA5567890123"), ids(materials));
+        assertEquals(List.of("MLA1136716168"), ids(men));
+        assertEquals(List.of("MLA2234567890", "MLA3345678901", "MLA4456789012"), ids(withoutGender));
+        assertEquals(3, withoutGender.getTotal());
+    }
+
+    @Test
+    @DisplayName("Debe ordenar y limitar la consulta sin alterar el total")
+    void shouldSortAndLimitQueries() {
+        // When
+        SearchHitsDto cheapest = repository.search(ProductQuery.builder()
+                .criterion(Criterion.price(new BigDecimal("20000"), null))
+                .sort(ProductSort.PRICE_ASC)
+                .limit(2)
+                .build());
+        SearchHitsDto newest = repository.search(ProductQuery.builder()
+                .sort(ProductSort.DATE_DESC)
+                .limit(1)
+                .build());
+
+        // Then
+        assertEquals(List.of("MLA5567890123", "MLA1136716168"), ids(cheapest));
+        assertEquals(5, cheapest.getTotal());
+        assertEquals(List.of("MLA3345678901"), ids(newest));
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por talle, color y stock de una misma variación")
+    void shouldFilterByVariation() {
+        // Given
+        Criterion negro42 = Criterion.variation(Map.of("Talle", "42", "Color", "Negro"), true);
+
+        // When
+        List<ProductDto> found = repository.search(ProductQuery.of(negro42)).getProducts();
+        List<ProductDto> missing = repository.search(ProductQuery.of(
+                Criterion.variation(Map.of("Talle", "XL", "Color", "Negro"), false))).getProducts();
+
+        // Then
+        assertEquals(List.of("MLA1136716168"), found.stream().map(ProductDto::getId).toList());
+        assertTrue(missing.isEmpty(), "Negro y XL existen pero nunca en la misma variación");
+
+        // When: el stock de una variación existente solo cambia con reservas
+        ProductDto nike = found.get(0);
+        VariationDto first = nike.getVariations().get(0);
+        repository.adjustStock(nike.getId(), first.getId(), -first.getAvailableQuantity());
+
+        // Then
+        assertTrue(repository.search(ProductQuery.of(negro42)).getProducts().isEmpty());
+        assertEquals(1, repository.search(ProductQuery.of(
+                Criterion.variation(Map.of("Talle", "42"), false))).getTotal());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar en las consultas los cambios guardados")
+    void shouldReindexSavedProductsForQueries() {
+        // Given
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+
+        // When
+        repository.save(nike.toBuilder().price(new BigDecimal("10.00")).condition("used").build());
+
+        // Then
+        assertEquals(List.of(nike.getId()), ids(repository.findByPriceRange(BigDecimal.ZERO, new BigDecimal("100"))));
+        assertEquals(List.of(nike.getId()), ids(repository.findByCondition("used")));
+        assertEquals(4, repository.findByCondition("new").size());
+    }
+
+    @Test
+    @DisplayName("Debe versionar cada escritura y aplicar compare-and-swap")
+    void shouldVersionWritesAndCompareAndSwap() {
+        // Given
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(1L, nike.getVersion());
+
+        // When
+        ProductDto first = nike.toBuilder().price(new BigDecimal("80000")).build();
+        Optional<ProductDto> firstSaved = repository.saveIfVersion(first, 1L);
+        ProductDto stale = nike.toBuilder().price(new BigDecimal("70000")).build();
+        Optional<ProductDto> staleSaved = repository.saveIfVersion(stale, 1L);
+
+        // Then
+        assertEquals(2L, firstSaved.orElseThrow().getVersion());
+        assertTrue(staleSaved.isEmpty(), "Una escritura con versión vieja no debe pisar la nueva");
+        ProductDto stored = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(2L, stored.getVersion());
+        assertEquals(new BigDecimal("80000"), stored.getPrice());
+        assertEquals(1, repository.count(Criterion.price(new BigDecimal("80000"), new BigDecimal("80000"))));
+
+        ProductDto saved = repository.save(stored.toBuilder().build());
+        assertEquals(3L, saved.getVersion(), "save devuelve lo guardado con la versión asignada");
+        assertEquals(3L, repository.findById("MLA1136716168").orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Debe guardar un lote condicional sin pisar los productos modificados después de leerlos")
+    void shouldCompareAndSwapEachItemOfBatch() {
+        // Given
+        Map<String, ProductDto> read = repository.findAllById(List.of("MLA1136716168", "MLA2234567890"));
+        ProductDto nike = read.get("MLA1136716168");
+        repository.saveIfVersion(nike.toBuilder().price(new BigDecimal("80000")).build(), nike.getVersion());
+
+        // When
+        Map<String, ProductDto> stored = repository.saveAllIfVersion(read.values().stream()
+                .map(product -> product.toBuilder().status("closed").build())
+                .toList());
+
+        // Then
+        assertEquals(Set.of("MLA2234567890"), stored.keySet(), "El producto modificado después de la lectura es un conflicto");
+        assertEquals(2L, stored.get("MLA2234567890").getVersion());
+        ProductDto current = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(new BigDecimal("80000"), current.getPrice(), "El lote no debe pisar la escritura concurrente");
+        assertEquals("active", current.getStatus());
+        assertEquals("closed", repository.findById("MLA2234567890").orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Debe aplicar escrituras concurrentes con compare-and-swap sin perder actualizaciones")
+    void shouldApplyConcurrentCompareAndSwapWithoutLostUpdates() throws Exception {
+        // Given
+        List<String> ids = ids(repository.findAll());
+        int threads = 8;
+        int updatesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When: cada hilo incrementa en 1 el precio de productos al azar, reintentando ante conflicto
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    Optional<ProductDto> saved;
+                    do {
+                        ProductDto current = repository.findById(id).orElseThrow();
+                        saved = repository.saveIfVersion(
+                                current.toBuilder().price(current.getPrice().add(BigDecimal.ONE)).build(),
+                                current.getVersion());
+                    } while (saved.isEmpty());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then: cada incremento dejó una versión y el índice de precios coincide con lo guardado
+        long updates = repository.findAll().stream().mapToLong(product -> product.getVersion() - 1).sum();
+        assertEquals((long) threads * updatesPerThread, updates);
+        for (ProductDto product : repository.findAll()) {
+            assertTrue(ids(repository.findByPriceRange(product.getPrice(), product.getPrice()))
+                    .contains(product.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe actualizar por consulta en una sola escritura y reindexar solo lo que cambió")
+    void shouldUpdateWhereAndReindexChangedProducts() {
+        // Given
+        Criterion cheap = Criterion.price(null, new BigDecimal("100000"));
+        ProductDto adidasBefore = repository.findById("MLA5567890123").orElseThrow();
+
+        // When: se pausan los baratos salvo Adidas, que queda igual
+        List<ProductDto> updated = repository.updateWhere(cheap, product -> "MLA5567890123".equals(product.getId())
+                ? product
+                : product.toBuilder().status("paused").build());
+
+        // Then
+        assertEquals(List.of("MLA1136716168"), ids(updated));
+        assertEquals(2L, updated.get(0).getVersion());
+        assertEquals(1, repository.countByStatus("paused"));
+        assertEquals(List.of("MLA1136716168"), ids(repository.findByStatus("paused")));
+        assertSame(adidasBefore, repository.findById("MLA5567890123").orElseThrow());
+        assertEquals(List.of("MLA1136716168"), ids(repository.search(ProductQuery.of(Criterion.and(
+                Criterion.text("zapatillas nike", false),
+                Criterion.field(ProductField.STATUS, "paused"))))));
+    }
+
+    @Test
+    @DisplayName("Debe guardar versiones nuevas sin alterar la anterior y compartiendo las sublistas")
+    void shouldStoreNewVersionsSharingUnchangedSubLists() {
+        // Given
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+
+        // When
+        repository.save(nike.toBuilder().price(new BigDecimal("80000")).build());
+        ProductDto stored = repository.findById("MLA1136716168").orElseThrow();
+
+        // Then
+        assertNotSame(nike, stored);
+        assertEquals(1L, nike.getVersion(), "La versión leída antes no debe cambiar");
+        assertEquals(new BigDecimal("89999.99"), nike.getPrice());
+        assertSame(nike.getPictures(), stored.getPictures());
+        assertSame(nike.getAttributes(), stored.getAttributes());
+        assertSame(nike.getVariations(), stored.getVariations());
+        assertThrows(UnsupportedOperationException.class, () -> stored.getVariations().clear());
+    }
+
+    @Test
+    @DisplayName("Debe guardar un lote completo e indexarlo")
+    void shouldSaveAllAndIndexBatch() {
+        // Given
+        List<ProductDto> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            batch.add(ProductDto.builder()
+                    .id("MLA800000000" + i)
+                    .title("Mate imperial " + i)
+                    .price(new BigDecimal("15000"))
+                    .currencyId("ARS")
+                    .condition("new")
+                    .status("active")
+                    .build());
+        }
+
+        // When
+        repository.saveAll(batch);
+
+        // Then
+        assertEquals(8, repository.count());
+        assertEquals(batch.get(1).toBuilder().version(1L).build(), repository.findById("MLA8000000001").orElseThrow());
+        assertEquals(3, repository.search(ProductQuery.of(Criterion.text("mate", false))).getTotal());
+        assertEquals(3, repository.count(Criterion.price(new BigDecimal("15000"), new BigDecimal("15000"))));
+    }
+
+    @Test
+    @DisplayName("Debe contar y verificar existencia igual que la búsqueda")
+    void shouldCountAndCheckExistence() {
+        // Given
+        List<Criterion> criteria = List.of(
+                Criterion.all(),
+                Criterion.brand("Nike"),
+                Criterion.field(ProductField.CONDITION, "new"),
+                Criterion.price(new BigDecimal("50000"), new BigDecimal("900000")),
+                Criterion.text("zapatillas", false),
+                Criterion.variation(Map.of("Talle", "42"), true),
+                Criterion.and(Criterion.brand("Nike"), Criterion.not(Criterion.withVariations())),
+                Criterion.or(Criterion.brand("Sony"), Criterion.brand("Lenovo")),
+                Criterion.brand("Inexistente"));
+
+        for (Criterion criterion : criteria) {
+            // When
+            long expected = repository.search(ProductQuery.of(criterion)).getTotal();
+
+            // Then
+            assertEquals(expected, repository.count(criterion), "Conteo de " + criterion);
+            assertEquals(expected > 0, repository.exists(criterion), "Existencia de " + criterion);
+        }
+        assertEquals(1, repository.count(Criterion.brand("nike")));
+    }
+
+    @Test
+    @DisplayName("Debe filtrar y ordenar por precio convertido entre monedas")
+    void shouldFilterAndSortAcrossCurrencies() {
+        // Given: 100 USD equivalen a 100.000 ARS con la tabla por defecto
+        repository.save(ProductDto.builder()
+                .id("MLA9000000001")
+                .title("Reloj importado")
+                .price(new BigDecimal("100"))
+                .currencyId("USD")
+                .condition("new")
+                .status("active")
+                .build());
+
+        // When
+        List<ProductDto> inUsd = repository.search(ProductQuery.of(
+                Criterion.priceIn(new BigDecimal("80"), new BigDecimal("120"), "USD"))).getProducts();
+        SearchHitsDto cheapest = repository.search(ProductQuery.builder()
+                .sort(ProductSort.PRICE_ASC)
+                .limit(3)
+                .build());
+
+        // Then
+        assertEquals("ARS", repository.getExchangeRates().getBase());
+        assertEquals(List.of("MLA1136716168", "MLA9000000001"), inUsd.stream().map(ProductDto::getId).toList());
+        assertEquals(List.of("MLA5567890123", "MLA1136716168", "MLA9000000001"), ids(cheapest));
+        assertTrue(repository.findByPriceRange(new BigDecimal("80"), new BigDecimal("120")).stream()
+                .anyMatch(product -> "MLA9000000001".equals(product.getId())),
+                "El rango sin moneda sigue comparando el precio original");
+    }
+
+    @Test
+    @DisplayName("Debe recalcular el precio normalizado al cambiar las cotizaciones")
+    void shouldRebuildNormalizedPricesWhenRatesChange() {
+        // Given
+        repository.save(ProductDto.builder()
+                .id("MLA9000000002")
+                .title("Auriculares importados")
+                .price(new BigDecimal("100"))
+                .currencyId("USD")
+                .build());
+        Criterion range = Criterion.priceIn(new BigDecimal("150000"), new BigDecimal("250000"), null);
+        assertTrue(repository.search(ProductQuery.of(range)).getProducts().isEmpty());
+
+        // When
+        repository.updateExchangeRates(new ExchangeRates("ARS", Map.of("USD", new BigDecimal("2000"))));
+
+        // Then
+        assertEquals(List.of("MLA9000000002"), repository.search(ProductQuery.of(range)).getProducts()
+                .stream().map(ProductDto::getId).toList());
+        assertThrows(InvalidProductDataException.class, () -> repository.search(ProductQuery.of(
+                Criterion.priceIn(BigDecimal.ONE, BigDecimal.TEN, "EUR"))));
+    }
+
+    @Test
+    @DisplayName("Debe recargar las cotizaciones cuando cambia el archivo")
+    void shouldReloadRatesWhenFileChanges(@TempDir Path dir) throws Exception {
+        // Given
+        Path ratesFile = dir.resolve("exchange-rates.properties");
+        Files.writeString(ratesFile, "base=ARS\nUSD=1000\n");
+        JsonProductRepository withFile = new JsonProductRepository(
+                JsonProductRepository.DEFAULT_PARALLEL_SCAN_THRESHOLD, 0, Optional.of(ratesFile.toString()), 0,
+                Optional.empty(), "batch",
+                JsonProductRepository.DEFAULT_FSYNC_INTERVAL_MS, JsonProductRepository.DEFAULT_CHANGE_BUFFER_SIZE);
+        withFile.save(ProductDto.builder()
+                .id("MLA9000000003")
+                .title("Parlante importado")
+                .price(new BigDecimal("100"))
+                .currencyId("USD")
+                .build());
+        Criterion range = Criterion.priceIn(new BigDecimal("150000"), new BigDecimal("250000"), null);
+
+        try {
+            // When: un archivo inválido no pisa las cotizaciones vigentes
+            Files.writeString(ratesFile, "USD=2000\n");
+            Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            withFile.reloadExchangeRates(ratesFile);
+            List<ProductDto> beforeFix = withFile.search(ProductQuery.of(range)).getProducts();
+
+            Files.writeString(ratesFile, "base=ARS\nUSD=2000\n");
+            Files.setLastModifiedTime(ratesFile, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+            withFile.reloadExchangeRates(ratesFile);
+
+            // Then
+            assertTrue(beforeFix.isEmpty());
+            assertEquals(List.of("MLA9000000003"), withFile.search(ProductQuery.of(range)).getProducts()
+                    .stream().map(ProductDto::getId).toList());
+        } finally {
+            withFile.close();
+        }
+    }
+
     @Test
     @DisplayName("Debe manejar búsquedas que no encuentran resultados")
     void shouldHandleEmptySearchResults() {
@@ -416,4 +955,371 @@ class JsonProductRepositoryTest {
         List<ProductDto> impossible = repository.searchAdvanced("ProductoInexistente123", "MarcaInexistente456", null, null, null);
         assertTrue(impossible.isEmpty(), "No debe encontrar productos con query y marca inexistentes");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe reaplicar las escrituras del journal al reiniciar")
+    void shouldReplayJournalOnRestart(@TempDir Path dir) {
+        // Given
+        Path journalPath = dir.resolve("products.journal");
+        JsonProductRepository journaled = journaledRepository(journalPath);
+        ProductDto nike = journaled.findById("MLA1136716168").orElseThrow();
+        journaled.saveIfVersion(nike.toBuilder().price(new BigDecimal("79999.99")).build(), nike.getVersion());
+        journaled.save(ProductDto.builder().id("MLA7000000001").title("Mochila urbana impermeable")
+                .price(new BigDecimal("25000")).currencyId("ARS").condition("new").status("active").build());
+        journaled.updateWhere(Criterion.brand("Nike"), product -> product.toBuilder().status("paused").build());
+        journaled.close();
+
+        // When
+        JsonProductRepository restarted = journaledRepository(journalPath);
+
+        // Then
+        ProductDto replayed = restarted.findById("MLA1136716168").orElseThrow();
+        assertEquals(new BigDecimal("79999.99"), replayed.getPrice());
+        assertEquals("paused", replayed.getStatus());
+        assertEquals(nike.getVersion() + 2, replayed.getVersion());
+        assertTrue(restarted.findById("MLA7000000001").isPresent());
+        assertEquals(repository.count() + 1, restarted.count());
+        assertEquals(List.of("MLA7000000001"), ids(restarted.findByTitleContaining("mochila")));
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Debe emitir cada escritura al flujo de cambios en orden de publicación")
+    void shouldPublishWritesToChangeFeed() {
+        // Given
+        AssertSubscriber<ChangeEventDto> subscriber = AssertSubscriber.create(Long.MAX_VALUE);
+        repository.changesSince(null).subscribe(subscriber);
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+
+        // When
+        repository.saveIfVersion(nike.toBuilder().price(new BigDecimal("79999.99")).build(), nike.getVersion());
+        repository.save(ProductDto.builder().id("MLA7000000001").title("Mochila urbana impermeable")
+                .price(new BigDecimal("25000")).currencyId("ARS").condition("new").status("active").build());
+        repository.updateWhere(Criterion.brand("Nike"), product -> product.toBuilder().status("paused").build());
+        repository.saveAll(List.of(nike.toBuilder().title("Zapatillas Nike Air Max 270").build()));
+
+        // Then
+        List<ChangeEventDto> events = subscriber.awaitItems(4).getItems();
+        assertEquals(List.of(1L, 2L, 3L, 4L), events.stream().map(ChangeEventDto::getSequence).toList());
+        assertEquals(List.of("price_changed", "created", "status_changed", "updated"),
+                events.stream().map(ChangeEventDto::getType).toList());
+        assertEquals(nike.getVersion() + 2, events.get(2).getVersion());
+        assertSame(repository.findById("MLA7000000001").orElseThrow(), events.get(1).getProduct());
+    }
+
+    @Test
+    @DisplayName("Debe reservar stock concurrente sin vender de más y reflejarlo en los filtros")
+    void shouldReserveStockWithoutOverselling() throws Exception {
+        // Given
+        long negro42 = 174497701554L;
+        Criterion inStock = Criterion.variation(Map.of("Talle", "42", "Color", "Negro"), true);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            runAll(executor, 8, () -> {
+                for (int i = 0; i < 4; i++) {
+                    try {
+                        repository.adjustStock("MLA1136716168", negro42, -1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals(3, reserved.get(), "Solo hay 3 unidades de Negro 42");
+        assertEquals(29, rejected.get());
+        assertEquals(0, repository.findById("MLA1136716168").orElseThrow().getVariations().get(0).getAvailableQuantity());
+        assertTrue(repository.search(ProductQuery.of(inStock)).getProducts().isEmpty());
+
+        // When
+        int available = repository.adjustStock("MLA1136716168", negro42, 1);
+
+        // Then
+        assertEquals(1, available);
+        assertEquals(List.of("MLA1136716168"), ids(repository.search(ProductQuery.of(inStock))));
+    }
+
+    @Test
+    @DisplayName("Debe ignorar el stock que traen las escrituras externas, aun desde una copia vieja")
+    void shouldNeverRaiseStockFromExternalWrites() {
+        // Given: una copia leída antes de reservar
+        long negro42 = 174497701554L;
+        ProductDto stale = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(3, stale.getVariations().get(0).getAvailableQuantity());
+        repository.adjustStock("MLA1136716168", negro42, -2);
+        assertEquals(stale.getVersion(), repository.findById("MLA1136716168").orElseThrow().getVersion(),
+                "Volcar stock no avanza la versión");
+
+        // When: se escribe la copia vieja, con compare-and-swap y sin condición, y con otra cantidad
+        Optional<ProductDto> conditional = repository.saveIfVersion(
+                stale.toBuilder().price(new BigDecimal("79999.99")).build(), stale.getVersion());
+        Map<String, ProductDto> batch = repository.saveAllIfVersion(List.of(conditional.orElseThrow()));
+        List<VariationDto> variations = new ArrayList<>(stale.getVariations());
+        variations.set(0, variations.get(0).toBuilder().availableQuantity(12).build());
+        variations.add(VariationDto.builder().id(99L).availableQuantity(5).attributeCombinations(List.of()).build());
+        repository.saveAll(List.of(stale.toBuilder().variations(variations).build()));
+
+        // Then
+        assertTrue(conditional.isPresent(), "Un volcado de stock no hace fallar el If-Match");
+        assertEquals(1, batch.size());
+        ProductDto stored = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(1, stored.getVariations().get(0).getAvailableQuantity(), "Las unidades reservadas no vuelven");
+        assertEquals(5, stored.getVariations().get(stored.getVariations().size() - 1).getAvailableQuantity(),
+                "Una variación nueva arranca con la cantidad recibida");
+        assertEquals(0, repository.adjustStock("MLA1136716168", negro42, -1));
+        assertThrows(InsufficientStockException.class, () -> repository.adjustStock("MLA1136716168", negro42, -1));
+        assertEquals(0, repository.adjustStock("MLA1136716168", 99L, -5));
+        assertThrows(ProductNotFoundException.class, () -> repository.adjustStock("MLA1136716168", 1L, -1));
+        assertThrows(ProductNotFoundException.class, () -> repository.adjustStock("MLA0000000000", negro42, -1));
+    }
+
+    @Test
+    @DisplayName("Debe avanzar la versión de stock en cada volcado y emitirla en el flujo de cambios")
+    void shouldVersionStockFlushes() {
+        // Given
+        long negro42 = 174497701554L;
+        AssertSubscriber<ChangeEventDto> subscriber = AssertSubscriber.create(Long.MAX_VALUE);
+        repository.changesSince(null).subscribe(subscriber);
+        ProductDto nike = repository.findById("MLA1136716168").orElseThrow();
+
+        // When: dos reservas, una escritura del documento y otra reserva
+        repository.adjustStock("MLA1136716168", negro42, -1);
+        repository.adjustStock("MLA1136716168", negro42, -1);
+        ProductDto priced = repository.saveIfVersion(nike.toBuilder().price(new BigDecimal("79999.99")).build(),
+                nike.getVersion()).orElseThrow();
+        repository.adjustStock("MLA1136716168", negro42, 1);
+
+        // Then: cada cambio es distinto por (versión, versión de stock) y la escritura no la reinicia
+        List<ChangeEventDto> events = subscriber.awaitItems(4).getItems();
+        assertEquals(List.of("stock_changed", "stock_changed", "price_changed", "stock_changed"),
+                events.stream().map(ChangeEventDto::getType).toList());
+        assertEquals(List.of(nike.getVersion(), nike.getVersion(), nike.getVersion() + 1, nike.getVersion() + 1),
+                events.stream().map(ChangeEventDto::getVersion).toList());
+        assertEquals(List.of(1L, 2L, 2L, 3L), events.stream().map(ChangeEventDto::getStockVersion).toList());
+        assertEquals(2L, priced.getStockVersion());
+        ProductDto stored = repository.findById("MLA1136716168").orElseThrow();
+        assertEquals(3L, stored.getStockVersion());
+        assertEquals(2, stored.getVariations().get(0).getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("Debe revertir el ajuste de stock si el volcado falla")
+    void shouldRollBackStockAdjustmentWhenFlushFails() {
+        // Given: con la columna cerrada ningún volcado se acepta
+        long negro42 = 174497701554L;
+        repository.close();
+
+        // When
+        assertThrows(IllegalStateException.class, () -> repository.adjustStock("MLA1136716168", negro42, -1));
+
+        // Then: las 3 unidades siguen disponibles, así que pedirlas todas no falla por stock sino por el volcado
+        assertThrows(IllegalStateException.class, () -> repository.adjustStock("MLA1136716168", negro42, -3));
+    }
+
+    @Test
+    @DisplayName("Debe conservar las reservas de stock después de reiniciar con journal")
+    void shouldPersistReservationsInJournal(@TempDir Path dir) {
+        // Given
+        Path journalPath = dir.resolve("products.journal");
+        JsonProductRepository journaled = journaledRepository(journalPath);
+        journaled.adjustStock("MLA2234567890", 274497701557L, -2);
+        journaled.close();
+
+        // When
+        JsonProductRepository restarted = journaledRepository(journalPath);
+
+        // Then
+        assertEquals(3, restarted.findById("MLA2234567890").orElseThrow().getVariations().get(0).getAvailableQuantity());
+        assertEquals(1, restarted.adjustStock("MLA2234567890", 274497701557L, -2));
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar las escrituras sin publicarlas cuando el journal no las acepta")
+    void shouldRejectWritesBeforeApplyingWhenJournalUnavailable(@TempDir Path dir) {
+        // Given: el journal ya no acepta registros
+        JsonProductRepository journaled = journaledRepository(dir.resolve("products.journal"));
+        ProductDto nike = journaled.findById("MLA1136716168").orElseThrow();
+        journaled.close();
+
+        // When & Then: ni la escritura puntual ni la actualización por consulta llegan a aplicarse
+        assertThrows(IllegalStateException.class, () -> journaled.saveIfVersion(
+                nike.toBuilder().price(new BigDecimal("79999.99")).build(), nike.getVersion()));
+        assertThrows(IllegalStateException.class, () -> journaled.updateWhere(Criterion.brand("Nike"),
+                product -> product.toBuilder().price(product.getPrice().multiply(BigDecimal.valueOf(2))).build()));
+        assertSame(nike, journaled.findById("MLA1136716168").orElseThrow());
+    }
+
+    private static JsonProductRepository journaledRepository(Path journalPath) {
+        return new JsonProductRepository(JsonProductRepository.DEFAULT_PARALLEL_SCAN_THRESHOLD, 0, Optional.empty(),
+                0, Optional.of(journalPath.toString()), "batch",
+                JsonProductRepository.DEFAULT_FSYNC_INTERVAL_MS, JsonProductRepository.DEFAULT_CHANGE_BUFFER_SIZE);
+    }
+
+    /**
+     * Benchmark de reservas: 1.000 compradores concurrentes sobre una misma variación
+     * Compara el CAS sobre la columna de stock contra llevar el stock en el documento versionado:
+     * leer, descontar y guardar con saveIfVersion reintentando ante conflicto de versión.
+     * Ejecutar con: mvn test -Dtest=JsonProductRepositoryTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: reservas concurrentes sobre una variación")
+    void benchmarkStockReservations() throws Exception {
+        int reservers = 1_000;
+        int perReserver = 20;
+        int stock = reservers * perReserver / 2;
+        for (int round = 0; round < 2; round++) {
+            ProductDto flash = ProductDto.builder().id("MLA800000000" + round).title("Zapatillas edición limitada")
+                    .price(new BigDecimal("150000")).currencyId("ARS").condition("new").status("active")
+                    .variations(List.of(VariationDto.builder().id(1L).price(new BigDecimal("150000"))
+                            .availableQuantity(stock).attributeCombinations(List.of()).build()))
+                    .build();
+            repository.save(flash);
+            long flushesBefore = repository.stockFlushes();
+
+            AtomicInteger casReserved = new AtomicInteger();
+            double cas = reservations(reservers, perReserver, () -> {
+                try {
+                    repository.adjustStock(flash.getId(), 1L, -1);
+                    casReserved.incrementAndGet();
+                } catch (InsufficientStockException ignored) {
+                    // Agotado: el comprador no consigue unidad
+                }
+            });
+            long flushes = repository.stockFlushes() - flushesBefore;
+
+            // Sin columna el stock viaja en el documento versionado: se lleva en soldQuantity
+            repository.save(flash.toBuilder().soldQuantity(0).build());
+            AtomicInteger versionReserved = new AtomicInteger();
+            AtomicInteger conflicts = new AtomicInteger();
+            double optimistic = reservations(reservers, perReserver, () -> {
+                while (true) {
+                    ProductDto current = repository.findById(flash.getId()).orElseThrow();
+                    if (current.getSoldQuantity() == stock) {
+                        return;
+                    }
+                    ProductDto next = current.toBuilder().soldQuantity(current.getSoldQuantity() + 1).build();
+                    if (repository.saveIfVersion(next, current.getVersion()).isPresent()) {
+                        versionReserved.incrementAndGet();
+                        return;
+                    }
+                    conflicts.incrementAndGet();
+                }
+            });
+
+            assertEquals(stock, casReserved.get());
+            assertEquals(stock, versionReserved.get());
+            System.out.printf(Locale.ROOT, "reservadores=%d  CAS=%,9.0f intentos/s (%,d volcados)  "
+                            + "saveIfVersion=%,9.0f intentos/s (%,d conflictos)  (%.2fx)%n",
+                    reservers, cas, flushes, optimistic, conflicts.get(), cas / optimistic);
+        }
+    }
+
+    /**
+     * Benchmark de lecturas durante escrituras: lectores por id y por búsqueda mientras un escritor
+     * reemplaza lotes de productos sin pausa. Informa el throughput de lectura y la peor latencia, que
+     * con las dos copias del catálogo no incluye esperas a la escritura en curso.
+     * Ejecutar con: mvn test -Dtest=JsonProductRepositoryTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: lecturas durante escrituras concurrentes")
+    void benchmarkReadsDuringWrites() throws Exception {
+        List<ProductDto> batch = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            batch.add(ProductDto.builder().id("MLA9" + i).title("Remera algodón " + i)
+                    .price(BigDecimal.valueOf(1_000 + i)).currencyId("ARS").condition("new").status("active")
+                    .build());
+        }
+        repository.saveAll(batch);
+        Criterion remeras = Criterion.text("remera", false);
+
+        for (boolean writing : new boolean[]{false, true}) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicLong writes = new AtomicLong();
+            Thread writer = new Thread(() -> {
+                while (running.get() && writing) {
+                    repository.saveAll(batch.subList(0, 500));
+                    writes.incrementAndGet();
+                }
+            });
+            writer.start();
+
+            int readers = 4;
+            int perReader = 20_000;
+            AtomicLong worstNanos = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(readers);
+            long start = System.nanoTime();
+            try {
+                runAll(executor, readers, () -> {
+                    for (int i = 0; i < perReader; i++) {
+                        long sent = System.nanoTime();
+                        if (i % 2 == 0) {
+                            repository.findById("MLA9" + (i % 5_000)).orElseThrow();
+                        } else {
+                            repository.search(ProductQuery.builder().criterion(remeras).limit(10).build());
+                        }
+                        worstNanos.accumulateAndGet(System.nanoTime() - sent, Math::max);
+                    }
+                });
+            } finally {
+                running.set(false);
+                writer.join();
+                executor.shutdown();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "escritor=%-5s lecturas=%,9.0f/s  peor latencia %.3f ms  lotes escritos %,d%n",
+                    writing, readers * perReader / seconds, worstNanos.get() / 1e6, writes.get());
+        }
+    }
+
+    private static double reservations(int reservers, int perReserver, Runnable reserve) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(reservers);
+        try {
+            long start = System.nanoTime();
+            runAll(executor, reservers, () -> {
+                for (int i = 0; i < perReserver; i++) {
+                    reserve.run();
+                }
+            });
+            return reservers * perReserver / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void runAll(ExecutorService executor, int threads, Runnable worker) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(worker));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static List<String> ids(SearchHitsDto hits) {
+        return ids(hits.getProducts());
+    }
+
+    private static List<String> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getId).toList();
+    }
+
+    private SearchHitsDto ranked(Criterion criterion, int limit) {
+        return repository.search(ProductQuery.builder()
+                .criterion(criterion)
+                .sort(ProductSort.RELEVANCE)
+                .limit(limit)
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Left-Right Tests")
+class LeftRightTest {
+
+    @Test
+    @DisplayName("Las lecturas nunca deben ver una escritura a medias")
+    void shouldNeverExposePartialWrites() throws Exception {
+        // Given: cada escritura deja los dos campos iguales, pero los escribe por separado
+        LeftRight<long[]> pair = new LeftRight<>(new long[2], new long[2]);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        CompletableFuture<?>[] readers = new CompletableFuture<?>[2];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = CompletableFuture.runAsync(() -> {
+                while (writing.get()) {
+                    if (pair.read(state -> state[0] != state[1])) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // When
+        for (long value = 1; value <= 20_000; value++) {
+            long next = value;
+            pair.write(state -> {
+                state[0] = next;
+                Thread.yield();
+                state[1] = next;
+                return next;
+            }, (state, written) -> {
+                state[0] = written;
+                state[1] = written;
+            });
+        }
+        writing.set(false);
+        CompletableFuture.allOf(readers).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0, torn.get());
+        assertEquals(20_000L, (long) pair.read(state -> state[0]));
+    }
+
+    @Test
+    @DisplayName("Una lectura no debe esperar a un escritor bloqueado por otra lectura en curso")
+    void shouldNotBlockReadsWhileWriterWaits() throws Exception {
+        // Given: una lectura lenta sobre la copia publicada
+        LeftRight<int[]> counter = new LeftRight<>(new int[1], new int[1]);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> slowRead = CompletableFuture.supplyAsync(() -> counter.read(state -> {
+            reading.countDown();
+            await(release);
+            return state[0];
+        }));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        // When: el escritor publica la otra copia y espera a que salga el lector lento
+        CompletableFuture<Integer> write = CompletableFuture.supplyAsync(() -> counter.write(state -> ++state[0],
+                (state, value) -> state[0] = value));
+
+        // Then: las lecturas nuevas ven la escritura sin esperar al escritor
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.read(state -> state[0]) != 1) {
+            assertTrue(System.nanoTime() < deadline, "La escritura debe publicarse antes de que salga el lector lento");
+            Thread.yield();
+        }
+        assertFalse(write.isDone(), "La otra copia no se toca hasta que salga el lector lento");
+
+        release.countDown();
+        assertEquals(0, slowRead.get(5, TimeUnit.SECONDS));
+        assertEquals(1, write.get(5, TimeUnit.SECONDS));
+        assertEquals(1, (int) counter.read(state -> state[0]));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.catalog.infrastructure.persistance;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Parallel Scanner Tests")
+class ParallelScannerTest {
+
+    private static final String[] WORDS = {
+            "zapatillas", "nike", "adidas", "remera", "negro", "blanco", "running", "notebook",
+            "lenovo", "auriculares", "sony", "algodon", "cuero", "premium", "oferta", "mujer"
+    };
+
+    private final ParallelScanner sequential = new ParallelScanner(Integer.MAX_VALUE, 1);
+    private final ParallelScanner parallel = new ParallelScanner(0, 4);
+
+    @AfterEach
+    void tearDown() {
+        sequential.close();
+        parallel.close();
+    }
+
+    @Test
+    @DisplayName("Debe producir el mismo resultado en paralelo que en secuencial")
+    void shouldMatchSequentialResults() {
+        // Given
+        List<String> titles = titles(100_000, new Random(7));
+        BitSet candidates = new BitSet();
+        for (int slot = 0; slot < titles.size(); slot += 3) {
+            candidates.set(slot);
+        }
+
+        // When & Then
+        assertEquals(titleScan(sequential, titles, null), titleScan(parallel, titles, null));
+        assertEquals(titleScan(sequential, titles, candidates), titleScan(parallel, titles, candidates));
+        assertEquals(slotList(sequential, titles.size(), candidates), slotList(parallel, titles.size(), candidates),
+                "La combinación debe respetar el orden de los slots");
+    }
+
+    @Test
+    @DisplayName("Debe fusionar facetas parciales sin perder conteos")
+    void shouldMergePartialFacets() {
+        // Given
+        List<ProductDto> products = products(30_000, new Random(11));
+        FacetCounter template = new FacetCounter(List.of(new BigDecimal("1000"), new BigDecimal("5000")));
+
+        // When
+        FacetCounter expected = sequential.scan(null, products.size(), template::emptyCopy,
+                (partial, slot) -> partial.collect(products.get(slot)), FacetCounter::merge);
+        FacetCounter actual = parallel.scan(null, products.size(), template::emptyCopy,
+                (partial, slot) -> partial.collect(products.get(slot)), FacetCounter::merge);
+
+        // Then
+        assertEquals(expected.getBrands(), actual.getBrands());
+        assertEquals(expected.getConditions(), actual.getConditions());
+        assertArrayEquals(expected.getPriceBucketCounts(), actual.getPriceBucketCounts());
+        assertEquals(products.size(), actual.getConditions().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Benchmark del punto de cruce secuencial / paralelo para un recorrido de títulos
+     * Ejecutar con: mvn test -Dtest=ParallelScannerTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: punto de cruce del recorrido paralelo")
+    void benchmarkCrossover() {
+        Random random = new Random(42);
+        for (int size : new int[]{1_000, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 1_000_000}) {
+            List<String> titles = titles(size, random);
+            long sequentialNanos = measure(() -> titleScan(sequential, titles, null));
+            long parallelNanos = measure(() -> titleScan(parallel, titles, null));
+            System.out.printf(Locale.ROOT, "slots=%,9d  secuencial=%8.1f µs  paralelo=%8.1f µs  speedup=%.2fx%n",
+                    size, sequentialNanos / 1000.0, parallelNanos / 1000.0, (double) sequentialNanos / parallelNanos);
+        }
+    }
+
+    private static BitSet titleScan(ParallelScanner scanner, List<String> titles, BitSet candidates) {
+        return scanner.scan(candidates, titles.size(), BitSet::new, (partial, slot) -> {
+            if (titles.get(slot).contains("zapatillas negro")) {
+                partial.set(slot);
+            }
+        }, (left, right) -> {
+            left.or(right);
+            return left;
+        });
+    }
+
+    private static List<Integer> slotList(ParallelScanner scanner, int size, BitSet candidates) {
+        return scanner.scan(candidates, size, ArrayList::new, List::add, (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    private static long measure(Runnable scan) {
+        for (int i = 0; i < 20; i++) {
+            scan.run();
+        }
+        int runs = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            scan.run();
+        }
+        return (System.nanoTime() - start) / runs;
+    }
+
+    private static List<String> titles(int size, Random random) {
+        List<String> titles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 8; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            titles.add(title.toString());
+        }
+        return titles;
+    }
+
+    private static List<ProductDto> products(int size, Random random) {
+        List<ProductDto> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(ProductDto.builder()
+                    .id("MLA" + i)
+                    .condition(random.nextBoolean() ? "new" : "used")
+                    .currencyId("ARS")
+                    .price(BigDecimal.valueOf(random.nextInt(10_000)))
+                    .attributes(List.of(AttributeDto.builder()
+                            .id("BRAND")
+                            .valueName(WORDS[random.nextInt(4)])
+                            .build()))
+                    .build());
+        }
+        return products;
+    }
+}
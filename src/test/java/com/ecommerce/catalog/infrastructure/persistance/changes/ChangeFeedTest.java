@@ -0,0 +1,143 @@
+package com.ecommerce.catalog.infrastructure.persistance.changes;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ChangeEventDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.enums.ChangeType;
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Change Feed Tests")
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe clasificar altas, cambios de precio, de estado, de stock y actualizaciones generales")
+    void shouldClassifyChanges() {
+        ProductDto product = product("MLA1", 1L);
+
+        assertEquals(ChangeType.CREATED, ChangeFeed.typeOf(null, product));
+        assertEquals(ChangeType.PRICE_CHANGED, ChangeFeed.typeOf(product,
+                product.toBuilder().price(new BigDecimal("900")).version(2L).build()));
+        assertEquals(ChangeType.STATUS_CHANGED, ChangeFeed.typeOf(product,
+                product.toBuilder().status("closed").version(2L).build()));
+        assertEquals(ChangeType.UPDATED, ChangeFeed.typeOf(product,
+                product.toBuilder().price(new BigDecimal("900")).status("paused").version(2L).build()));
+        assertEquals(ChangeType.UPDATED, ChangeFeed.typeOf(product,
+                product.toBuilder().price(new BigDecimal("900")).title("Otro título").version(2L).build()));
+        assertEquals(ChangeType.UPDATED, ChangeFeed.typeOf(product, product.toBuilder()
+                .attributes(List.of(AttributeDto.builder().id("BRAND").valueName("Nike").build())).version(2L).build()));
+        assertEquals(ChangeType.STOCK_CHANGED, ChangeFeed.typeOf(product, product.toBuilder().stockVersion(1L).build()));
+    }
+
+    @Test
+    @DisplayName("Debe entregar solo lo pedido y la misma instancia a todos los suscriptores")
+    void shouldRespectDemandAndShareEvents() {
+        // Given
+        feed = new ChangeFeed(16);
+        AssertSubscriber<ChangeEventDto> slow = AssertSubscriber.create(2);
+        AssertSubscriber<ChangeEventDto> fast = AssertSubscriber.create(Long.MAX_VALUE);
+        feed.since(null).subscribe(slow);
+        feed.since(null).subscribe(fast);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            feed.publish(null, product("MLA" + i, 1L));
+        }
+
+        // Then
+        fast.awaitItems(5);
+        slow.awaitItems(2);
+        assertEquals(2, slow.getItems().size(), "No debe recibir más de lo pedido");
+        assertSame(fast.getItems().get(0), slow.getItems().get(0));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), fast.getItems().stream().map(ChangeEventDto::getSequence).toList());
+
+        slow.request(3);
+        slow.awaitItems(5);
+        assertEquals("MLA5", slow.getItems().get(4).getProductId());
+    }
+
+    @Test
+    @DisplayName("Debe retomar desde una secuencia y rechazar las que ya no están en el buffer")
+    void shouldResumeFromSequence() {
+        // Given
+        feed = new ChangeFeed(4);
+        for (int i = 1; i <= 6; i++) {
+            feed.publish(null, product("MLA" + i, 1L));
+        }
+
+        // When
+        AssertSubscriber<ChangeEventDto> resumed = AssertSubscriber.create(Long.MAX_VALUE);
+        feed.since(3L).subscribe(resumed);
+
+        // Then
+        resumed.awaitItems(3);
+        assertEquals(List.of("MLA4", "MLA5", "MLA6"), resumed.getItems().stream().map(ChangeEventDto::getProductId).toList());
+        assertDoesNotThrow(() -> feed.since(2L));
+        assertThrows(InvalidProductDataException.class, () -> feed.since(1L));
+        assertThrows(InvalidProductDataException.class, () -> feed.since(7L));
+    }
+
+    @Test
+    @DisplayName("Debe terminar con error a un suscriptor que quedó más de un buffer atrás")
+    void shouldFailLaggingSubscriber() {
+        // Given
+        feed = new ChangeFeed(4);
+        AssertSubscriber<ChangeEventDto> lagging = AssertSubscriber.create(1);
+        feed.since(null).subscribe(lagging);
+        feed.publish(null, product("MLA1", 1L));
+        lagging.awaitItems(1);
+        for (int i = 2; i <= 10; i++) {
+            feed.publish(null, product("MLA" + i, 1L));
+        }
+
+        // When
+        lagging.request(10);
+
+        // Then
+        lagging.awaitFailure(error -> assertInstanceOf(IllegalStateException.class, error));
+        assertEquals(0, feed.subscribers());
+    }
+
+    @Test
+    @DisplayName("Debe completar a los suscriptores al cerrarse")
+    void shouldCompleteSubscribersOnClose() {
+        // Given
+        feed = new ChangeFeed(4);
+        AssertSubscriber<ChangeEventDto> subscriber = AssertSubscriber.create(Long.MAX_VALUE);
+        feed.since(null).subscribe(subscriber);
+
+        // When
+        feed.close();
+
+        // Then
+        subscriber.awaitCompletion();
+    }
+
+    private static ProductDto product(String id, long version) {
+        return ProductDto.builder()
+                .id(id)
+                .title("Producto " + id)
+                .price(new BigDecimal("1000"))
+                .currencyId("ARS")
+                .status("active")
+                .version(version)
+                .build();
+    }
+}
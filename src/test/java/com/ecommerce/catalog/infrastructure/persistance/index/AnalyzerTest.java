@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Analyzer Tests")
+class AnalyzerTest {
+
+    private final Analyzer analyzer = Analyzer.spanish(List.of(List.of("zapatillas", "tenis")));
+
+    @Test
+    @DisplayName("Debe normalizar mayúsculas, tildes y plurales")
+    void shouldNormalizeCaseAccentsAndPlurals() {
+        assertEquals(List.of("gener", "sintetic"), analyzer.analyze("Género: Sintético"));
+        assertEquals(analyzer.analyze("Remera negra"), analyzer.analyze("REMERAS NEGRAS"));
+        assertEquals(List.of("luz"), analyzer.analyze("luces"));
+        assertEquals(List.of("ñandu"), analyzer.analyze("Ñandú"), "La ñ no debe plegarse a n");
+    }
+
+    @Test
+    @DisplayName("Debe descartar palabras vacías")
+    void shouldDropStopwords() {
+        assertEquals(List.of("cancelacion", "ruid"), analyzer.analyze("Cancelación de Ruido"));
+        assertTrue(analyzer.analyze("de la y el").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe unificar sinónimos en un mismo término")
+    void shouldMapSynonymsToSameTerm() {
+        assertEquals(analyzer.analyze("zapatillas"), analyzer.analyze("Tenis"));
+        assertEquals(analyzer.analyze("zapatilla"), analyzer.analyze("tenis"));
+    }
+
+    @Test
+    @DisplayName("Debe cargar los sinónimos por defecto del classpath")
+    void shouldLoadDefaultSynonyms() {
+        Analyzer defaults = Analyzer.spanish();
+
+        assertEquals(defaults.analyze("notebook"), defaults.analyze("laptop"));
+        assertFalse(Analyzer.loadSynonyms("analysis/synonyms_es.txt").isEmpty());
+        assertTrue(Analyzer.loadSynonyms("analysis/inexistente.txt").isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fuzzy Term Dictionary Tests")
+class FuzzyTermDictionaryTest {
+
+    private FuzzyTermDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new FuzzyTermDictionary(2);
+        dictionary.add("zapatillas");
+        dictionary.add("nike");
+        dictionary.add("notebook");
+    }
+
+    @Test
+    @DisplayName("Debe encontrar términos a distancia 1 y 2")
+    void shouldFindTermsWithinDistance() {
+        assertEquals(Map.of("zapatillas", 1), dictionary.lookup("zapatilas", 2));
+        assertEquals(Map.of("nike", 1), dictionary.lookup("nik", 1));
+        assertEquals(Map.of("notebook", 2), dictionary.lookup("notbok", 2));
+        assertEquals(Map.of("nike", 1), dictionary.lookup("nkie", 1), "La transposición cuenta como una edición");
+    }
+
+    @Test
+    @DisplayName("No debe devolver términos fuera de la distancia permitida")
+    void shouldRejectTermsBeyondDistance() {
+        assertTrue(dictionary.lookup("notbok", 1).isEmpty());
+        assertTrue(dictionary.lookup("adidas", 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe dejar de encontrar términos eliminados")
+    void shouldForgetRemovedTerms() {
+        // When
+        dictionary.remove("nike");
+
+        // Then
+        assertTrue(dictionary.lookup("nik", 1).isEmpty());
+        assertEquals(Map.of("zapatillas", 0), dictionary.lookup("zapatillas", 2));
+    }
+
+    @Test
+    @DisplayName("Debe calcular la distancia de edición con corte temprano")
+    void shouldComputeBoundedEditDistance() {
+        assertEquals(0, FuzzyTermDictionary.editDistance("nike", "nike", 2));
+        assertEquals(1, FuzzyTermDictionary.editDistance("nike", "nkie", 2));
+        assertEquals(2, FuzzyTermDictionary.editDistance("lenovo", "lnovoo", 2));
+        assertEquals(3, FuzzyTermDictionary.editDistance("sony", "apple", 2));
+    }
+}
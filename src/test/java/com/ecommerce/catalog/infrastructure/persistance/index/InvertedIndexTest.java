@@ -0,0 +1,130 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Inverted Index Tests")
+class InvertedIndexTest {
+
+    private static final String[] VOCABULARY = {
+            "zapatillas", "nike", "adidas", "remera", "negro", "blanco", "running", "urbanas",
+            "algodon", "cuero", "talle", "deportivo", "premium", "oferta", "hombre", "mujer"
+    };
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+    }
+
+    @Test
+    @DisplayName("Debe rankear primero el producto con el término en el título")
+    void shouldRankTitleMatchesFirst() {
+        // Given
+        index.index(0, product("Remera Adidas Originals", "Remera de algodón, combina con zapatillas", "Adidas"));
+        index.index(1, product("Zapatillas Nike Air Max", "Zapatillas para running", "Nike"));
+        index.index(2, product("Notebook Lenovo", "Equipo de oficina", "Lenovo"));
+
+        // When
+        int[] ranked = index.topK(index.queryTerms("zapatillas"), 10, slot -> true);
+
+        // Then
+        assertArrayEquals(new int[]{1, 0}, ranked);
+    }
+
+    @Test
+    @DisplayName("Debe buscar en título, descripción y atributos")
+    void shouldMatchAcrossFields() {
+        // Given
+        index.index(0, product("Auriculares Sony", "Cancelación de ruido", "Sony"));
+        index.index(1, product("Notebook", "Equipo liviano", "Lenovo"));
+
+        // When & Then
+        assertEquals(BitSet.valueOf(new long[]{0b01}), index.matching(index.queryTerms("ruido")));
+        assertEquals(BitSet.valueOf(new long[]{0b10}), index.matching(index.queryTerms("LENOVO")));
+        assertTrue(index.matching(index.queryTerms("inexistente")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar la re-indexación de un producto")
+    void shouldReflectReindexing() {
+        // Given
+        index.index(0, product("Zapatillas Nike", "Running", "Nike"));
+        index.index(1, product("Remera Adidas", "Algodón", "Adidas"));
+
+        // When
+        index.index(0, product("Campera Puma", "Abrigo", "Puma"));
+
+        // Then
+        assertTrue(index.matching(index.queryTerms("nike")).isEmpty());
+        assertArrayEquals(new int[]{0}, index.topK(index.queryTerms("puma"), 5, slot -> true));
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el filtro durante la recuperación del top-K")
+    void shouldApplyFilterDuringTopK() {
+        // Given
+        index.index(0, product("Zapatillas Nike", "Running", "Nike"));
+        index.index(1, product("Zapatillas Adidas", "Running", "Adidas"));
+
+        // When
+        int[] ranked = index.topK(index.queryTerms("zapatillas"), 5, slot -> slot != 0);
+
+        // Then
+        assertArrayEquals(new int[]{1}, ranked);
+    }
+
+    @Test
+    @DisplayName("Block-max WAND debe devolver el mismo top-K que la evaluación exhaustiva")
+    void shouldMatchExhaustiveRanking() {
+        // Given: catálogo sintético con varios bloques por término
+        Random random = new Random(42);
+        int documents = 3000;
+        for (int slot = 0; slot < documents; slot++) {
+            index.index(slot, product(randomText(random, 3, 8), randomText(random, 5, 30), VOCABULARY[random.nextInt(3)]));
+        }
+        // Re-indexar algunos para ejercitar inserciones intermedias
+        for (int i = 0; i < 200; i++) {
+            index.index(random.nextInt(documents), product(randomText(random, 3, 8), randomText(random, 5, 30), "nike"));
+        }
+
+        for (String query : List.of("nike", "zapatillas nike negro", "premium oferta mujer", "cuero talle")) {
+            List<QueryTerm> terms = index.queryTerms(query);
+
+            // When
+            int[] exhaustive = index.topK(terms, documents, slot -> true);
+            int[] pruned = index.topK(terms, 10, slot -> true);
+
+            // Then
+            assertArrayEquals(Arrays.copyOf(exhaustive, 10), pruned, "Top-10 distinto para: " + query);
+        }
+    }
+
+    private static String randomText(Random random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static ProductDto product(String title, String description, String brand) {
+        return ProductDto.builder()
+                .title(title)
+                .description(description)
+                .attributes(List.of(AttributeDto.builder().id("BRAND").name("Marca").valueName(brand).build()))
+                .build();
+    }
+}
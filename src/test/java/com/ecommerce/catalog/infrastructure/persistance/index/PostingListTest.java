@@ -0,0 +1,56 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Posting List Tests")
+class PostingListTest {
+
+    private static final int DOCS = PostingList.BLOCK_SIZE * 3;
+
+    @Test
+    @DisplayName("Debe mantener los metadatos de bloque en reemplazos, altas y bajas")
+    void shouldKeepBlockMetadata() {
+        // Given
+        float[] lengths = new float[DOCS * 2];
+        Arrays.fill(lengths, 10f);
+        PostingList list = new PostingList();
+        for (int doc = 0; doc < DOCS * 2; doc += 2) {
+            list.put(doc, 1f, lengths);
+        }
+        assertEquals(3, list.blockCount());
+
+        // When: reemplazo en el lugar dentro del primer bloque
+        list.put(10, 5f, lengths);
+
+        // Then
+        assertEquals(5f, list.blockMaxFreq(0));
+        assertEquals(1f, list.blockMaxFreq(1));
+
+        // When: alta en el medio que desplaza los bloques siguientes
+        lengths[11] = 3f;
+        list.put(11, 7f, lengths);
+
+        // Then
+        assertEquals(7f, list.blockMaxFreq(0));
+        assertEquals(3f, list.blockMinLength(0));
+        assertEquals(4, list.blockCount());
+        assertEquals(list.doc(PostingList.BLOCK_SIZE * 2 - 1), list.blockLastDoc(1));
+
+        // When: baja que vuelve a desplazar
+        list.remove(11, lengths);
+        list.remove(10, lengths);
+
+        // Then
+        assertEquals(1f, list.blockMaxFreq(0));
+        assertEquals(10f, list.blockMinLength(0));
+        assertEquals(3, list.blockCount());
+        for (int block = 0; block < list.blockCount(); block++) {
+            assertEquals(1f, list.blockMaxFreq(block));
+        }
+    }
+}
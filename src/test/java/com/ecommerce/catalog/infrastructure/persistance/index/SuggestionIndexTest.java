@@ -0,0 +1,112 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeDto;
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.ecommerce.catalog.application.dto.SuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Suggestion Index Tests")
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        index.index(product("MLA1", "Zapatillas Nike Air Max", "Nike", 120));
+        index.index(product("MLA2", "Zapatillas Adidas Ultraboost", "Adidas", 40));
+        index.index(product("MLA3", "Notebook Lenovo IdeaPad", "Lenovo", 5));
+    }
+
+    @Test
+    @DisplayName("Debe sugerir títulos y marcas ordenados por popularidad")
+    void shouldSuggestByPopularity() {
+        // When
+        List<SuggestionDto> suggestions = index.suggest("Zap", 5);
+
+        // Then
+        assertEquals(List.of("Zapatillas Nike Air Max", "Zapatillas Adidas Ultraboost"),
+                suggestions.stream().map(SuggestionDto::getText).toList());
+        assertEquals(121L, suggestions.get(0).getScore());
+
+        List<SuggestionDto> brands = index.suggest("ni", 5);
+        assertEquals(1, brands.size());
+        assertEquals("Nike", brands.get(0).getText());
+        assertEquals("brand", brands.get(0).getType());
+    }
+
+    @Test
+    @DisplayName("Debe acumular el peso de una marca compartida por varios productos")
+    void shouldAggregateSharedBrands() {
+        // Given
+        index.index(product("MLA4", "Remera Nike Dri-FIT", "Nike", 10));
+
+        // When
+        List<SuggestionDto> suggestions = index.suggest("n", 10);
+
+        // Then
+        assertEquals("Nike", suggestions.get(0).getText());
+        assertEquals(121L + 11L, suggestions.get(0).getScore());
+    }
+
+    @Test
+    @DisplayName("Debe reflejar ventas, cambios de título y productos inactivos")
+    void shouldUpdateOnWrites() {
+        // When
+        index.index(product("MLA2", "Zapatillas Adidas Ultraboost", "Adidas", 500));
+
+        // Then
+        assertEquals("Zapatillas Adidas Ultraboost", index.suggest("zapatillas", 1).get(0).getText());
+
+        // When
+        ProductDto closed = product("MLA2", "Zapatillas Adidas Ultraboost", "Adidas", 500).toBuilder()
+                .status("closed")
+                .build();
+        index.index(closed);
+
+        // Then
+        assertTrue(index.suggest("adi", 5).isEmpty());
+        assertEquals(List.of("Zapatillas Nike Air Max"),
+                index.suggest("zapatillas", 5).stream().map(SuggestionDto::getText).toList());
+    }
+
+    @Test
+    @DisplayName("Debe ignorar mayúsculas, espacios extra y respetar el límite")
+    void shouldNormalizePrefixAndRespectLimit() {
+        assertEquals(2, index.suggest("  ZAPATILLAS   ", 5).size());
+        assertEquals(1, index.suggest("zapatillas", 1).size());
+        assertTrue(index.suggest("xyz", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por el prefijo completo cuando supera el largo indexado")
+    void shouldHandlePrefixesLongerThanIndexedKeys() {
+        // Given
+        String longTitle = "Zapatillas Running Hombre Ultra Liviana Amortiguación Máxima Edición 2024";
+        index.index(product("MLA5", longTitle, "Fila", 0));
+
+        // When
+        List<SuggestionDto> match = index.suggest(longTitle.substring(0, 60), 5);
+        List<SuggestionDto> miss = index.suggest(longTitle.substring(0, 50) + " Mujer", 5);
+
+        // Then
+        assertEquals(List.of(longTitle), match.stream().map(SuggestionDto::getText).toList());
+        assertTrue(miss.isEmpty());
+    }
+
+    private static ProductDto product(String id, String title, String brand, int sold) {
+        return ProductDto.builder()
+                .id(id)
+                .title(title)
+                .status("active")
+                .soldQuantity(sold)
+                .attributes(List.of(AttributeDto.builder().id("BRAND").name("Marca").valueName(brand).build()))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.catalog.infrastructure.persistance.index;
+
+import com.ecommerce.catalog.application.dto.AttributeCombinationDto;
+import com.ecommerce.catalog.application.dto.VariationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Variation Index Tests")
+class VariationIndexTest {
+
+    private VariationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VariationIndex();
+        index.index(0, List.of(variation("Negro", "42", 3), variation("Blanco", "43", 0)));
+        index.index(1, List.of(variation("Blanco", "42", 5)));
+        index.index(2, null);
+    }
+
+    @Test
+    @DisplayName("Debe exigir que todas las condiciones se cumplan en la misma variación")
+    void shouldMatchWithinSameVariation() {
+        assertEquals(slots(0), index.matchingSlots(Map.of("Color", "negro", "TALLE", "42"), false));
+        assertEquals(slots(1), index.matchingSlots(Map.of("Color", "Blanco", "Talle", "42"), false));
+        assertTrue(index.matchingSlots(Map.of("Color", "Negro", "Talle", "43"), false).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por stock disponible de la variación")
+    void shouldFilterByStock() {
+        assertEquals(slots(1), index.matchingSlots(Map.of("Color", "Blanco"), true));
+        assertEquals(slots(0, 1), index.matchingSlots(Map.of(), true));
+        assertEquals(1, index.estimate(Map.of("Color", "Negro"), true));
+    }
+
+    @Test
+    @DisplayName("Debe reflejar la re-indexación de las variaciones de un producto")
+    void shouldReflectReindexing() {
+        // When
+        index.index(1, List.of(variation("Blanco", "42", 0), variation("Rojo", "40", 1)));
+        index.index(0, List.of());
+
+        // Then
+        assertTrue(index.matchingSlots(Map.of("Color", "Blanco"), true).isEmpty());
+        assertEquals(slots(1), index.matchingSlots(Map.of("Color", "Rojo"), true));
+        assertEquals(slots(1), index.matchingSlots(Map.of(), false));
+    }
+
+    private static BitSet slots(int... slots) {
+        BitSet result = new BitSet();
+        for (int slot : slots) {
+            result.set(slot);
+        }
+        return result;
+    }
+
+    private static VariationDto variation(String color, String size, int stock) {
+        return VariationDto.builder()
+                .availableQuantity(stock)
+                .attributeCombinations(List.of(
+                        AttributeCombinationDto.builder().name("Color").valueName(color).build(),
+                        AttributeCombinationDto.builder().name("Talle").valueName(size).build()))
+                .build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.ecommerce.catalog.infrastructure.persistance.journal;
+
+import com.ecommerce.catalog.application.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Product Journal Tests")
+class ProductJournalTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("Debe reaplicar los registros en el orden en que se escribieron")
+    void shouldReplayRecordsInOrder(@TempDir Path dir) throws IOException {
+        // Given
+        Path file = dir.resolve("products.journal");
+        ProductDto first = product("MLA1", 1L);
+        ProductDto second = first.toBuilder().price(new BigDecimal("1500.50")).version(2L)
+                .lastUpdated(LocalDateTime.of(2024, 5, 1, 10, 30)).build();
+
+        // When
+        try (ProductJournal journal = ProductJournal.open(file, Durability.BATCH, 1_000, mapper)) {
+            ProductJournal.await(journal.append(List.of(first)));
+            ProductJournal.await(journal.append(List.of(second, product("MLA2", 1L))));
+        }
+
+        // Then
+        List<ProductDto> replayed = ProductJournal.replay(file, mapper);
+        assertEquals(List.of(first, second, product("MLA2", 1L)), replayed);
+        assertEquals(List.of(), ProductJournal.replay(dir.resolve("inexistente.journal"), mapper));
+    }
+
+    @Test
+    @DisplayName("Debe descartar un último registro incompleto")
+    void shouldDiscardTornLastRecord(@TempDir Path dir) throws IOException {
+        // Given
+        Path file = dir.resolve("products.journal");
+        try (ProductJournal journal = ProductJournal.open(file, Durability.BUFFERED, 1_000, mapper)) {
+            ProductJournal.await(journal.append(List.of(product("MLA1", 1L))));
+        }
+        Files.writeString(file, "{\"id\":\"MLA2\",\"tit", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // When
+        List<ProductDto> replayed = ProductJournal.replay(file, mapper);
+
+        // Then
+        assertEquals(List.of(product("MLA1", 1L)), replayed);
+    }
+
+    @Test
+    @DisplayName("Debe confirmar a escritores concurrentes agrupando sus registros en lotes")
+    void shouldGroupConcurrentWritersIntoBatches(@TempDir Path dir) throws Exception {
+        // Given
+        Path file = dir.resolve("products.journal");
+        int writers = 8;
+        int perWriter = 200;
+
+        // When
+        long batches;
+        try (ProductJournal journal = ProductJournal.open(file, Durability.PERIODIC, 50, mapper)) {
+            runConcurrently(writers, writer -> {
+                List<CompletableFuture<Void>> commits = new ArrayList<>();
+                for (int i = 0; i < perWriter; i++) {
+                    commits.add(journal.append(List.of(product("MLA" + writer + "-" + i, 1L))));
+                }
+                commits.forEach(ProductJournal::await);
+            });
+            assertEquals(writers * perWriter, journal.records());
+            batches = journal.batches();
+        }
+
+        // Then
+        List<ProductDto> replayed = ProductJournal.replay(file, mapper);
+        Set<String> ids = new HashSet<>();
+        replayed.forEach(product -> ids.add(product.getId()));
+        assertEquals(writers * perWriter, ids.size(), "Cada escritura confirmada debe estar en el journal");
+        assertTrue(batches <= writers * perWriter, "Nunca debe haber más lotes que escrituras");
+    }
+
+    @Test
+    @DisplayName("Debe escribir o rechazar cada append que compite con el cierre, sin dejar ninguno colgado")
+    void shouldNeverLeaveAppendsPendingWhenClosing(@TempDir Path dir) throws Exception {
+        for (int round = 0; round < 20; round++) {
+            // Given
+            ProductJournal journal = ProductJournal.open(dir.resolve("products-" + round + ".journal"),
+                    Durability.BUFFERED, 1_000, mapper);
+            List<CompletableFuture<Void>> commits = new ArrayList<>();
+            CountDownLatch started = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                try {
+                    for (int i = 0; ; i++) {
+                        commits.add(journal.append(List.of(product("MLA" + i, 1L))));
+                    }
+                } catch (IllegalStateException closed) {
+                    // El journal se cerró: ningún append posterior se acepta
+                }
+            });
+
+            // When
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            journal.close();
+            writer.get(5, TimeUnit.SECONDS);
+            executor.shutdown();
+
+            // Then
+            CompletableFuture.allOf(commits.stream()
+                            .map(commit -> commit.handle((ignored, error) -> null))
+                            .toArray(CompletableFuture[]::new))
+                    .get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe fallar cerrado después de un error de escritura, sin escribir nada detrás")
+    void shouldFailClosedAfterWriteError(@TempDir Path dir) throws Exception {
+        // Given: un mapper que no puede serializar un producto en particular
+        ObjectMapper failing = new ObjectMapper() {
+            @Override
+            public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+                if (value instanceof ProductDto product && "MLA-ROTO".equals(product.getId())) {
+                    throw new JsonMappingException(null, "No serializable");
+                }
+                return mapper.writeValueAsBytes(value);
+            }
+        };
+        Path file = dir.resolve("products.journal");
+        ProductJournal journal = ProductJournal.open(file, Durability.BATCH, 1_000, failing);
+        journal.append(List.of(product("MLA1", 1L))).get(5, TimeUnit.SECONDS);
+
+        // When
+        CompletableFuture<Void> broken = journal.append(List.of(product("MLA-ROTO", 1L)));
+
+        // Then: el lote falla y todo append posterior se rechaza antes de encolarse
+        ExecutionException error = assertThrows(ExecutionException.class, () -> broken.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UncheckedIOException.class, error.getCause());
+        assertThrows(UncheckedIOException.class, journal::ensureWritable);
+        assertThrows(UncheckedIOException.class, () -> journal.append(List.of(product("MLA2", 1L))));
+        journal.close();
+        assertEquals(List.of("MLA1"), ProductJournal.replay(file, mapper).stream().map(ProductDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Debe rechazar modos de durabilidad desconocidos")
+    void shouldParseDurability() {
+        assertEquals(Durability.BATCH, Durability.fromValue("batch"));
+        assertEquals(Durability.PERIODIC, Durability.fromValue(" Periodic "));
+        assertEquals(Durability.BUFFERED, Durability.fromValue("buffered"));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> Durability.fromValue("always"));
+        assertTrue(error.getMessage().contains("batch, periodic, buffered"));
+    }
+
+    /**
+     * Benchmark de group commit: escritores concurrentes con fsync por lote contra un fsync por escritura
+     * Ejecutar con: mvn test -Dtest=ProductJournalTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: group commit con fsync por lote")
+    void benchmarkGroupCommit(@TempDir Path dir) throws Exception {
+        int operations = 4_000;
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            Path file = dir.resolve("bench-" + threads + ".journal");
+            long start = System.nanoTime();
+            long batches;
+            try (ProductJournal journal = ProductJournal.open(file, Durability.BATCH, 1_000, mapper)) {
+                runConcurrently(threads, writer -> {
+                    for (int i = 0; i < operations / threads; i++) {
+                        ProductJournal.await(journal.append(List.of(product("MLA" + writer + "-" + i, 1L))));
+                    }
+                });
+                batches = journal.batches();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "escritores=%d  %,8.0f escrituras/s  %,6d fsync  (%.1f escrituras por fsync)%n",
+                    threads, operations / seconds, batches, (double) operations / batches);
+        }
+    }
+
+    private static void runConcurrently(int threads, WriterTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int writer = t;
+                futures.add(executor.submit(() -> task.run(writer)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private interface WriterTask {
+        void run(int writer);
+    }
+
+    private static ProductDto product(String id, long version) {
+        return ProductDto.builder()
+                .id(id)
+                .title("Producto " + id)
+                .price(new BigDecimal("1000"))
+                .currencyId("ARS")
+                .status("active")
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.catalog.infrastructure.web;
+
+import com.ecommerce.catalog.domain.exception.InvalidProductDataException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency Cache Tests")
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyCache cache = new IdempotencyCache(3, Duration.ofMinutes(10), now::get);
+
+    @Test
+    @DisplayName("Debe devolver la respuesta original a un reintento sin volver a ejecutar")
+    void shouldReplayStoredResponse() {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        cache.execute("k1", "POST /api/items:abc", () -> created("MLA" + executions.incrementAndGet()));
+
+        // When
+        Response retry = cache.execute("k1", "POST /api/items:abc", () -> created("MLA" + executions.incrementAndGet()));
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("MLA1", retry.getEntity());
+        assertEquals("true", retry.getHeaderString(IdempotencyCache.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una clave reutilizada con otro request")
+    void shouldRejectKeyReusedWithAnotherBody() {
+        // Given
+        cache.execute("k1", "POST /api/items:abc", () -> created("MLA1"));
+
+        // When & Then
+        assertThrows(InvalidProductDataException.class,
+                () -> cache.execute("k1", "POST /api/items:def", () -> created("MLA2")));
+        assertThrows(InvalidProductDataException.class,
+                () -> cache.execute("x".repeat(IdempotencyCache.MAX_KEY_LENGTH + 1), "POST /api/items:abc", () -> created("MLA3")));
+    }
+
+    @Test
+    @DisplayName("Debe hacer esperar a un duplicado concurrente el resultado de la ejecución en curso")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() -> cache.execute("k1", "f", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return created("MLA1");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Response> duplicate = CompletableFuture.supplyAsync(
+                () -> cache.execute("k1", "f", () -> created("MLA" + (1 + executions.incrementAndGet()))));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone(), "El duplicado debe esperar a la ejecución en curso");
+        release.countDown();
+
+        // Then
+        assertEquals("MLA1", first.get(5, TimeUnit.SECONDS).getEntity());
+        assertEquals("MLA1", duplicate.get(5, TimeUnit.SECONDS).getEntity());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Debe volver a ejecutar después de un error")
+    void shouldNotStoreFailures() {
+        // Given
+        assertThrows(InvalidProductDataException.class, () -> cache.execute("k1", "f", () -> {
+            throw new InvalidProductDataException("El título es obligatorio");
+        }));
+
+        // When
+        Response retry = cache.execute("k1", "f", () -> created("MLA1"));
+
+        // Then
+        assertEquals("MLA1", retry.getEntity());
+        assertNull(retry.getHeaderString(IdempotencyCache.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("No debe acumular entradas en la cola de descarte con errores repetidos")
+    void shouldNotQueueFailures() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertThrows(InvalidProductDataException.class, () -> cache.execute("k1", "f", () -> {
+                throw new InvalidProductDataException("El título es obligatorio");
+            }));
+        }
+
+        // Then
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.queued());
+    }
+
+    @Test
+    @DisplayName("No debe descartar una ejecución en curso al superar el máximo")
+    void shouldNeverEvictInFlightEntries() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() -> cache.execute("k0", "f", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return created("MLA0");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When: se completan más altas que el máximo mientras k0 sigue en curso
+        for (int i = 1; i <= 4; i++) {
+            int id = i;
+            cache.execute("k" + i, "f", () -> created("MLA" + id));
+        }
+        CompletableFuture<Response> retry = CompletableFuture.supplyAsync(
+                () -> cache.execute("k0", "f", () -> created("MLA" + (10 + executions.incrementAndGet()))));
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        assertEquals("MLA0", first.get(5, TimeUnit.SECONDS).getEntity());
+        assertEquals("MLA0", retry.get(5, TimeUnit.SECONDS).getEntity(), "El reintento espera a la ejecución en curso");
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("No debe vencer una ejecución en curso aunque supere el TTL")
+    void shouldNeverExpireInFlightEntries() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Response> first = CompletableFuture.supplyAsync(() -> cache.execute("k1", "f", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return created("MLA1");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When: el reintento llega después del TTL, con la primera ejecución todavía en curso
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+        CompletableFuture<Response> retry = CompletableFuture.supplyAsync(
+                () -> cache.execute("k1", "f", () -> created("MLA" + (1 + executions.incrementAndGet()))));
+        Thread.sleep(50);
+        assertFalse(retry.isDone(), "El reintento debe esperar a la ejecución en curso");
+        release.countDown();
+
+        // Then
+        assertEquals("MLA1", first.get(5, TimeUnit.SECONDS).getEntity());
+        assertEquals("MLA1", retry.get(5, TimeUnit.SECONDS).getEntity());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Debe descartar las entradas vencidas y las más viejas al superar el máximo")
+    void shouldExpireAndBoundEntries() {
+        // Given
+        cache.execute("k1", "f", () -> created("MLA1"));
+        now.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // When
+        Response afterTtl = cache.execute("k1", "f", () -> created("MLA2"));
+        for (int i = 2; i <= 4; i++) {
+            int id = i;
+            cache.execute("k" + i, "f", () -> created("MLA" + id));
+        }
+
+        // Then
+        assertEquals("MLA2", afterTtl.getEntity());
+        assertEquals(3, cache.size());
+        assertEquals("MLA9", cache.execute("k1", "f", () -> created("MLA9")).getEntity(), "k1 fue la más vieja");
+    }
+
+    private static Response created(String id) {
+        return Response.status(Response.Status.CREATED).entity(id).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -5,22 +5,42 @@ import com.ecommerce.catalog.application.service.ProductService;
 import com.ecommerce.catalog.infrastructure.web.dto.request.*;
 import com.ecommerce.catalog.domain.exception.*;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
 import io.quarkus.test.InjectMock;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
 import io.restassured.http.ContentType;
+import io.vertx.core.Context;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -115,14 +135,64 @@ class ProductControllerTest {
                 .body("status", equalTo("active"));
     }
 
+    @Test
+    @DisplayName("POST /api/items - Debe devolver la respuesta original a un reintento con la misma Idempotency-Key")
+    void shouldReplayCreateWithIdempotencyKey() {
+        // Given
+        String key = UUID.randomUUID().toString();
+        when(productService.createProduct(any(CreateProductRequestDto.class)))
+                .thenReturn(sampleProduct);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(createRequest)
+                .when()
+                .post("/api/items")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", nullValue());
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(createRequest)
+                .when()
+                .post("/api/items")
+                .then()
+                .statusCode(201)
+                .header("Idempotent-Replayed", equalTo("true"))
+                .body("id", equalTo("MLA1234567890"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(List.of(createRequest))
+                .when()
+                .post("/api/items/batch")
+                .then()
+                .statusCode(400);
+
+        verify(productService, times(1)).createProduct(any(CreateProductRequestDto.class));
+        verify(productService, never()).createProducts(anyList());
+    }
+
     @Test
     @DisplayName("POST /api/items/batch - Debe crear múltiples productos")
     void shouldCreateMultipleProducts() {
         // Given
         List<CreateProductRequestDto> requests = Arrays.asList(createRequest, createRequest);
-        List<ProductDto> products = Arrays.asList(sampleProduct, sampleProduct);
+        BatchOperationResultDto result = BatchOperationResultDto.builder()
+                .totalProcessed(2)
+                .successful(2)
+                .failed(0)
+                .items(List.of(
+                        new BatchItemResultDto(0, "MLA1234567890", BatchItemResultDto.CREATED, null),
+                        new BatchItemResultDto(1, "MLA1234567891", BatchItemResultDto.CREATED, null)))
+                .build();
 
-        when(productService.createProducts(anyList())).thenReturn(products);
+        when(productService.createProducts(anyList())).thenReturn(result);
 
         // When & Then
         given()
@@ -132,9 +202,37 @@ class ProductControllerTest {
                 .post("/api/items/batch")
                 .then()
                 .statusCode(201)
-                .body("size()", equalTo(2))
-                .body("[0].id", equalTo("MLA1234567890"))
-                .body("[1].id", equalTo("MLA1234567890"));
+                .body("successful", equalTo(2))
+                .body("items.size()", equalTo(2))
+                .body("items[0].id", equalTo("MLA1234567890"))
+                .body("items[1].id", equalTo("MLA1234567891"));
+    }
+
+    @Test
+    @DisplayName("POST /api/items/batch - Debe responder 207 si algún ítem falla")
+    void shouldReturnMultiStatusWhenSomeItemsFail() {
+        // Given
+        BatchOperationResultDto result = BatchOperationResultDto.builder()
+                .totalProcessed(2)
+                .successful(1)
+                .failed(1)
+                .items(List.of(
+                        new BatchItemResultDto(0, "MLA1234567890", BatchItemResultDto.CREATED, null),
+                        new BatchItemResultDto(1, null, BatchItemResultDto.ERROR, "Errores de validación: título")))
+                .build();
+
+        when(productService.createProducts(anyList())).thenReturn(result);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(createRequest, CreateProductRequestDto.builder().build()))
+                .when()
+                .post("/api/items/batch")
+                .then()
+                .statusCode(207)
+                .body("failed", equalTo(1))
+                .body("items[1].status", equalTo("error"));
     }
 
     // ================================
@@ -146,7 +244,7 @@ class ProductControllerTest {
     void shouldGetProductById() {
         // Given
         when(productService.getProductById("MLA1234567890"))
-                .thenReturn(sampleProduct);
+                .thenReturn(sampleProduct.toBuilder().version(2L).build());
 
         // When & Then
         given()
@@ -154,6 +252,7 @@ class ProductControllerTest {
                 .get("/api/items/MLA1234567890")
                 .then()
                 .statusCode(200)
+                .header("ETag", "\"2\"")
                 .body("id", equalTo("MLA1234567890"))
                 .body("title", equalTo("Test Product"))
                 .body("price", equalTo(100.00f))
@@ -162,6 +261,24 @@ class ProductControllerTest {
                 .body("status", equalTo("active"));
     }
 
+    @Test
+    @DisplayName("GET /api/items/{id} - El ETag debe incluir la versión de stock después de un volcado")
+    void shouldTagStockVersion() {
+        // Given: misma versión del documento, distinto stock
+        when(productService.getProductById("MLA1234567890"))
+                .thenReturn(sampleProduct.toBuilder().version(2L).stockVersion(5L).build());
+
+        // When & Then
+        given()
+                .when()
+                .get("/api/items/MLA1234567890")
+                .then()
+                .statusCode(200)
+                .header("ETag", "\"2.5\"")
+                .body("version", equalTo(2))
+                .body("stock_version", equalTo(5));
+    }
+
     @Test
     @DisplayName("GET /api/items/{id} - Debe retornar 404 cuando producto no existe")
     void shouldReturn404WhenProductNotFound() {
@@ -174,7 +291,8 @@ class ProductControllerTest {
                 .when()
                 .get("/api/items/MLA9999999999")
                 .then()
-                .statusCode(500); // QuarkusTest maneja excepciones como 500
+                .statusCode(404)
+                .body("cause[0].code", equalTo("item.not_found"));
     }
 
     @Test
@@ -203,9 +321,16 @@ class ProductControllerTest {
     @DisplayName("GET /api/items/search - Debe realizar búsqueda avanzada")
     void shouldPerformAdvancedSearch() {
         // Given
-        when(productService.advancedSearch(
-                eq("iPhone"), eq("Apple"), any(), any(), eq("new"),
-                eq(0), eq(50), eq("price_asc")))
+        when(productService.advancedSearch(argThat((SearchRequestDto request) ->
+                "iPhone".equals(request.getQuery())
+                        && "Apple".equals(request.getBrand())
+                        && "new".equals(request.getCondition())
+                        && List.of("STORAGE_CAPACITY:128 GB").equals(request.getAttributes())
+                        && request.getOffset() == 0
+                        && request.getLimit() == 50
+                        && "price_asc".equals(request.getSortBy())
+                        && !request.isFuzzy()
+                        && !request.isIncludeFacets())))
                 .thenReturn(listResponse);
 
         // When & Then
@@ -213,6 +338,7 @@ class ProductControllerTest {
                 .queryParam("q", "iPhone")
                 .queryParam("brand", "Apple")
                 .queryParam("condition", "new")
+                .queryParam("attr", "STORAGE_CAPACITY:128 GB")
                 .queryParam("offset", 0)
                 .queryParam("limit", 50)
                 .queryParam("sort", "price_asc")
@@ -220,7 +346,7 @@ class ProductControllerTest {
                 .get("/api/items/search")
                 .then()
                 .statusCode(200)
-                .body("results.size()", greaterThanOrEqualTo(0))
+                .body("results.size()", equalTo(1))
                 .body("paging", notNullValue());
     }
 
@@ -266,7 +392,8 @@ class ProductControllerTest {
         when(productService.searchByPriceRange(
                 new BigDecimal("50.00"),
                 new BigDecimal("200.00"),
-                "ARS"))
+                "ARS",
+                null))
                 .thenReturn(Arrays.asList(sampleProduct));
 
         // When & Then
@@ -299,7 +426,7 @@ class ProductControllerTest {
                 .status("active")
                 .build();
 
-        when(productService.updateProduct(eq("MLA1234567890"), any(UpdateProductRequestDto.class)))
+        when(productService.updateProduct(eq("MLA1234567890"), any(UpdateProductRequestDto.class), isNull()))
                 .thenReturn(updatedProduct);
 
         // When & Then
@@ -314,17 +441,94 @@ class ProductControllerTest {
                 .body("price", equalTo(120.00f));
     }
 
+    @Test
+    @DisplayName("PUT /api/items/{id} - Debe usar If-Match como versión esperada y devolver el nuevo ETag")
+    void shouldUpdateProductWithIfMatch() {
+        // Given
+        ProductDto updatedProduct = sampleProduct.toBuilder()
+                .title("Updated Test Product")
+                .version(4L)
+                .build();
+
+        when(productService.updateProduct(eq("MLA1234567890"), any(UpdateProductRequestDto.class), eq(Set.of(3L))))
+                .thenReturn(updatedProduct);
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .header("If-Match", "\"3\"")
+                .body(updateRequest)
+                .when()
+                .put("/api/items/MLA1234567890")
+                .then()
+                .statusCode(200)
+                .header("ETag", "\"4\"")
+                .body("version", equalTo(4));
+    }
+
+    @Test
+    @DisplayName("PUT /api/items/{id}/status - Debe responder 412 si la versión no coincide")
+    void shouldReturn412OnVersionConflict() {
+        // Given
+        when(productService.updateStatus(eq("MLA1234567890"), eq("paused"), eq(Set.of(2L))))
+                .thenThrow(new ProductVersionConflictException("El producto MLA1234567890 está en la versión 3"));
+
+        // When & Then
+        given()
+                .header("If-Match", "\"2\"")
+                .queryParam("status", "paused")
+                .when()
+                .put("/api/items/MLA1234567890/status")
+                .then()
+                .statusCode(412)
+                .body("cause[0].code", equalTo("item.version.conflict"));
+    }
+
+    @Test
+    @DisplayName("POST /api/items/{id}/variations/{variationId}/reserve - Debe reservar stock")
+    void shouldReserveStock() {
+        // Given
+        when(productService.reserveStock("MLA1234567890", 10L, 2)).thenReturn(StockReservationDto.builder()
+                .productId("MLA1234567890").variationId(10L).quantity(2).availableQuantity(3).build());
+
+        // When & Then
+        given()
+                .queryParam("quantity", 2)
+                .when()
+                .post("/api/items/MLA1234567890/variations/10/reserve")
+                .then()
+                .statusCode(200)
+                .body("variation_id", equalTo(10))
+                .body("available_quantity", equalTo(3));
+    }
+
+    @Test
+    @DisplayName("POST /api/items/{id}/variations/{variationId}/reserve - Debe responder 409 sin stock")
+    void shouldReturn409WhenStockIsInsufficient() {
+        // Given
+        when(productService.reserveStock("MLA1234567890", 10L, 1))
+                .thenThrow(new InsufficientStockException("Stock insuficiente en la variación 10"));
+
+        // When & Then
+        given()
+                .when()
+                .post("/api/items/MLA1234567890/variations/10/reserve")
+                .then()
+                .statusCode(409)
+                .body("cause[0].code", equalTo("item.stock.insufficient"));
+    }
+
     @Test
     @DisplayName("PUT /api/items/{id}/price - Debe actualizar precio")
     void shouldUpdatePrice() {
         // Given
-        ProductDto updatedProduct = sampleProduct;
-        updatedProduct.setPrice(new BigDecimal("199.99"));
+        ProductDto updatedProduct = sampleProduct.toBuilder().price(new BigDecimal("199.99")).build();
 
         when(productService.updatePrice(
-                "MLA1234567890",
-                new BigDecimal("199.99"),
-                "Promoción especial"))
+                eq("MLA1234567890"),
+                eq(new BigDecimal("199.99")),
+                eq("Promoción especial"),
+                isNull()))
                 .thenReturn(updatedProduct);
 
         // When & Then
@@ -342,10 +546,9 @@ class ProductControllerTest {
     @DisplayName("PUT /api/items/{id}/status - Debe actualizar estado")
     void shouldUpdateStatus() {
         // Given
-        ProductDto updatedProduct = sampleProduct;
-        updatedProduct.setStatus("paused");
+        ProductDto updatedProduct = sampleProduct.toBuilder().status("paused").build();
 
-        when(productService.updateStatus("MLA1234567890", "paused"))
+        when(productService.updateStatus(eq("MLA1234567890"), eq("paused"), isNull()))
                 .thenReturn(updatedProduct);
 
         // When & Then
@@ -387,9 +590,13 @@ class ProductControllerTest {
                 .successful(2)
                 .failed(0)
                 .build();
+        List<String> received = new ArrayList<>();
 
-        when(productService.deleteProducts(anyList()))
-                .thenReturn(result);
+        when(productService.deleteProducts(any(Stream.class))).thenAnswer(invocation -> {
+            Stream<String> streamed = invocation.getArgument(0);
+            streamed.forEach(received::add);
+            return result;
+        });
 
         // When & Then
         given()
@@ -402,6 +609,28 @@ class ProductControllerTest {
                 .body("totalProcessed", equalTo(2))
                 .body("successful", equalTo(2))
                 .body("failed", equalTo(0));
+        assertEquals(ids, received);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/items/batch - Debe rechazar un body que no es un array de IDs")
+    void shouldRejectMalformedDeleteBatchBody() {
+        // Given
+        when(productService.deleteProducts(any(Stream.class))).thenAnswer(invocation -> {
+            Stream<String> streamed = invocation.getArgument(0);
+            streamed.forEach(id -> { });
+            return BatchOperationResultDto.builder().build();
+        });
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .body("[\"MLA1234567890\", 42]")
+                .when()
+                .delete("/api/items/batch")
+                .then()
+                .statusCode(400)
+                .body("cause[0].message", containsString("solo puede contener IDs"));
     }
 
     // ================================
@@ -437,6 +666,33 @@ class ProductControllerTest {
                 .body("brands", hasItems("Nike", "Adidas", "Apple"));
     }
 
+    @Test
+    @DisplayName("GET /api/items/{id} y /statistics - Deben resolverse en el event loop y las altas en un worker")
+    void shouldServeReadsOnEventLoop() {
+        // Given
+        List<Boolean> onEventLoop = Collections.synchronizedList(new ArrayList<>());
+        when(productService.getProductById("MLA1234567890")).thenAnswer(invocation -> {
+            onEventLoop.add(Context.isOnEventLoopThread());
+            return sampleProduct;
+        });
+        when(productService.getStatistics()).thenAnswer(invocation -> {
+            onEventLoop.add(Context.isOnEventLoopThread());
+            return ProductStatisticsDto.builder().totalProducts(1L).build();
+        });
+        when(productService.createProduct(any(CreateProductRequestDto.class))).thenAnswer(invocation -> {
+            onEventLoop.add(Context.isOnEventLoopThread());
+            return sampleProduct;
+        });
+
+        // When
+        given().when().get("/api/items/MLA1234567890").then().statusCode(200);
+        given().when().get("/api/items/statistics").then().statusCode(200);
+        given().contentType(ContentType.JSON).body(createRequest).when().post("/api/items").then().statusCode(201);
+
+        // Then
+        assertEquals(List.of(true, true, false), onEventLoop);
+    }
+
     @Test
     @DisplayName("GET /api/items/sort-options - Debe obtener opciones de ordenamiento")
     void shouldGetSortOptions() {
@@ -460,15 +716,316 @@ class ProductControllerTest {
                 .body("[0].name", equalTo("Menor precio"));
     }
 
+    @Test
+    @DisplayName("GET /api/items/suggest - Debe obtener sugerencias de autocompletado")
+    void shouldGetSuggestions() {
+        // Given
+        when(productService.getSuggestions("zap", 5)).thenReturn(List.of(
+                new SuggestionDto("Zapatillas Nike Air Max 270 - Negras", "title", 121L),
+                new SuggestionDto("Zapatillas Adidas Ultraboost", "title", 41L)));
+
+        // When & Then
+        given()
+                .queryParam("prefix", "zap")
+                .when()
+                .get("/api/items/suggest")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].text", equalTo("Zapatillas Nike Air Max 270 - Negras"))
+                .body("[0].type", equalTo("title"))
+                .body("[0].score", equalTo(121));
+    }
+
+    @Test
+    @DisplayName("GET /api/items/search/count - Debe devolver solo el total para los filtros")
+    void shouldCountProducts() {
+        // Given
+        when(productService.countProducts(argThat((SearchRequestDto r) ->
+                "Nike".equals(r.getBrand()) && "new".equals(r.getCondition())))).thenReturn(3L);
+
+        // When & Then
+        given()
+                .queryParam("brand", "Nike")
+                .queryParam("condition", "new")
+                .when()
+                .get("/api/items/search/count")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(3));
+    }
+
+    @Test
+    @DisplayName("POST /api/items/_update_by_query - Debe aplicar la operación a los productos del filtro")
+    void shouldUpdateByQuery() {
+        // Given
+        when(productService.updateByQuery(
+                argThat((SearchRequestDto r) -> "Nike".equals(r.getBrand()) && "new".equals(r.getCondition())),
+                argThat(op -> new BigDecimal("-15").compareTo(op.getPricePercent()) == 0)))
+                .thenReturn(UpdateByQueryResultDto.builder()
+                        .matched(3)
+                        .updated(2)
+                        .failed(1)
+                        .failures(List.of(BatchItemResultDto.builder()
+                                .index(1)
+                                .id("MLA2")
+                                .status(BatchItemResultDto.ERROR)
+                                .error("No se puede cambiar el estado de un producto cerrado")
+                                .build()))
+                        .build());
+
+        // When & Then
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("brand", "Nike")
+                .queryParam("condition", "new")
+                .body("{\"price_percent\": -15}")
+                .when()
+                .post("/api/items/_update_by_query")
+                .then()
+                .statusCode(200)
+                .body("matched", equalTo(3))
+                .body("updated", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("failures[0].id", equalTo("MLA2"));
+    }
+
+    @Test
+    @DisplayName("POST /api/items/_update_by_query - Debe rechazar un estado inválido")
+    void shouldRejectUpdateByQueryWithInvalidStatus() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"deleted\"}")
+                .when()
+                .post("/api/items/_update_by_query")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("POST /api/items/_import - Debe importar NDJSON y responder un resultado por línea")
+    @SuppressWarnings("unchecked")
+    void shouldImportNdjson() {
+        // Given
+        when(productService.importProducts(any(), any())).thenAnswer(invocation -> {
+            Stream<Supplier<CreateProductRequestDto>> items = invocation.getArgument(0);
+            Consumer<List<BatchItemResultDto>> onBatch = invocation.getArgument(1);
+            List<BatchItemResultDto> results = new ArrayList<>();
+            items.forEach(item -> {
+                int index = results.size();
+                try {
+                    CreateProductRequestDto request = item.get();
+                    results.add(BatchItemResultDto.builder().index(index).id(request.getTitle())
+                            .status(BatchItemResultDto.CREATED).build());
+                } catch (InvalidProductDataException e) {
+                    results.add(BatchItemResultDto.builder().index(index)
+                            .status(BatchItemResultDto.ERROR).error(e.getMessage()).build());
+                }
+            });
+            onBatch.accept(results);
+            return BatchOperationResultDto.builder().totalProcessed(2).successful(1).failed(1).build();
+        });
+
+        // When
+        String body = given()
+                .contentType("application/x-ndjson")
+                .body(("{\"title\": \"Mochila urbana\", \"price\": 25000, \"currency_id\": \"ARS\"}\n"
+                        + "\n"
+                        + "{\"title\": \"cortada\n").getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/api/items/_import")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length, body);
+        assertTrue(lines[0].contains("\"id\":\"Mochila urbana\""), lines[0]);
+        assertTrue(lines[0].contains("\"status\":\"created\""), lines[0]);
+        assertTrue(lines[1].contains("JSON inválido"), lines[1]);
+        assertTrue(lines[2].contains("\"totalProcessed\":2"), lines[2]);
+    }
+
+    @Test
+    @DisplayName("GET /api/items/_export - Debe exportar NDJSON comprimido con gzip")
+    void shouldExportNdjsonWithGzip() {
+        // Given
+        ProductDto second = sampleProduct.toBuilder().id("MLA1234567891").title("Second Product").build();
+        when(productService.exportProducts(argThat(r -> "Nike".equals(r.getBrand()))))
+                .thenReturn(List.of(sampleProduct, second));
+
+        // When
+        String body = given()
+                .header("Accept-Encoding", "gzip")
+                .queryParam("brand", "Nike")
+                .when()
+                .get("/api/items/_export")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length, body);
+        assertTrue(lines[0].startsWith("{\"id\":\"MLA1234567890\""), lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":\"MLA1234567891\""), lines[1]);
+    }
+
+    @Test
+    @DisplayName("GET /api/items/_export - No debe comprimir si Accept-Encoding rechaza gzip con q=0")
+    void shouldNotGzipExportWhenRejectedByQuality() {
+        // Given
+        when(productService.exportProducts(any())).thenReturn(List.of(sampleProduct));
+
+        // When & Then
+        given()
+                .config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+                .header("Accept-Encoding", "gzip;q=0, identity")
+                .when()
+                .get("/api/items/_export")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body(containsString("\"id\":\"MLA1234567890\""));
+    }
+
+    @Test
+    @DisplayName("Debe interpretar Accept-Encoding con q-values")
+    void shouldParseAcceptEncodingQualities() {
+        assertTrue(ProductController.acceptsGzip("gzip"));
+        assertTrue(ProductController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ProductController.acceptsGzip("x-gzip"));
+        assertTrue(ProductController.acceptsGzip("*"));
+        assertFalse(ProductController.acceptsGzip(null));
+        assertFalse(ProductController.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductController.acceptsGzip("gzip; q=0.000, *"), "gzip explícito con q=0 gana sobre *");
+        assertFalse(ProductController.acceptsGzip("*;q=0"));
+        assertFalse(ProductController.acceptsGzip("br, notgzip, deflate"));
+        assertFalse(ProductController.acceptsGzip("gzip;q=abc"));
+    }
+
+    @Test
+    @DisplayName("Debe interpretar If-Match como lista de tags con comparación fuerte")
+    void shouldParseIfMatchLists() {
+        assertNull(ProductController.expectedVersions(null));
+        assertNull(ProductController.expectedVersions(" * "));
+        assertEquals(Set.of(3L), ProductController.expectedVersions("\"3\""));
+        assertEquals(Set.of(1L, 2L), ProductController.expectedVersions("\"1\", \"2\""));
+        assertEquals(Set.of(2L), ProductController.expectedVersions("W/\"1\",\"2\""), "Los tags débiles no coinciden");
+        assertEquals(Set.of(), ProductController.expectedVersions("W/\"1\""));
+        assertEquals(Set.of(), ProductController.expectedVersions("\"abc\""));
+        assertEquals(Set.of(4L), ProductController.expectedVersions("\"4.2\""), "La versión de stock no cuenta");
+        assertEquals(Set.of(), ProductController.expectedVersions("\"4.x\""));
+        assertThrows(InvalidProductDataException.class, () -> ProductController.expectedVersions("3"));
+        assertThrows(InvalidProductDataException.class, () -> ProductController.expectedVersions("\"3"));
+        assertThrows(InvalidProductDataException.class, () -> ProductController.expectedVersions("\"3\"x"));
+        assertThrows(InvalidProductDataException.class, () -> ProductController.expectedVersions(" , "));
+    }
+
+    @Test
+    @DisplayName("PUT /api/items/{id}/status - Un If-Match solo con tags débiles debe fallar con 412")
+    void shouldRejectWeakIfMatch() {
+        // Given
+        when(productService.updateStatus(eq("MLA1234567890"), eq("paused"), eq(Set.of())))
+                .thenThrow(new ProductVersionConflictException("El producto MLA1234567890 está en la versión 2"));
+
+        // When & Then
+        given()
+                .header("If-Match", "W/\"2\"")
+                .queryParam("status", "paused")
+                .when()
+                .put("/api/items/MLA1234567890/status")
+                .then()
+                .statusCode(412);
+    }
+
+    @Test
+    @DisplayName("GET /api/items/_export - Debe exportar un array JSON sin comprimir")
+    void shouldExportJsonArray() {
+        // Given
+        when(productService.exportProducts(any())).thenReturn(List.of(sampleProduct));
+
+        // When & Then
+        given()
+                .config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+                .queryParam("format", "json")
+                .when()
+                .get("/api/items/_export")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .contentType(ContentType.JSON)
+                .body("size()", equalTo(1))
+                .body("[0].id", equalTo("MLA1234567890"));
+    }
+
+    @Test
+    @DisplayName("GET /api/items/_export - Debe rechazar un formato desconocido")
+    void shouldRejectUnknownExportFormat() {
+        given()
+                .queryParam("format", "csv")
+                .when()
+                .get("/api/items/_export")
+                .then()
+                .statusCode(400);
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("GET /api/items/changes - Debe emitir los cambios como Server-Sent Events")
+    void shouldStreamChanges() {
+        // Given
+        when(productService.streamChanges(41L, null)).thenReturn(Multi.createFrom().items(
+                ChangeEventDto.builder().sequence(42L).type("price_changed").productId("MLA1234567890")
+                        .version(3L).product(sampleProduct).build(),
+                ChangeEventDto.builder().sequence(43L).type("status_changed").productId("MLA1234567890")
+                        .version(4L).build()));
+
+        // When
+        String body = given()
+                .queryParam("since", 41)
+                .when()
+                .get("/api/items/changes")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("text/event-stream"))
+                .extract().asString();
+
+        // Then
+        assertTrue(body.contains("id:42"), body);
+        assertTrue(body.contains("event:price_changed"), body);
+        assertTrue(body.contains("\"product_id\":\"MLA1234567890\""), body);
+        assertTrue(body.indexOf("id:42") < body.indexOf("id:43"), body);
+    }
+
+    @Test
+    @DisplayName("GET /api/items/changes - Debe responder 400 si la secuencia ya no está disponible")
+    void shouldRejectExpiredChangeSequence() {
+        // Given
+        when(productService.streamChanges(null, "5"))
+                .thenThrow(new InvalidProductDataException("La secuencia 5 no está disponible"));
+
+        // When & Then
+        given()
+                .header("Last-Event-ID", "5")
+                .when()
+                .get("/api/items/changes")
+                .then()
+                .statusCode(400);
+    }
+
     @Test
     @DisplayName("GET /api/items/brands - Debe obtener marcas disponibles")
     void shouldGetAvailableBrands() {
         // Given
-        ProductStatisticsDto statistics = ProductStatisticsDto.builder()
-                .brands(Arrays.asList("Nike", "Adidas", "Apple", "Sony"))
-                .build();
-
-        when(productService.getStatistics()).thenReturn(statistics);
+        when(productService.getAvailableBrands()).thenReturn(Arrays.asList("Nike", "Adidas", "Apple", "Sony"));
 
         // When & Then
         given()
@@ -484,11 +1041,7 @@ class ProductControllerTest {
     @DisplayName("GET /api/items/categories - Debe obtener categorías disponibles")
     void shouldGetAvailableCategories() {
         // Given
-        ProductStatisticsDto statistics = ProductStatisticsDto.builder()
-                .categories(Arrays.asList("Footwear", "Electronics", "Clothing"))
-                .build();
-
-        when(productService.getStatistics()).thenReturn(statistics);
+        when(productService.getAvailableCategories()).thenReturn(Arrays.asList("Footwear", "Electronics", "Clothing"));
 
         // When & Then
         given()
@@ -549,9 +1102,11 @@ class ProductControllerTest {
     @DisplayName("Debe manejar búsqueda con parámetros vacíos")
     void shouldHandleEmptySearchParams() {
         // Given
-        when(productService.advancedSearch(
-                isNull(), isNull(), isNull(), isNull(), isNull(),
-                eq(0), eq(50), isNull()))
+        when(productService.advancedSearch(argThat((SearchRequestDto request) ->
+                request.getQuery() == null
+                        && request.getOffset() == 0
+                        && request.getLimit() == 50
+                        && request.getSortBy() == null)))
                 .thenReturn(ProductListResponseDto.builder()
                         .results(Collections.emptyList())
                         .paging(PagingResponseDto.builder()